@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import org.firstinspires.ftc.teamcode.control.gainmatrix.HSV;
+import org.firstinspires.ftc.teamcode.control.gainmatrix.RGB;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColorBenchmark {
+
+    private final RGB rgb = new RGB(180, 160, 20);
+
+    @Benchmark
+    public HSV rgbToHSV() {
+        rgb.green = 340 - rgb.green;
+        return rgb.toHSV();
+    }
+}
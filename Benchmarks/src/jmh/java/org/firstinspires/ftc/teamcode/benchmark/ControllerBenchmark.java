@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import org.firstinspires.ftc.teamcode.control.controller.PIDController;
+import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
+import org.firstinspires.ftc.teamcode.control.motion.SimulatedClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerBenchmark {
+
+    private final SimulatedClock clock = new SimulatedClock();
+    private PIDController controller;
+    private double position;
+
+    @Setup
+    public void setup() {
+        controller = new PIDController(clock);
+        controller.setGains(new PIDGains(0.5, 0.4, 0.01, 1));
+        controller.setTarget(10);
+    }
+
+    @Benchmark
+    public double pidCalculate() {
+        clock.advance(0.01);
+        position += 0.01;
+        if (position > 20) position = 0;
+        return controller.calculate(position);
+    }
+
+    @Benchmark
+    public double pidCalculateState() {
+        clock.advance(0.01);
+        position += 0.01;
+        if (position > 20) position = 0;
+        return controller.calculate(new org.firstinspires.ftc.teamcode.control.motion.State(position));
+    }
+}
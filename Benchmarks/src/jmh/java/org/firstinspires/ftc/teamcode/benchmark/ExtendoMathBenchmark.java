@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import org.firstinspires.ftc.teamcode.subsystem.Extendo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExtendoMathBenchmark {
+
+    private double radians = Extendo.Math.RAD_RETRACTED, millimeters = Extendo.Math.MM_RETRACTED;
+
+    @Benchmark
+    public double millimeters() {
+        radians += 0.001;
+        if (radians > Extendo.Math.RAD_EXTENDED) radians = Extendo.Math.RAD_RETRACTED;
+        return Extendo.Math.millimeters(radians);
+    }
+
+    @Benchmark
+    public double exactMillimeters() {
+        radians += 0.001;
+        if (radians > Extendo.Math.RAD_EXTENDED) radians = Extendo.Math.RAD_RETRACTED;
+        return Extendo.Math.exactMillimeters(radians);
+    }
+
+    @Benchmark
+    public double radians() {
+        millimeters += 0.1;
+        if (millimeters > Extendo.Math.MM_EXTENDED) millimeters = Extendo.Math.MM_RETRACTED;
+        return Extendo.Math.radians(millimeters);
+    }
+
+    @Benchmark
+    public double radiansPerMillimeter() {
+        millimeters += 0.1;
+        if (millimeters > Extendo.Math.MM_EXTENDED) millimeters = Extendo.Math.MM_RETRACTED;
+        return Extendo.Math.radiansPerMillimeter(millimeters);
+    }
+
+    @Benchmark
+    public double exactRadians() {
+        millimeters += 0.1;
+        if (millimeters > Extendo.Math.MM_EXTENDED) millimeters = Extendo.Math.MM_RETRACTED;
+        return Extendo.Math.exactRadians(millimeters);
+    }
+
+    @Benchmark
+    public double exactRadiansPerMillimeter() {
+        millimeters += 0.1;
+        if (millimeters > Extendo.Math.MM_EXTENDED) millimeters = Extendo.Math.MM_RETRACTED;
+        return Extendo.Math.exactRadiansPerMillimeter(millimeters);
+    }
+}
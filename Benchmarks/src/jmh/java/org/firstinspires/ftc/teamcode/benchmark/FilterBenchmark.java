@@ -0,0 +1,123 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import org.firstinspires.ftc.teamcode.control.filter.FIRLowPassFilter;
+import org.firstinspires.ftc.teamcode.control.filter.Filter;
+import org.firstinspires.ftc.teamcode.control.filter.IIRLowPassFilter;
+import org.firstinspires.ftc.teamcode.control.filter.MovingAverageFilter;
+import org.firstinspires.ftc.teamcode.control.filter.MovingMedianFilter;
+import org.firstinspires.ftc.teamcode.control.filter.SlewRateLimiter;
+import org.firstinspires.ftc.teamcode.control.gainmatrix.LowPassGains;
+import org.firstinspires.ftc.teamcode.control.motion.SimulatedClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilterBenchmark {
+
+    @Param({"2", "10", "50"})
+    public int count;
+
+    private final double[] input = new double[1024];
+    private int i = 0;
+
+    private final SimulatedClock clock = new SimulatedClock();
+
+    private IIRLowPassFilter iir;
+    private FIRLowPassFilter fir;
+    private ArrayListFIRLowPassFilter firArrayList;
+    private MovingAverageFilter average;
+    private MovingMedianFilter median;
+    private SlewRateLimiter slewRateLimiter;
+
+    /**
+     * {@link FIRLowPassFilter} as it was before its ring buffer: boxes every value and re-runs the recursion over the
+     * whole window
+     */
+    private static final class ArrayListFIRLowPassFilter implements Filter {
+        private final LowPassGains gains;
+        private final ArrayList<Double> values = new ArrayList<>();
+
+        ArrayListFIRLowPassFilter(LowPassGains gains) {
+            this.gains = new LowPassGains(gains.gain, Math.max(gains.count, 2));
+        }
+
+        public void reset() {
+            values.clear();
+        }
+
+        public double calculate(double newValue) {
+            values.add(newValue);
+            if (values.size() < 2) return newValue;
+            while (values.size() > gains.count) values.remove(0);
+
+            double estimate = values.get(0);
+            for (int ind = 1; ind < values.size(); ind++) {
+                estimate = gains.gain * estimate + (1 - gains.gain) * values.get(ind);
+            }
+
+            return estimate;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(21836);
+        for (int j = 0; j < input.length; j++) input[j] = Math.sin(j * 0.01) + 0.1 * random.nextGaussian();
+
+        LowPassGains gains = new LowPassGains(0.8, count);
+        iir = new IIRLowPassFilter(gains);
+        fir = new FIRLowPassFilter(gains);
+        firArrayList = new ArrayListFIRLowPassFilter(gains);
+        average = new MovingAverageFilter(count);
+        median = new MovingMedianFilter(count);
+        slewRateLimiter = new SlewRateLimiter(5, clock);
+    }
+
+    private double next() {
+        i = (i + 1) & (input.length - 1);
+        return input[i];
+    }
+
+    @Benchmark
+    public double iir() {
+        return iir.calculate(next());
+    }
+
+    @Benchmark
+    public double fir() {
+        return fir.calculate(next());
+    }
+
+    @Benchmark
+    public double firArrayList() {
+        return firArrayList.calculate(next());
+    }
+
+    @Benchmark
+    public double movingAverage() {
+        return average.calculate(next());
+    }
+
+    @Benchmark
+    public double movingMedian() {
+        return median.calculate(next());
+    }
+
+    @Benchmark
+    public double slewRateLimiter() {
+        clock.advance(0.01);
+        return slewRateLimiter.calculate(next());
+    }
+}
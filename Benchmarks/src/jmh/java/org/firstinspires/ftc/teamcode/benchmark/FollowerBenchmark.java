@@ -0,0 +1,112 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import com.acmerobotics.roadrunner.DualNum;
+import com.acmerobotics.roadrunner.HolonomicController;
+import com.acmerobotics.roadrunner.MecanumKinematics;
+import com.acmerobotics.roadrunner.MotorFeedforward;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.Pose2dDual;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.PoseVelocity2dDual;
+import com.acmerobotics.roadrunner.Rotation2dDual;
+import com.acmerobotics.roadrunner.Time;
+import com.acmerobotics.roadrunner.Vector2d;
+import com.acmerobotics.roadrunner.Vector2dDual;
+
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumFollower;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One loop of the drive actions' control math: Road Runner's, as the actions used to run it, against {@link MecanumFollower} <p>
+ * Before timing either, checks that they give the same motor powers for a few turning, accelerating targets
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FollowerBenchmark {
+
+    private static final MecanumDrive.Params PARAMS = new MecanumDrive.Params();
+
+    private static final double VOLTAGE = 12, TOLERANCE = 1e-9;
+
+    private final MecanumKinematics kinematics = new MecanumKinematics(
+            PARAMS.inPerTick * PARAMS.trackWidthTicks, PARAMS.inPerTick / PARAMS.lateralInPerTick);
+
+    private final DualNum<Time> targetHeading = new DualNum<>(new double[] {0.5, 1, -2});
+    private final Pose2dDual<Time> target = new Pose2dDual<>(
+            new Vector2dDual<>(new DualNum<>(new double[] {10, 30, 5}), new DualNum<>(new double[] {-4, 12, -8})),
+            new Rotation2dDual<>(targetHeading.cos(), targetHeading.sin())
+    );
+    private final Pose2d pose = new Pose2d(9.5, -3.8, 0.48);
+    private final PoseVelocity2d velocity = new PoseVelocity2d(new Vector2d(28, 11), 0.9);
+
+    private final MecanumFollower follower = new MecanumFollower(PARAMS, kinematics);
+
+    private final double[] powers = new double[4];
+
+    @Setup(Level.Trial)
+    public void checkEquivalence() {
+        double[][] headings = {{0.5, 1, -2}, {-2.8, -3, 4}, {3.1, 0.5, 0}, {1.2, 2.5, 6}};
+        double[][] xs = {{10, 30, 5}, {-40, -12, 20}, {0, 45, -30}, {25, 0, 0}};
+        double[][] ys = {{-4, 12, -8}, {15, 20, 10}, {60, -5, 15}, {-30, 35, -25}};
+
+        for (int t = 0; t < headings.length; t++) {
+            DualNum<Time> heading = new DualNum<>(headings[t]);
+            Pose2dDual<Time> turning = new Pose2dDual<>(
+                    new Vector2dDual<>(new DualNum<>(xs[t]), new DualNum<>(ys[t])),
+                    new Rotation2dDual<>(heading.cos(), heading.sin())
+            );
+            Pose2d near = new Pose2d(xs[t][0] - 0.5, ys[t][0] + 0.2, headings[t][0] - 0.05);
+
+            roadRunner(turning, near, velocity, powers);
+            follower.setTarget(turning);
+            follower.update(near, velocity, VOLTAGE);
+
+            for (int i = 0; i < powers.length; i++) {
+                if (Math.abs(follower.powers[i] - powers[i]) > TOLERANCE) throw new IllegalStateException(
+                        "MecanumFollower power " + i + " is " + follower.powers[i] + " for target " + t + ", Road Runner's is " + powers[i]);
+            }
+        }
+    }
+
+    /**
+     * Motor powers as the actions computed them before {@link MecanumFollower}, written into {@code powers}
+     */
+    private void roadRunner(Pose2dDual<Time> target, Pose2d pose, PoseVelocity2d velocity, double[] powers) {
+        PoseVelocity2dDual<Time> command = new HolonomicController(
+                PARAMS.axialGain, PARAMS.lateralGain, PARAMS.headingGain,
+                PARAMS.axialVelGain, PARAMS.lateralVelGain, PARAMS.headingVelGain
+        )
+                .compute(target, pose, velocity);
+        MecanumKinematics.WheelVelocities<Time> wheelVels = kinematics.inverse(command);
+        MotorFeedforward feedforward = new MotorFeedforward(PARAMS.kS,
+                PARAMS.kV / PARAMS.inPerTick, PARAMS.kA / PARAMS.inPerTick);
+        powers[MecanumFollower.LEFT_FRONT] = feedforward.compute(wheelVels.leftFront) / VOLTAGE;
+        powers[MecanumFollower.LEFT_BACK] = feedforward.compute(wheelVels.leftBack) / VOLTAGE;
+        powers[MecanumFollower.RIGHT_BACK] = feedforward.compute(wheelVels.rightBack) / VOLTAGE;
+        powers[MecanumFollower.RIGHT_FRONT] = feedforward.compute(wheelVels.rightFront) / VOLTAGE;
+    }
+
+    @Benchmark
+    public double roadRunner() {
+        roadRunner(target, pose, velocity, powers);
+        return powers[0] + powers[1] + powers[2] + powers[3];
+    }
+
+    @Benchmark
+    public double follower() {
+        follower.setTarget(target);
+        follower.update(pose, velocity, VOLTAGE);
+        return follower.powers[0] + follower.powers[1] + follower.powers[2] + follower.powers[3];
+    }
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import org.firstinspires.ftc.teamcode.control.motion.EditablePose;
+import org.firstinspires.ftc.teamcode.subsystem.drivetrain.SwerveDrivetrain;
+import org.firstinspires.ftc.teamcode.subsystem.drivetrain.SwerveModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KinematicsBenchmark {
+
+    private final EditablePose drive = new EditablePose(0.3, -0.6, 0.2);
+
+    @Benchmark
+    public SwerveModule.State[] robotToPodStates() {
+        drive.heading = -drive.heading;
+        return SwerveDrivetrain.SwerveKinematics.robotToPodStates(drive);
+    }
+}
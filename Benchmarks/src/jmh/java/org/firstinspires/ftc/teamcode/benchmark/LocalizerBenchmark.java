@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import com.acmerobotics.roadrunner.Time;
+import com.acmerobotics.roadrunner.Twist2dDual;
+
+import org.firstinspires.ftc.teamcode.roadrunner.ThreeDeadWheelLocalizer;
+import org.firstinspires.ftc.teamcode.roadrunner.TwoDeadWheelLocalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocalizerBenchmark {
+
+    private final ThreeDeadWheelLocalizer.Params threeParams = new ThreeDeadWheelLocalizer.Params();
+    private final TwoDeadWheelLocalizer.Params twoParams = new TwoDeadWheelLocalizer.Params();
+
+    private double delta = 12;
+
+    @Setup
+    public void setup() {
+        threeParams.par0YTicks = -2000;
+        threeParams.par1YTicks = 2000;
+        threeParams.perpXTicks = -1500;
+        twoParams.parYTicks = 2000;
+        twoParams.perpXTicks = -1500;
+    }
+
+    @Benchmark
+    public Twist2dDual<Time> threeDeadWheel() {
+        delta = -delta;
+        return ThreeDeadWheelLocalizer.twist(threeParams, 0.002, delta, 1200, -delta, 1100, 0.5 * delta, 300);
+    }
+
+    @Benchmark
+    public Twist2dDual<Time> twoDeadWheel() {
+        delta = -delta;
+        return TwoDeadWheelLocalizer.twist(twoParams, 0.002, delta, 1200, 0.5 * delta, 300, 0.001 * delta, 0.1);
+    }
+}
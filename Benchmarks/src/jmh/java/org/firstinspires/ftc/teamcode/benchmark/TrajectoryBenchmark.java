@@ -0,0 +1,94 @@
+package org.firstinspires.ftc.teamcode.benchmark;
+
+import com.acmerobotics.roadrunner.AngularVelConstraint;
+import com.acmerobotics.roadrunner.MecanumKinematics;
+import com.acmerobotics.roadrunner.MinVelConstraint;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.ProfileAccelConstraint;
+import com.acmerobotics.roadrunner.ProfileParams;
+import com.acmerobotics.roadrunner.TimeTrajectory;
+import com.acmerobotics.roadrunner.TrajectoryActionBuilder;
+import com.acmerobotics.roadrunner.TrajectoryBuilderParams;
+import com.acmerobotics.roadrunner.TurnConstraints;
+import com.acmerobotics.roadrunner.Vector2d;
+
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumFollower;
+import org.firstinspires.ftc.teamcode.roadrunner.SampledTrajectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up one loop's drive target: Road Runner's spline evaluation, as {@link MecanumDrive.FollowTrajectoryAction}
+ * used to, against interpolating a {@link SampledTrajectory}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrajectoryBenchmark {
+
+    private static final MecanumDrive.Params PARAMS = new MecanumDrive.Params();
+
+    private final MecanumKinematics kinematics = new MecanumKinematics(
+            PARAMS.inPerTick * PARAMS.trackWidthTicks, PARAMS.inPerTick / PARAMS.lateralInPerTick);
+
+    private final MecanumFollower follower = new MecanumFollower(PARAMS, kinematics);
+
+    private TimeTrajectory trajectory;
+    private SampledTrajectory sampled;
+
+    /**
+     * Seconds into the trajectory, stepped each op so lookups land between samples
+     */
+    private double t = 0;
+
+    @Setup
+    public void setup() {
+        // same builder settings as MecanumDrive.actionBuilder
+        new TrajectoryActionBuilder(
+                turn -> telemetryPacket -> false,
+                timeTrajectory -> {
+                    trajectory = timeTrajectory;
+                    return telemetryPacket -> false;
+                },
+                new TrajectoryBuilderParams(1e-6, new ProfileParams(0.25, 0.1, 1e-2)),
+                new Pose2d(0, 0, 0), 0.0,
+                new TurnConstraints(PARAMS.maxAngVel, -PARAMS.maxAngAccel, PARAMS.maxAngAccel),
+                new MinVelConstraint(Arrays.asList(
+                        kinematics.new WheelVelConstraint(PARAMS.maxWheelVel),
+                        new AngularVelConstraint(PARAMS.maxAngVel)
+                )),
+                new ProfileAccelConstraint(PARAMS.minProfileAccel, PARAMS.maxProfileAccel)
+        )
+                .splineToSplineHeading(new Pose2d(48, 24, Math.PI / 2), Math.PI / 2)
+                .build();
+
+        sampled = new SampledTrajectory(trajectory);
+    }
+
+    private double next() {
+        t += 0.0137;
+        if (t >= trajectory.duration) t -= trajectory.duration;
+        return t;
+    }
+
+    @Benchmark
+    public double roadRunner() {
+        follower.setTarget(trajectory.get(next()));
+        return follower.targetX[0] + follower.targetHeading;
+    }
+
+    @Benchmark
+    public double sampled() {
+        follower.setTarget(sampled, next());
+        return follower.targetX[0] + follower.targetHeading;
+    }
+}
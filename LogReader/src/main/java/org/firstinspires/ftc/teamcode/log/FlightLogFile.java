@@ -0,0 +1,261 @@
+package org.firstinspires.ftc.teamcode.log;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of a .flog file written by TeamCode's FlightLog, which documents the format <p>
+ * The file is memory-mapped and scanned once to index every record's offset and timestamp by channel,
+ * after which lookups by index or time read straight out of the mapping. A file cut off mid-record,
+ * e.g. by a power loss, is read up to its last complete record
+ */
+public final class FlightLogFile {
+
+    public static final byte[] MAGIC = "FLIGHTLG".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+
+    private static final byte
+            DEFINITION = 0,
+            DATA = 1,
+            DROPPED = 2;
+
+    public final Path path;
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Channel> channels = new LinkedHashMap<>();
+    private final ArrayList<Channel> channelsById = new ArrayList<>();
+
+    private long dropped;
+    private boolean truncated;
+
+    private FlightLogFile(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    public static FlightLogFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (file.size() > Integer.MAX_VALUE) throw new IOException(path + " is over 2 GB");
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        FlightLogFile log = new FlightLogFile(path, buffer);
+        log.index();
+        return log;
+    }
+
+    private void index() throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            buffer.get(magic);
+            int version = buffer.getInt();
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException(path + " isn't a flight log");
+            if (version != VERSION) throw new IOException(path + " is version " + version + ", expected " + VERSION);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(path + " isn't a flight log");
+        }
+
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            try {
+                byte type = buffer.get();
+                switch (type) {
+                    case DEFINITION:
+                        short id = buffer.getShort();
+                        short fieldCount = buffer.getShort();
+                        if (id < 0) throw new IOException(path + " defines channel " + id + " at byte " + start);
+                        if (fieldCount < 0) throw new IOException(path + " has " + fieldCount + " fields at byte " + start);
+                        String[] fields = new String[fieldCount];
+                        String name = getString();
+                        for (int f = 0; f < fields.length; f++) fields[f] = getString();
+                        define(id, name, fields);
+                        break;
+                    case DATA:
+                        short channelId = buffer.getShort();
+                        Channel channel = channelId >= 0 && channelId < channelsById.size() ? channelsById.get(channelId) : null;
+                        if (channel == null) throw new IOException(path + " has undefined channel " + channelId + " at byte " + start);
+                        long nanoTime = buffer.getLong();
+                        int values = buffer.position();
+                        // skip the values, checking they're all there
+                        buffer.position(values + 8 * channel.fields.length);
+                        channel.add(values, nanoTime);
+                        break;
+                    case DROPPED:
+                        dropped = buffer.getLong();
+                        break;
+                    default:
+                        throw new IOException(path + " has unknown record type " + type + " at byte " + start);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                // the writer was stopped partway through this record
+                truncated = true;
+                break;
+            }
+        }
+
+        for (Channel channel : channelsById) channel.trim();
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void define(short id, String name, String[] fields) {
+        Channel channel = new Channel(name, fields);
+        while (channelsById.size() <= id) channelsById.add(null);
+        channelsById.set(id, channel);
+        channels.put(name, channel);
+    }
+
+    /**
+     * @return The channel, or null if nothing was logged to it
+     */
+    public Channel channel(String name) {
+        return channels.get(name);
+    }
+
+    public List<Channel> channels() {
+        return Collections.unmodifiableList(new ArrayList<>(channels.values()));
+    }
+
+    /**
+     * @return Records the robot dropped because its ring buffer was full
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return Whether the file ends partway through a record
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return Earliest timestamp in the file, in {@link System#nanoTime()} nanoseconds, or {@link Long#MAX_VALUE} if it's empty
+     */
+    public long getStartTime() {
+        long start = Long.MAX_VALUE;
+        for (Channel channel : channels.values()) if (channel.size > 0) start = Math.min(start, channel.times[0]);
+        return start;
+    }
+
+    /**
+     * @return Latest timestamp in the file, or {@link Long#MIN_VALUE} if it's empty
+     */
+    public long getEndTime() {
+        long end = Long.MIN_VALUE;
+        for (Channel channel : channels.values()) if (channel.size > 0) end = Math.max(end, channel.times[channel.size - 1]);
+        return end;
+    }
+
+    /**
+     * Every record logged to one channel, in the order they were logged
+     */
+    public final class Channel {
+
+        public final String name;
+
+        private final String[] fields;
+
+        private int[] offsets = new int[64];
+        private long[] times = new long[64];
+        private int size;
+
+        private Channel(String name, String[] fields) {
+            this.name = name;
+            this.fields = fields;
+        }
+
+        private void add(int offset, long nanoTime) {
+            if (size == times.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+            }
+            offsets[size] = offset;
+            times[size++] = nanoTime;
+        }
+
+        private void trim() {
+            offsets = Arrays.copyOf(offsets, size);
+            times = Arrays.copyOf(times, size);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int fieldCount() {
+            return fields.length;
+        }
+
+        public String fieldName(int field) {
+            return fields[field];
+        }
+
+        /**
+         * @return Index of the field, or -1 if there's no field by that name
+         */
+        public int field(String name) {
+            for (int f = 0; f < fields.length; f++) if (fields[f].equals(name)) return f;
+            return -1;
+        }
+
+        /**
+         * @return Timestamp of record {@code i}, in {@link System#nanoTime()} nanoseconds
+         */
+        public long nanoTime(int i) {
+            return times[i];
+        }
+
+        public double get(int i, int field) {
+            return buffer.getDouble(offsets[i] + 8 * field);
+        }
+
+        /**
+         * @return Index of the last record at or before {@code nanoTime}, or -1 if there's none
+         */
+        public int floorIndex(long nanoTime) {
+            int i = Arrays.binarySearch(times, 0, size, nanoTime);
+            if (i < 0) return -i - 2;
+            // several records can share a timestamp
+            while (i + 1 < size && times[i + 1] == nanoTime) i++;
+            return i;
+        }
+
+        /**
+         * @return Index of the first record at or after {@code nanoTime}, or {@link #size()} if there's none
+         */
+        public int ceilingIndex(long nanoTime) {
+            int i = Arrays.binarySearch(times, 0, size, nanoTime);
+            if (i < 0) return -i - 1;
+            while (i > 0 && times[i - 1] == nanoTime) i--;
+            return i;
+        }
+
+        /**
+         * @return Value of the field in the last record at or before {@code nanoTime}, or NaN if there's none
+         */
+        public double getAt(long nanoTime, int field) {
+            int i = floorIndex(nanoTime);
+            return i < 0 ? Double.NaN : get(i, field);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.firstinspires.ftc.teamcode.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line queries over any number of .flog files, processed in parallel:
+ * <pre>
+ * summary &lt;logs&gt;                    channels, record counts, duration and dropped records per file
+ * csv &lt;channel&gt; &lt;dir&gt; &lt;logs&gt;        one CSV of the channel per file, written to dir
+ * error &lt;logs&gt;                      max distance and heading between TARGET_POSE and ESTIMATED_POSE per file
+ * looprate &lt;logs&gt;                   histogram of the time between ESTIMATED_POSE records, i.e. loop times
+ * </pre>
+ * where logs are .flog files, or directories to search for them
+ */
+public final class LogQuery {
+
+    public static final String
+            ESTIMATED_POSE = "ESTIMATED_POSE",
+            TARGET_POSE = "TARGET_POSE";
+
+    private LogQuery() {}
+
+    public static void main(String... args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        switch (args[0]) {
+            case "summary":
+                summary(logs(args, 1));
+                break;
+            case "csv":
+                if (args.length < 4) {
+                    usage();
+                    return;
+                }
+                Path directory = Paths.get(args[2]);
+                Files.createDirectories(directory);
+                csv(logs(args, 3), args[1], directory);
+                break;
+            case "error":
+                trackingError(logs(args, 1));
+                break;
+            case "looprate":
+                loopRate(logs(args, 1));
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: LogQuery summary <logs> | csv <channel> <dir> <logs> | error <logs> | looprate <logs>");
+    }
+
+    /**
+     * @return Every .flog file in {@code args} from {@code first} on, searching directories
+     */
+    public static List<Path> logs(String[] args, int first) throws IOException {
+        ArrayList<Path> logs = new ArrayList<>();
+        for (String arg : Arrays.copyOfRange(args, first, args.length)) {
+            Path path = Paths.get(arg);
+            if (!Files.isDirectory(path)) {
+                logs.add(path);
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(path)) {
+                files.filter(file -> file.toString().endsWith(".flog")).sorted().forEach(logs::add);
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * @return The log, or null after reporting why it couldn't be read, so one corrupt file doesn't stop the rest
+     */
+    static FlightLogFile open(Path path) {
+        try {
+            return FlightLogFile.open(path);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return null;
+        }
+    }
+
+    public static void summary(List<Path> logs) {
+        List<String> lines = logs.parallelStream().map(LogQuery::open).filter(Objects::nonNull).map(log -> {
+            StringBuilder s = new StringBuilder();
+            long start = log.getStartTime(), end = log.getEndTime();
+            s.append(String.format(Locale.US, "%s: %.1f s, %d dropped%s%n",
+                    log.path, end >= start ? (end - start) * 1e-9 : 0, log.getDropped(), log.isTruncated() ? ", truncated" : ""));
+            for (FlightLogFile.Channel channel : log.channels()) {
+                s.append(String.format(Locale.US, "    %-28s %8d records, %d fields%n", channel.name, channel.size(), channel.fieldCount()));
+            }
+            return s.toString();
+        }).collect(Collectors.toList());
+        lines.forEach(System.out::print);
+    }
+
+    /**
+     * Writes time since the start of the log (s) and every field of {@code channelName}, one row per record
+     */
+    public static void csv(List<Path> logs, String channelName, Path directory) {
+        logs.parallelStream().map(LogQuery::open).filter(Objects::nonNull).forEach(log -> {
+            FlightLogFile.Channel channel = log.channel(channelName);
+            if (channel == null) return;
+
+            String file = log.path.getFileName().toString().replace(".flog", "") + "_" + channelName + ".csv";
+            try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(file))) {
+                out.write("time");
+                for (int f = 0; f < channel.fieldCount(); f++) out.write("," + channel.fieldName(f));
+                out.newLine();
+
+                long start = log.getStartTime();
+                StringBuilder row = new StringBuilder();
+                for (int i = 0; i < channel.size(); i++) {
+                    row.setLength(0);
+                    row.append((channel.nanoTime(i) - start) * 1e-9);
+                    for (int f = 0; f < channel.fieldCount(); f++) row.append(',').append(channel.get(i, f));
+                    out.append(row).append(System.lineSeparator());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static final class TrackingError {
+
+        public final Path path;
+        public double maxDistance, maxHeading, timeOfMaxDistance;
+        public int samples;
+
+        private TrackingError(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Compares every target pose with the last pose estimate at or before it
+     *
+     * @return Null if the log has no target or estimated poses
+     */
+    public static TrackingError trackingError(FlightLogFile log) {
+        FlightLogFile.Channel target = log.channel(TARGET_POSE), estimate = log.channel(ESTIMATED_POSE);
+        if (target == null || estimate == null) return null;
+
+        TrackingError error = new TrackingError(log.path);
+        long start = log.getStartTime();
+        for (int i = 0; i < target.size(); i++) {
+            int j = estimate.floorIndex(target.nanoTime(i));
+            if (j < 0) continue;
+
+            double distance = Math.hypot(target.get(i, 0) - estimate.get(j, 0), target.get(i, 1) - estimate.get(j, 1));
+            double heading = Math.abs(Math.IEEEremainder(target.get(i, 2) - estimate.get(j, 2), 2 * Math.PI));
+
+            if (distance > error.maxDistance) {
+                error.maxDistance = distance;
+                error.timeOfMaxDistance = (target.nanoTime(i) - start) * 1e-9;
+            }
+            error.maxHeading = Math.max(error.maxHeading, heading);
+            error.samples++;
+        }
+        return error;
+    }
+
+    public static void trackingError(List<Path> logs) {
+        List<TrackingError> errors = logs.parallelStream()
+                .map(LogQuery::open)
+                .filter(Objects::nonNull)
+                .map(LogQuery::trackingError)
+                .filter(error -> error != null && error.samples > 0)
+                .sorted(Comparator.comparingDouble((TrackingError error) -> error.maxDistance).reversed())
+                .collect(Collectors.toList());
+
+        for (TrackingError error : errors) {
+            System.out.printf(Locale.US, "%s: %.2f in at %.2f s, %.1f deg%n",
+                    error.path, error.maxDistance, error.timeOfMaxDistance, Math.toDegrees(error.maxHeading));
+        }
+    }
+
+    /**
+     * Fixed-width histogram of durations, which can be merged across logs
+     */
+    public static final class Histogram {
+
+        public static final double
+                BUCKET_WIDTH_MS = 1,
+                RANGE_MS = 250;
+
+        private static final int BUCKETS = (int) (RANGE_MS / BUCKET_WIDTH_MS) + 1;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private double sum, max;
+
+        public void record(double ms) {
+            counts[(int) Math.min(ms / BUCKET_WIDTH_MS, BUCKETS - 1)]++;
+            count++;
+            sum += ms;
+            max = Math.max(max, ms);
+        }
+
+        public Histogram merge(Histogram other) {
+            Histogram merged = new Histogram();
+            for (int i = 0; i < BUCKETS; i++) merged.counts[i] = counts[i] + other.counts[i];
+            merged.count = count + other.count;
+            merged.sum = sum + other.sum;
+            merged.max = Math.max(max, other.max);
+            return merged;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return Upper edge of the bucket the quantile falls in (ms), or {@link #getMax()} if that's lower
+         */
+        public double percentile(double quantile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(quantile * count), seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min((i + 1) * BUCKET_WIDTH_MS, max);
+            }
+            return max;
+        }
+
+        public long getCount(int bucket) {
+            return counts[bucket];
+        }
+
+        public int getBuckets() {
+            return BUCKETS;
+        }
+    }
+
+    /**
+     * @return Times between consecutive pose estimates (ms), one per loop that updated the pose
+     */
+    public static Histogram loopTimes(FlightLogFile log) {
+        Histogram histogram = new Histogram();
+        FlightLogFile.Channel estimate = log.channel(ESTIMATED_POSE);
+        if (estimate == null) return histogram;
+        for (int i = 1; i < estimate.size(); i++) histogram.record((estimate.nanoTime(i) - estimate.nanoTime(i - 1)) * 1e-6);
+        return histogram;
+    }
+
+    public static void loopRate(List<Path> logs) {
+        Histogram histogram = logs.parallelStream()
+                .map(LogQuery::open)
+                .filter(Objects::nonNull)
+                .map(LogQuery::loopTimes)
+                .reduce(new Histogram(), Histogram::merge);
+
+        System.out.printf(Locale.US, "%d loops, mean %.1f ms (%.0f Hz), p50 %.0f ms, p95 %.0f ms, p99 %.0f ms, max %.1f ms%n",
+                histogram.getCount(), histogram.getMean(), histogram.getMean() > 0 ? 1000 / histogram.getMean() : 0,
+                histogram.percentile(0.5), histogram.percentile(0.95), histogram.percentile(0.99), histogram.getMax());
+
+        long peak = 1;
+        for (int i = 0; i < histogram.getBuckets(); i++) peak = Math.max(peak, histogram.getCount(i));
+        for (int i = 0; i < histogram.getBuckets(); i++) {
+            long count = histogram.getCount(i);
+            if (count == 0) continue;
+            boolean last = i == histogram.getBuckets() - 1;
+            System.out.printf(Locale.US, "%5s%3.0f ms %8d %s%n", last ? ">=" : "", i * Histogram.BUCKET_WIDTH_MS,
+                    count, "#".repeat((int) Math.ceil(50.0 * count / peak)));
+        }
+    }
+}
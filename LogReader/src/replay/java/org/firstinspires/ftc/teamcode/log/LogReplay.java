@@ -0,0 +1,307 @@
+package org.firstinspires.ftc.teamcode.log;
+
+import com.acmerobotics.roadrunner.DualNum;
+import com.acmerobotics.roadrunner.MecanumKinematics;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.Rotation2d;
+import com.acmerobotics.roadrunner.Time;
+import com.acmerobotics.roadrunner.Twist2dDual;
+import com.acmerobotics.roadrunner.Vector2d;
+import com.acmerobotics.roadrunner.Vector2dDual;
+
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumFollower;
+import org.firstinspires.ftc.teamcode.roadrunner.ThreeDeadWheelLocalizer;
+import org.firstinspires.ftc.teamcode.roadrunner.TwoDeadWheelLocalizer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Re-runs the localizer and drive controller math against a flight log, and diffs the results against what
+ * the robot logged <p>
+ * The localizer's logged encoder and IMU readings go back through the same twist math the localizers use, with
+ * the current PARAMS, starting from the first logged pose. Every logged target pose then goes back through
+ * the {@link MecanumFollower} the drive actions use, with the replayed pose, or the logged one
+ * when there are no localizer inputs (Pinpoint). Nothing waits on wall time, so a match replays in milliseconds. <p>
+ * With unchanged code and PARAMS the diffs should be ~0; anything that sets the pose from outside the localizer
+ * shows up as localizer error from then on. Built against TeamCode's compiled classes, in LogReader's replay source set
+ */
+public final class LogReplay {
+
+    public enum Localizer {
+        THREE_DEAD_WHEEL("THREE_DEAD_WHEEL_INPUTS"),
+        TWO_DEAD_WHEEL("TWO_DEAD_WHEEL_INPUTS"),
+        MECANUM("MECANUM_LOCALIZER_INPUTS"),
+        NONE(null);
+
+        public final String channel;
+
+        Localizer(String channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Largest and RMS difference between replayed and logged values
+     */
+    public static final class Diff {
+
+        public final String name;
+
+        private int count;
+        private double max, sumSquares, timeOfMax;
+
+        private Diff(String name) {
+            this.name = name;
+        }
+
+        private void add(double difference, double time) {
+            difference = Math.abs(difference);
+            if (Double.isNaN(difference)) return;
+            count++;
+            sumSquares += difference * difference;
+            if (difference > max) {
+                max = difference;
+                timeOfMax = time;
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getRms() {
+            return count == 0 ? 0 : Math.sqrt(sumSquares / count);
+        }
+
+        /**
+         * @return Seconds into the log of the largest difference
+         */
+        public double getTimeOfMax() {
+            return timeOfMax;
+        }
+
+        @Override
+        public String toString() {
+            return count == 0 ?
+                    String.format(Locale.US, "%-16s no samples", name) :
+                    String.format(Locale.US, "%-16s max %.4g at %.2f s, rms %.4g (%d samples)", name, max, timeOfMax, getRms(), count);
+        }
+    }
+
+    public final Localizer localizer;
+
+    public final Diff
+            position = new Diff("position (in)"),
+            heading = new Diff("heading (rad)"),
+            velocity = new Diff("velocity (in/s)"),
+            command = new Diff("command"),
+            power = new Diff("power");
+
+    private final FlightLogFile log;
+    private final FlightLogFile.Channel estimates;
+    private final long start;
+
+    /**
+     * Replayed pose and velocity for each logged estimate, NaN where there's none
+     */
+    private final double[] x, y, h, vx, vy, vh;
+
+    public LogReplay(FlightLogFile log) {
+        this.log = log;
+        estimates = log.channel(LogQuery.ESTIMATED_POSE);
+        start = log.getStartTime();
+
+        Localizer localizer = Localizer.NONE;
+        for (Localizer l : Localizer.values()) if (l.channel != null && log.channel(l.channel) != null) {
+            localizer = l;
+            break;
+        }
+        this.localizer = localizer;
+
+        int n = estimates == null ? 0 : estimates.size();
+        x = new double[n];
+        y = new double[n];
+        h = new double[n];
+        vx = new double[n];
+        vy = new double[n];
+        vh = new double[n];
+        Arrays.fill(x, Double.NaN);
+    }
+
+    public LogReplay run() {
+        if (estimates == null) return this;
+        if (localizer != Localizer.NONE) replayLocalizer(log.channel(localizer.channel));
+        replayController();
+        return this;
+    }
+
+    private double seconds(long nanoTime) {
+        return (nanoTime - start) * 1e-9;
+    }
+
+    private void replayLocalizer(FlightLogFile.Channel inputs) {
+        MecanumKinematics kinematics = new MecanumKinematics(
+                MecanumDrive.PARAMS.inPerTick * MecanumDrive.PARAMS.trackWidthTicks,
+                MecanumDrive.PARAMS.inPerTick / MecanumDrive.PARAMS.lateralInPerTick
+        );
+        double inPerTick = MecanumDrive.PARAMS.inPerTick;
+
+        Pose2d pose = null;
+        double[] last = new double[inputs.fieldCount()];
+        double lastRawHeadingVel = 0, headingVelOffset = 0;
+
+        for (int i = 0; i < inputs.size(); i++) {
+            long time = inputs.nanoTime(i);
+            // each update logs its inputs, then the pose they gave, unless that record was dropped
+            int e = estimates.ceilingIndex(time);
+            boolean matched = e < estimates.size() && (i + 1 == inputs.size() || estimates.nanoTime(e) <= inputs.nanoTime(i + 1));
+            if (pose == null && !matched) continue;
+
+            double headingVel = 0;
+            if (localizer == Localizer.TWO_DEAD_WHEEL) {
+                // same overflow correction as TwoDeadWheelLocalizer.update
+                double rawHeadingVel = inputs.get(i, 9);
+                if (Math.abs(rawHeadingVel - lastRawHeadingVel) > Math.PI) {
+                    headingVelOffset -= Math.signum(rawHeadingVel) * 2 * Math.PI;
+                }
+                lastRawHeadingVel = rawHeadingVel;
+                headingVel = headingVelOffset + rawHeadingVel;
+            }
+
+            Twist2dDual<Time> twist;
+            if (pose == null) {
+                // first update: nothing to difference against, so the logged pose is where we start
+                pose = new Pose2d(estimates.get(e, 0), estimates.get(e, 1), estimates.get(e, 2));
+                twist = new Twist2dDual<>(Vector2dDual.constant(new Vector2d(0, 0), 2), DualNum.constant(0.0, 2));
+            } else switch (localizer) {
+                case THREE_DEAD_WHEEL:
+                    twist = ThreeDeadWheelLocalizer.twist(ThreeDeadWheelLocalizer.PARAMS, inPerTick,
+                            inputs.get(i, 0) - last[0], inputs.get(i, 1),
+                            inputs.get(i, 2) - last[2], inputs.get(i, 3),
+                            inputs.get(i, 4) - last[4], inputs.get(i, 5)
+                    );
+                    break;
+                case TWO_DEAD_WHEEL:
+                    twist = TwoDeadWheelLocalizer.twist(TwoDeadWheelLocalizer.PARAMS, inPerTick,
+                            inputs.get(i, 0) - last[0], inputs.get(i, 1),
+                            inputs.get(i, 2) - last[2], inputs.get(i, 3),
+                            Rotation2d.exp(inputs.get(i, 4)).minus(Rotation2d.exp(last[4])), headingVel
+                    );
+                    break;
+                default:
+                    twist = MecanumDrive.twist(kinematics, inPerTick,
+                            inputs.get(i, 0) - last[0], inputs.get(i, 1),
+                            inputs.get(i, 2) - last[2], inputs.get(i, 3),
+                            inputs.get(i, 4) - last[4], inputs.get(i, 5),
+                            inputs.get(i, 6) - last[6], inputs.get(i, 7),
+                            Rotation2d.exp(inputs.get(i, 8)).minus(Rotation2d.exp(last[8]))
+                    );
+            }
+            for (int f = 0; f < last.length; f++) last[f] = inputs.get(i, f);
+
+            pose = pose.plus(twist.value());
+            if (!matched) continue;
+            PoseVelocity2d vel = twist.velocity().value();
+
+            x[e] = pose.position.x;
+            y[e] = pose.position.y;
+            h[e] = pose.heading.toDouble();
+            vx[e] = vel.linearVel.x;
+            vy[e] = vel.linearVel.y;
+            vh[e] = vel.angVel;
+
+            double t = seconds(time);
+            position.add(Math.hypot(x[e] - estimates.get(e, 0), y[e] - estimates.get(e, 1)), t);
+            heading.add(Math.IEEEremainder(h[e] - estimates.get(e, 2), 2 * Math.PI), t);
+            velocity.add(Math.hypot(vx[e] - estimates.get(e, 3), vy[e] - estimates.get(e, 4)), t);
+        }
+    }
+
+    private void replayController() {
+        FlightLogFile.Channel
+                targets = log.channel(LogQuery.TARGET_POSE),
+                commands = log.channel("DRIVE_COMMAND"),
+                powers = log.channel("MECANUM_COMMAND");
+        if (targets == null || commands == null || powers == null) return;
+
+        MecanumKinematics kinematics = new MecanumKinematics(
+                MecanumDrive.PARAMS.inPerTick * MecanumDrive.PARAMS.trackWidthTicks,
+                MecanumDrive.PARAMS.inPerTick / MecanumDrive.PARAMS.lateralInPerTick
+        );
+        MecanumFollower follower = new MecanumFollower(MecanumDrive.PARAMS, kinematics);
+        double[] targetX = new double[3], targetY = new double[3];
+
+        for (int i = 0; i < targets.size(); i++) {
+            long time = targets.nanoTime(i), next = i + 1 < targets.size() ? targets.nanoTime(i + 1) : Long.MAX_VALUE;
+
+            // each action loop logs its target, then the pose estimate, command and powers computed from it
+            int e = estimates.ceilingIndex(time), c = commands.ceilingIndex(time), p = powers.ceilingIndex(time);
+            if (e == estimates.size() || c == commands.size() || p == powers.size()) break;
+            if (estimates.nanoTime(e) > next || commands.nanoTime(c) > next || powers.nanoTime(p) > next) continue;
+
+            for (int d = 0; d < 3; d++) {
+                targetX[d] = targets.get(i, 3 * d);
+                targetY[d] = targets.get(i, 3 * d + 1);
+            }
+            follower.setTarget(targetX, targetY, targets.get(i, 2), targets.get(i, 5), targets.get(i, 8));
+
+            boolean replayed = !Double.isNaN(x[e]);
+            Pose2d pose = replayed ?
+                    new Pose2d(x[e], y[e], h[e]) :
+                    new Pose2d(estimates.get(e, 0), estimates.get(e, 1), estimates.get(e, 2));
+            PoseVelocity2d vel = replayed ?
+                    new PoseVelocity2d(new Vector2d(vx[e], vy[e]), vh[e]) :
+                    new PoseVelocity2d(new Vector2d(estimates.get(e, 3), estimates.get(e, 4)), estimates.get(e, 5));
+
+            follower.update(pose, vel, powers.get(p, 0));
+
+            double t = seconds(time);
+            command.add(max(
+                    follower.velocity[MecanumFollower.FORWARD] - commands.get(c, 0), follower.acceleration[MecanumFollower.FORWARD] - commands.get(c, 1),
+                    follower.velocity[MecanumFollower.LATERAL] - commands.get(c, 2), follower.acceleration[MecanumFollower.LATERAL] - commands.get(c, 3),
+                    follower.velocity[MecanumFollower.ANGULAR] - commands.get(c, 4), follower.acceleration[MecanumFollower.ANGULAR] - commands.get(c, 5)
+            ), t);
+            power.add(max(
+                    follower.powers[MecanumFollower.LEFT_FRONT] - powers.get(p, 1), follower.powers[MecanumFollower.LEFT_BACK] - powers.get(p, 2),
+                    follower.powers[MecanumFollower.RIGHT_BACK] - powers.get(p, 3), follower.powers[MecanumFollower.RIGHT_FRONT] - powers.get(p, 4)
+            ), t);
+        }
+    }
+
+    private static double max(double... differences) {
+        double max = 0;
+        for (double difference : differences) max = Math.max(max, Math.abs(difference));
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s (%s localizer)%n    %s%n    %s%n    %s%n    %s%n    %s%n",
+                log.path, localizer, position, heading, velocity, command, power);
+    }
+
+    /**
+     * @param args .flog files, or directories to search for them
+     */
+    public static void main(String... args) throws IOException {
+        List<Path> logs = LogQuery.logs(args, 0);
+        List<String> results = logs.parallelStream()
+                .map(LogQuery::open)
+                .filter(Objects::nonNull)
+                .map(log -> new LogReplay(log).run().toString())
+                .collect(Collectors.toList());
+        results.forEach(System.out::print);
+    }
+}
@@ -7,7 +7,7 @@ public class FeedforwardController implements Controller {
 
     private FeedforwardGains gains;
 
-    private State target = new State();
+    private double targetV, targetA;
 
     public FeedforwardController() {
         this(new FeedforwardGains());
@@ -22,7 +22,7 @@ public class FeedforwardController implements Controller {
     }
 
     public double calculate(double additionalOutput) {
-        double baseOutput = target.times(gains).sum();
+        double baseOutput = targetV * gains.kV + targetA * gains.kA;
         return (Math.signum(baseOutput + additionalOutput) * gains.kStatic + baseOutput);
     }
 
@@ -34,6 +34,11 @@ public class FeedforwardController implements Controller {
      * @param target The V and A attributes of the {@link State} parameter are used as velocity and acceleration references
      */
     public void setTarget(State target) {
-        this.target = target;
+        setTarget(target.v, target.a);
+    }
+
+    public void setTarget(double v, double a) {
+        targetV = v;
+        targetA = a;
     }
 }
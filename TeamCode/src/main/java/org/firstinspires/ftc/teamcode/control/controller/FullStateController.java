@@ -6,11 +6,17 @@ import org.firstinspires.ftc.teamcode.control.gainmatrix.FullStateGains;
 public class FullStateController implements FeedbackController {
 
     private FullStateGains gains = new FullStateGains();
-    private State target = new State();
+    private double targetX, targetV, targetA;
 
     @Override
     public void setTarget(State target) {
-        this.target = target;
+        setTarget(target.x, target.v, target.a);
+    }
+
+    public void setTarget(double x, double v, double a) {
+        targetX = x;
+        targetV = v;
+        targetA = a;
     }
 
     public void setGains(FullStateGains gains) {
@@ -19,6 +25,13 @@ public class FullStateController implements FeedbackController {
 
     @Override
     public double calculate(State measurement) {
-        return target.minus(measurement).times(gains).sum();
+        return calculate(measurement.x, measurement.v, measurement.a);
+    }
+
+    /**
+     * Same as {@link #calculate(State)}, without allocating a {@link State} every loop
+     */
+    public double calculate(double x, double v, double a) {
+        return (targetX - x) * gains.pGain + (targetV - v) * gains.vGain + (targetA - a) * gains.aGain;
     }
 }
@@ -5,6 +5,7 @@ import static java.lang.Math.signum;
 
 import org.firstinspires.ftc.teamcode.control.motion.Differentiator;
 import org.firstinspires.ftc.teamcode.control.motion.Integrator;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
 import org.firstinspires.ftc.teamcode.control.motion.State;
 import org.firstinspires.ftc.teamcode.control.filter.Filter;
 import org.firstinspires.ftc.teamcode.control.filter.NoFilter;
@@ -13,22 +14,31 @@ import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
 public class PIDController implements FeedbackController {
 
     private PIDGains gains = new PIDGains();
-    private State target = new State();
+    private double target;
 
     private final Filter derivFilter;
-    private final Differentiator differentiator = new Differentiator();
-    private final Differentiator filterDiff = new Differentiator();
-    private final Integrator integrator = new Integrator();
+    private final Differentiator differentiator, filterDiff;
+    private final Integrator integrator;
 
-    private State error = new State();
-    private double errorIntegral, filteredErrorDerivative, rawErrorDerivative;
+    private double error, errorIntegral, filteredErrorDerivative, rawErrorDerivative;
 
     public PIDController() {
         this(new NoFilter());
     }
 
     public PIDController(Filter derivFilter) {
+        this(derivFilter, LoopClock.SYSTEM);
+    }
+
+    public PIDController(LoopClock clock) {
+        this(new NoFilter(), clock);
+    }
+
+    public PIDController(Filter derivFilter, LoopClock clock) {
         this.derivFilter = derivFilter;
+        differentiator = new Differentiator(clock);
+        filterDiff = new Differentiator(clock);
+        integrator = new Integrator(clock);
     }
 
     public void setGains(PIDGains gains) {
@@ -39,22 +49,36 @@ public class PIDController implements FeedbackController {
      * @param measurement Only the X attribute of the {@link State} parameter is used as feedback
      */
     public double calculate(State measurement) {
-        State lastError = error;
-        error = target.minus(measurement);
+        return calculate(measurement.x);
+    }
+
+    /**
+     * Same as {@link #calculate(State)}, without allocating a {@link State} every loop
+     */
+    public double calculate(double measurement) {
+        double lastError = error;
+        error = target - measurement;
 
-        if (signum(error.x) != signum(lastError.x)) reset();
-        errorIntegral = integrator.getIntegral(error.x);
-        rawErrorDerivative = differentiator.getDerivative(error.x);
-        filteredErrorDerivative = filterDiff.getDerivative(derivFilter.calculate(error.x));
+        if (signum(error) != signum(lastError)) reset();
+        errorIntegral = integrator.getIntegral(error);
+        rawErrorDerivative = differentiator.getDerivative(error);
+        filteredErrorDerivative = filterDiff.getDerivative(derivFilter.calculate(error));
 
-        double output = (gains.kP * error.x) + (gains.kI * errorIntegral) + (gains.kD * filteredErrorDerivative);
+        double output = (gains.kP * error) + (gains.kI * errorIntegral) + (gains.kD * filteredErrorDerivative);
 
-        stopIntegration(abs(output) >= gains.maxOutputWithIntegral && signum(output) == signum(error.x));
+        stopIntegration(abs(output) >= gains.maxOutputWithIntegral && signum(output) == signum(error));
 
         return output;
     }
 
+    /**
+     * @param target Only the X attribute of the {@link State} parameter is used as the setpoint
+     */
     public void setTarget(State target) {
+        setTarget(target.x);
+    }
+
+    public void setTarget(double target) {
         this.target = target;
     }
 
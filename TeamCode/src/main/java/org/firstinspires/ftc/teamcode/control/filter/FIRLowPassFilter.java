@@ -1,15 +1,22 @@
 package org.firstinspires.ftc.teamcode.control.filter;
 
-import org.firstinspires.ftc.teamcode.control.gainmatrix.LowPassGains;
+import static java.lang.Math.max;
 
-import java.util.ArrayList;
+import org.firstinspires.ftc.teamcode.control.gainmatrix.LowPassGains;
 
 /**
- * Finite impulse response low-pass filter
+ * Finite impulse response low-pass filter <p>
+ * Runs {@link IIRLowPassFilter}'s recursion over only the last {@link LowPassGains#count} values,
+ * kept in a ring buffer. The weighted sum slides along with the window, so each update is O(1)
  */
 public final class FIRLowPassFilter implements Filter {
-    private LowPassGains gains;
-    private final ArrayList<Double> values = new ArrayList<>();
+
+    private double gain;
+    private double[] values = new double[2], powers = {1, 0};
+    private int oldest = 0, size = 0;
+
+    // sum over every value but the oldest, each weighted by gain^(values newer than it)
+    private double weightedSum;
 
     public FIRLowPassFilter() {
         this(new LowPassGains());
@@ -20,23 +27,53 @@ public final class FIRLowPassFilter implements Filter {
     }
 
     public void setGains(LowPassGains gains) {
-        this.gains = new LowPassGains(gains.gain, Math.max(gains.count, 2));
+        int count = max(gains.count, 2);
+        if (gains.gain == gain && count == values.length) return;
+
+        double[] window = new double[size];
+        for (int i = 0; i < size; i++) window[i] = get(i);
+
+        gain = gains.gain;
+        if (count != values.length) {
+            values = new double[count];
+            powers = new double[count];
+        }
+        powers[0] = 1;
+        for (int i = 1; i < count; i++) powers[i] = powers[i - 1] * gain;
+
+        reset();
+        for (int i = max(0, window.length - count); i < window.length; i++) calculate(window[i]);
     }
 
     public void reset() {
-        values.clear();
+        oldest = 0;
+        size = 0;
+        weightedSum = 0;
     }
 
     public double calculate(double newValue) {
-        values.add(newValue);
-        if (values.size() < 2) return newValue;
-        while (values.size() > gains.count) values.remove(0);
 
-        double estimate = values.get(0);
-        for (int ind = 1; ind < values.size(); ind++) {
-            estimate = gains.gain * estimate + (1 - gains.gain) * values.get(ind);
+        if (size == values.length) {
+            // the second oldest becomes the oldest, so drops out of the sum
+            weightedSum -= powers[size - 2] * get(1);
+            values[oldest] = newValue;
+            oldest = (oldest + 1) % values.length;
+        } else {
+            values[(oldest + size) % values.length] = newValue;
+            size++;
         }
 
-        return estimate;
+        if (size < 2) return newValue;
+
+        weightedSum = gain * weightedSum + newValue;
+
+        return powers[size - 1] * get(0) + (1 - gain) * weightedSum;
+    }
+
+    /**
+     * @param i 0 for the oldest value in the window
+     */
+    private double get(int i) {
+        return values[(oldest + i) % values.length];
     }
 }
@@ -0,0 +1,41 @@
+package org.firstinspires.ftc.teamcode.control.filter;
+
+import static java.lang.Math.max;
+
+/**
+ * Mean of the last n values, kept in a ring buffer with a running sum
+ */
+public final class MovingAverageFilter implements Filter {
+
+    private final double[] values;
+    private int next = 0, size = 0;
+    private double sum;
+
+    public MovingAverageFilter(int count) {
+        values = new double[max(count, 1)];
+    }
+
+    public void reset() {
+        next = 0;
+        size = 0;
+        sum = 0;
+    }
+
+    public double calculate(double newValue) {
+
+        if (size == values.length) sum -= values[next];
+        else size++;
+
+        values[next] = newValue;
+        sum += newValue;
+
+        // resum once per lap so rounding error doesn't build up
+        if (++next == values.length) {
+            next = 0;
+            sum = 0;
+            for (int i = 0; i < size; i++) sum += values[i];
+        }
+
+        return sum / size;
+    }
+}
@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.control.filter;
+
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+
+/**
+ * Median of the last n values, rejecting single-loop spikes a mean would smear out <p>
+ * Keeps the window both in arrival order (ring buffer) and sorted, so each update
+ * is a binary search and one shift, and the median is read straight out of the sorted copy
+ */
+public final class MovingMedianFilter implements Filter {
+
+    private final double[] values, sorted;
+    private int next = 0, size = 0;
+
+    public MovingMedianFilter(int count) {
+        values = new double[max(count, 1)];
+        sorted = new double[values.length];
+    }
+
+    public void reset() {
+        next = 0;
+        size = 0;
+    }
+
+    public double calculate(double newValue) {
+
+        if (size == values.length) {
+            int removed = Arrays.binarySearch(sorted, 0, size, values[next]);
+            System.arraycopy(sorted, removed + 1, sorted, removed, size - removed - 1);
+            size--;
+        }
+
+        int inserted = Arrays.binarySearch(sorted, 0, size, newValue);
+        if (inserted < 0) inserted = -inserted - 1;
+        System.arraycopy(sorted, inserted, sorted, inserted + 1, size - inserted);
+        sorted[inserted] = newValue;
+        size++;
+
+        values[next] = newValue;
+        next = (next + 1) % values.length;
+
+        return size % 2 == 1 ?
+                sorted[size / 2] :
+                0.5 * (sorted[size / 2 - 1] + sorted[size / 2]);
+    }
+}
@@ -2,18 +2,28 @@ package org.firstinspires.ftc.teamcode.control.filter;
 
 import static com.qualcomm.robotcore.util.Range.clip;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
 
 public final class SlewRateLimiter implements Filter {
 
     private double posLimit, negLimit, m_prevVal, m_prevTime;
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
 
-    public SlewRateLimiter(double posLimit, double negLimit) {
+    public SlewRateLimiter(double posLimit, double negLimit, LoopClock clock) {
+        timer = new LoopTimer(clock);
         setLimits(posLimit, negLimit);
         reset();
     }
 
+    public SlewRateLimiter(double posLimit, double negLimit) {
+        this(posLimit, negLimit, LoopClock.SYSTEM);
+    }
+
+    public SlewRateLimiter(double limit, LoopClock clock) {
+        this(limit, -limit, clock);
+    }
+
     public SlewRateLimiter(double limit) {
         this(limit, -limit);
     }
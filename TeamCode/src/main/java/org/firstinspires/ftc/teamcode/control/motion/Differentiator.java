@@ -1,12 +1,18 @@
 package org.firstinspires.ftc.teamcode.control.motion;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
-
 public final class Differentiator {
 
     private double lastValue = Double.NaN, derivative = 0.0;
 
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
+
+    public Differentiator(LoopClock clock) {
+        timer = new LoopTimer(clock);
+    }
+
+    public Differentiator() {
+        this(LoopClock.SYSTEM);
+    }
 
     public double getDerivative(double newValue) {
 
@@ -1,13 +1,19 @@
 package org.firstinspires.ftc.teamcode.control.motion;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
-
 public final class Integrator {
 
     private double integral = 0.0;
     private boolean stopIntegration = false;
 
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
+
+    public Integrator(LoopClock clock) {
+        timer = new LoopTimer(clock);
+    }
+
+    public Integrator() {
+        this(LoopClock.SYSTEM);
+    }
 
     public double getIntegral(double newValue) {
 
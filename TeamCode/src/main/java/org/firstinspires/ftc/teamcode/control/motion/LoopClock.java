@@ -0,0 +1,12 @@
+package org.firstinspires.ftc.teamcode.control.motion;
+
+/**
+ * Source of time for everything timed in the control loop <p>
+ * {@link #SYSTEM} on the robot, a {@link SimulatedClock} when running offline
+ */
+public interface LoopClock {
+
+    LoopClock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.control.motion;
+
+/**
+ * {@link com.qualcomm.robotcore.util.ElapsedTime} that reads a {@link LoopClock}
+ */
+public final class LoopTimer {
+
+    private final LoopClock clock;
+    private long startTime;
+
+    public LoopTimer(LoopClock clock) {
+        this.clock = clock;
+        reset();
+    }
+
+    public LoopTimer() {
+        this(LoopClock.SYSTEM);
+    }
+
+    public void reset() {
+        startTime = clock.nanoTime();
+    }
+
+    public double seconds() {
+        return (clock.nanoTime() - startTime) * 1e-9;
+    }
+}
@@ -50,13 +50,13 @@ public final class PIDDriver {
         yController.setGains(xyGains);
         rotController.setGains(rotGains);
 
-        xController.setTarget(new State(target.x));
-        yController.setTarget(new State(target.y *1));
-        rotController.setTarget(new State(headingError + current.heading));
+        xController.setTarget(target.x);
+        yController.setTarget(target.y *1);
+        rotController.setTarget(headingError + current.heading);
 
-        double x = xController.calculate(new State(current.x));
-        double y = yController.calculate(new State(current.y *1));
-        double rot = rotController.calculate(new State(current.heading));
+        double x = xController.calculate(current.x);
+        double y = yController.calculate(current.y *1);
+        double rot = rotController.calculate(current.heading);
 
         DriverOutput output = new DriverOutput();
 
@@ -0,0 +1,157 @@
+package org.firstinspires.ftc.teamcode.control.motion;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+
+/**
+ * Fixed-size ring buffer of timestamped pose estimates, oldest overwritten first <p>
+ * Timestamps must be added in order, so {@link #get} can binary search for the estimates either side of any time
+ * in the buffer and interpolate between them. That gives the pose at the moment a delayed measurement (a camera
+ * frame, a sensor event) was taken, rather than when it arrived. Adding and looking up never allocate
+ */
+public final class PoseHistory {
+
+    /**
+     * Indices into the array {@link #get} fills
+     */
+    public static final int X = 0, Y = 1, HEADING = 2, X_VELOCITY = 3, Y_VELOCITY = 4, HEADING_VELOCITY = 5;
+
+    private final long[] times;
+    private final double[] x, y, heading, xVelocity, yVelocity, headingVelocity;
+
+    private int oldest, size;
+
+    public PoseHistory(int capacity) {
+        times = new long[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        heading = new double[capacity];
+        xVelocity = new double[capacity];
+        yVelocity = new double[capacity];
+        headingVelocity = new double[capacity];
+    }
+
+    /**
+     * @param nanoTime When the estimate was made, no earlier than the last one added
+     * @param velocity Robot-frame velocity
+     */
+    public void add(long nanoTime, Pose2d pose, PoseVelocity2d velocity) {
+        add(nanoTime,
+                pose.position.x, pose.position.y, pose.heading.toDouble(),
+                velocity.linearVel.x, velocity.linearVel.y, velocity.angVel
+        );
+    }
+
+    public void add(long nanoTime, double x, double y, double heading, double xVelocity, double yVelocity, double headingVelocity) {
+        if (size > 0 && nanoTime < getTime(size - 1)) throw new IllegalArgumentException("Pose history must be added in time order");
+
+        int i;
+        if (size < times.length) {
+            i = slot(size++);
+        } else {
+            i = oldest;
+            oldest = slot(1);
+        }
+
+        times[i] = nanoTime;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.heading[i] = heading;
+        this.xVelocity[i] = xVelocity;
+        this.yVelocity[i] = yVelocity;
+        this.headingVelocity[i] = headingVelocity;
+    }
+
+    public void clear() {
+        oldest = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return times.length;
+    }
+
+    /**
+     * @param index 0 for the oldest estimate, {@link #size()} - 1 for the newest
+     */
+    private int slot(int index) {
+        int i = oldest + index;
+        return i >= times.length ? i - times.length : i;
+    }
+
+    public long getTime(int index) {
+        return times[slot(index)];
+    }
+
+    public double getX(int index) {
+        return x[slot(index)];
+    }
+
+    public double getY(int index) {
+        return y[slot(index)];
+    }
+
+    public double getHeading(int index) {
+        return heading[slot(index)];
+    }
+
+    /**
+     * @return Index of the newest estimate at or before {@code nanoTime}, or -1 if every estimate is newer
+     */
+    public int floorIndex(long nanoTime) {
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (getTime(mid) <= nanoTime) low = mid + 1;
+            else high = mid - 1;
+        }
+        return high;
+    }
+
+    /**
+     * Interpolates the estimate at {@code nanoTime} from the ones either side of it; heading takes the short way round <p>
+     * Times after the newest estimate get the newest estimate
+     *
+     * @param pose Filled with the estimate at {@link #X}, {@link #Y}, {@link #HEADING}, {@link #X_VELOCITY},
+     *             {@link #Y_VELOCITY} and {@link #HEADING_VELOCITY}
+     * @return False, leaving {@code pose} untouched, if {@code nanoTime} is older than the oldest estimate
+     */
+    public boolean get(long nanoTime, double[] pose) {
+        int before = floorIndex(nanoTime);
+        if (before < 0) return false;
+
+        int a = slot(before);
+        if (before == size - 1 || times[a] == nanoTime) {
+            pose[X] = x[a];
+            pose[Y] = y[a];
+            pose[HEADING] = heading[a];
+            pose[X_VELOCITY] = xVelocity[a];
+            pose[Y_VELOCITY] = yVelocity[a];
+            pose[HEADING_VELOCITY] = headingVelocity[a];
+            return true;
+        }
+
+        int b = slot(before + 1);
+        double t = (double) (nanoTime - times[a]) / (times[b] - times[a]);
+
+        pose[X] = x[a] + t * (x[b] - x[a]);
+        pose[Y] = y[a] + t * (y[b] - y[a]);
+        pose[HEADING] = Math.IEEEremainder(heading[a] + t * Math.IEEEremainder(heading[b] - heading[a], 2 * Math.PI), 2 * Math.PI);
+        pose[X_VELOCITY] = xVelocity[a] + t * (xVelocity[b] - xVelocity[a]);
+        pose[Y_VELOCITY] = yVelocity[a] + t * (yVelocity[b] - yVelocity[a]);
+        pose[HEADING_VELOCITY] = headingVelocity[a] + t * (headingVelocity[b] - headingVelocity[a]);
+        return true;
+    }
+
+    /**
+     * @return The interpolated pose at {@code nanoTime}, or null if it's older than the oldest estimate
+     */
+    public Pose2d getPose(long nanoTime) {
+        double[] pose = new double[6];
+        return get(nanoTime, pose) ? new Pose2d(pose[X], pose[Y], pose[HEADING]) : null;
+    }
+}
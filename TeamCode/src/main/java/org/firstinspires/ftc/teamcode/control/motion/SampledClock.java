@@ -0,0 +1,24 @@
+package org.firstinspires.ftc.teamcode.control.motion;
+
+/**
+ * {@link LoopClock} that holds one reading of another clock until {@link #sample()} is called again <p>
+ * Sampled once at the top of each loop, every timer and controller in that loop sees the same timestamp
+ */
+public final class SampledClock implements LoopClock {
+
+    private final LoopClock source;
+    private long nanoTime;
+
+    public SampledClock(LoopClock source) {
+        this.source = source;
+        sample();
+    }
+
+    public void sample() {
+        nanoTime = source.nanoTime();
+    }
+
+    public long nanoTime() {
+        return nanoTime;
+    }
+}
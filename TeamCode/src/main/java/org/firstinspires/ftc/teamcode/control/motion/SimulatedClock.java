@@ -0,0 +1,21 @@
+package org.firstinspires.ftc.teamcode.control.motion;
+
+/**
+ * {@link LoopClock} that only moves when told to
+ */
+public final class SimulatedClock implements LoopClock {
+
+    private long nanoTime;
+
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    public void advance(double seconds) {
+        nanoTime += Math.round(seconds * 1e9);
+    }
+
+    public double seconds() {
+        return nanoTime * 1e-9;
+    }
+}
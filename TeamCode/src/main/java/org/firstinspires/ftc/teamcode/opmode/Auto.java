@@ -15,39 +15,43 @@ import static org.firstinspires.ftc.teamcode.opmode.Auto.AutonConfig.EDITING_WAI
 import static org.firstinspires.ftc.teamcode.opmode.Auto.AutonConfig.EDITING_PRELOAD;
 import static org.firstinspires.ftc.teamcode.subsystem.Deposit.HEIGHT_BASKET_HIGH;
 import static org.firstinspires.ftc.teamcode.subsystem.Deposit.HEIGHT_CHAMBER_HIGH;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level.NO_DASHBOARD;
 import static java.lang.Math.PI;
 import static java.lang.Math.atan2;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toRadians;
 
+import androidx.annotation.NonNull;
+
+import com.acmerobotics.dashboard.FtcDashboard;
+import com.acmerobotics.dashboard.canvas.Canvas;
 import com.acmerobotics.dashboard.config.Config;
 import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
 import com.acmerobotics.roadrunner.Action;
-import com.acmerobotics.roadrunner.AngularVelConstraint;
 import com.acmerobotics.roadrunner.InstantAction;
-import com.acmerobotics.roadrunner.MinVelConstraint;
 import com.acmerobotics.roadrunner.ParallelAction;
 import com.acmerobotics.roadrunner.Pose2d;
 import com.acmerobotics.roadrunner.SequentialAction;
-import com.acmerobotics.roadrunner.SleepAction;
-import com.acmerobotics.roadrunner.TrajectoryActionBuilder;
-import com.acmerobotics.roadrunner.TranslationalVelConstraint;
 import com.acmerobotics.roadrunner.Vector2d;
-import com.acmerobotics.roadrunner.ftc.Actions;
 import com.arcrobotics.ftclib.gamepad.GamepadEx;
 import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.Gamepad;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
 import org.firstinspires.ftc.teamcode.control.motion.EditablePose;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
+import org.firstinspires.ftc.teamcode.roadrunner.CachedActionBuilder;
+import org.firstinspires.ftc.teamcode.roadrunner.CachedActionBuilder.SpeedLimit;
+import org.firstinspires.ftc.teamcode.roadrunner.TrajectoryPrefetcher;
 import org.firstinspires.ftc.teamcode.subsystem.Arm;
 import org.firstinspires.ftc.teamcode.subsystem.Deposit;
 import org.firstinspires.ftc.teamcode.subsystem.Intake;
 import org.firstinspires.ftc.teamcode.subsystem.Robot;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Config
 @Autonomous(preselectTeleOp = "Tele")
@@ -94,9 +98,26 @@ public final class Auto extends LinearOpMode {
             Y_INCHING_FORWARD_WHEN_INTAKING = 5,
             TIME_CYCLE = 9,
             TIME_SCORE = 4,
+            TIME_PARK = 2,
+            QUANTILE_CYCLE = 0.5,
+            QUANTILE_PARK = 0.95,
+            SCALE_SWEEP_SPEED_MAX = 2,
             INCREMENT_LOWERING_BUCKET = 0.8,
             LENGTH_START_DROPPING_BUCKET = 50;
 
+    /**
+     * Whether {@link BasketAuto} plans its submersible paths on a background thread, or in the loop that asks for them
+     */
+    public static boolean REPLAN_IN_BACKGROUND = true;
+
+    /**
+     * How far (in) and turned (rad) the robot can be from where {@link BasketAuto} planned its next path to start
+     * before that path is rebuilt from where the robot is
+     */
+    public static double
+            REPLAN_DISTANCE = 2,
+            REPLAN_HEADING = toRadians(10);
+
     public static EditablePose
             sample1 = new EditablePose(-48, -27.75, PI / 2),
             sample1SpecPreload = new EditablePose(-50, -27.75, sample1.heading),
@@ -122,6 +143,68 @@ public final class Auto extends LinearOpMode {
             intakingSpec = new EditablePose(36, -SIZE_HALF_FIELD + LENGTH_ROBOT * 0.5, PI / 2),
             intakingFirstSpec = new EditablePose(55, intakingSpec.y, -intakingSpec.heading);
 
+    /**
+     * Copies of the poses above, taken on the OpMode thread, so trajectories built on other threads are built from
+     * one consistent set even while the poses are edited. Spike mark intaking poses are aimed at their samples
+     */
+    static final class Poses {
+
+        final EditablePose
+                sample1SpecPreload,
+                sample1,
+                sample2,
+                sample3,
+                basket,
+                intaking1SpecPreload,
+                intaking1,
+                intaking2,
+                intaking3,
+                intakingSub,
+                sweptSub,
+                parkLeft,
+                chamberRight,
+                chamberLeft,
+                aroundBeamPushing,
+                pushing1,
+                pushing2,
+                pushing3,
+                pushed1,
+                pushed2,
+                pushed3,
+                intakingSpec,
+                intakingFirstSpec;
+
+        Poses() {
+            sample1SpecPreload = Auto.sample1SpecPreload.clone();
+            sample1 = Auto.sample1.clone();
+            sample2 = Auto.sample2.clone();
+            sample3 = Auto.sample3.clone();
+            basket = Auto.basket.clone();
+            intakingSub = Auto.intakingSub.clone();
+            sweptSub = Auto.sweptSub.clone();
+            parkLeft = Auto.parkLeft.clone();
+            chamberRight = Auto.chamberRight.clone();
+            chamberLeft = Auto.chamberLeft.clone();
+            aroundBeamPushing = Auto.aroundBeamPushing.clone();
+            pushing1 = Auto.pushing1.clone();
+            pushing2 = Auto.pushing2.clone();
+            pushing3 = Auto.pushing3.clone();
+            pushed1 = Auto.pushed1.clone();
+            pushed2 = Auto.pushed2.clone();
+            pushed3 = Auto.pushed3.clone();
+            intakingSpec = Auto.intakingSpec.clone();
+            intakingFirstSpec = Auto.intakingFirstSpec.clone();
+            intaking1SpecPreload = aimed(Auto.intaking1SpecPreload, sample1SpecPreload);
+            intaking1 = aimed(Auto.intaking1, sample1);
+            intaking2 = aimed(Auto.intaking2, sample2);
+            intaking3 = aimed(Auto.intaking3, sample3);
+        }
+
+        private static EditablePose aimed(EditablePose intaking, EditablePose sample) {
+            return new EditablePose(intaking.x, intaking.y, atan2(sample.y - intaking.y, sample.x - intaking.x));
+        }
+    }
+
     static Pose2d pose = new Pose2d(0,0, 0.5 * PI);
     static boolean isRedAlliance = false;
 
@@ -155,6 +238,9 @@ public final class Auto extends LinearOpMode {
         Robot robot = new Robot(hardwareMap, pose);
         robot.deposit.closeClaw();
 
+        // Read once here, not by each BasketAuto, some of which are built on prefetch threads
+        PhaseDurations durations = PhaseDurations.load();
+
         // Initialize gamepads:
         GamepadEx gamepadEx1 = new GamepadEx(gamepad1);
 
@@ -165,10 +251,20 @@ public final class Auto extends LinearOpMode {
         int cycles = 3;
         boolean specimenPreload = false;
 
+        // Build trajectories for the selection, and the ones a button press away, while the driver decides:
+        TrajectoryPrefetcher prefetcher = new TrajectoryPrefetcher();
+        String prefetching = null;
+
         // Get gamepad 1 button input and save alliance and side for autonomous configuration:
         while (opModeInInit() && !(gamepadEx1.isDown(RIGHT_BUMPER) && gamepadEx1.isDown(LEFT_BUMPER))) {
             gamepadEx1.readButtons();
 
+            String selected = buildName(specimenSide, specimenPreload, cycles);
+            if (!selected.equals(prefetching)) {
+                prefetcher.prefetch(likelyBuilds(robot, specimenSide, specimenPreload, cycles));
+                prefetching = selected;
+            }
+
             if (gamepadEx1.wasJustPressed(DPAD_UP)) {
                 do selection = selection.plus(-1);
                 while (
@@ -213,7 +309,7 @@ public final class Auto extends LinearOpMode {
             );
 
             mTelemetry.addLine("Press both shoulder buttons to CONFIRM!");
-            mTelemetry.addLine();
+            mTelemetry.addLine(prefetcher.isDone(prefetching) ? "(trajectories ready)" : "(generating trajectories...)");
             mTelemetry.addLine();
             mTelemetry.addLine((isRedAlliance ? "RED" : "BLUE") + " alliance" + selection.markIf(EDITING_ALLIANCE));
             mTelemetry.addLine();
@@ -254,278 +350,43 @@ public final class Auto extends LinearOpMode {
 
         if (specimenSide) {
 
-            pose = new Pose2d(chamberRight.x, 0.5 * LENGTH_ROBOT - SIZE_HALF_FIELD, PI / 2);
-
-            TrajectoryActionBuilder builder = robot.drivetrain.actionBuilder(pose);
+            pose = specimenStartPose();
 
             mTelemetry.addLine("> Right side (observation zone)");
 
-            /// Score preloaded specimen
-            builder = builder
-                    .waitSeconds(partnerWait)
-                    .strafeTo(chamberRight.toVector2d())
-                    .stopAndAdd(scoreSpecimen(robot))
-            ;
+            trajectory = specimenSide(robot, partnerWait, cycles);
 
             mTelemetry.addLine("> Score preloaded specimen");
-
             if (cycles > 0) {
-
-                /// Push samples
-                builder = builder
-                        .afterTime(0, robot.deposit::triggerClaw)
-                        .setTangent(- PI / 2);
-                
-                EditablePose[] pushingPoses = {aroundBeamPushing, pushing1, pushed1, pushing2, pushed2, pushing3, pushed3, intakingFirstSpec};
-                for (EditablePose pose : pushingPoses) {
-                    builder = builder.splineToConstantHeading(pose.toVector2d(), pose.heading);
-                }
                 mTelemetry.addLine("> Push samples");
-
-                double[] chamberXs = {
-                        X_OFFSET_CHAMBER_1,
-                        X_OFFSET_CHAMBER_2,
-                        X_OFFSET_CHAMBER_3,
-                        X_OFFSET_CHAMBER_4,
-                };
-
-                /// Cycle specimens
-                for (int i = 0; i < min(chamberXs.length, cycles); i++) {
-                    if (i > 0) builder = builder
-                            .afterTime(0, robot.deposit::triggerClaw)
-                            .setTangent(- PI / 2)
-                            .splineToConstantHeading(intakingSpec.toVector2d(), - PI / 2)
-                    ;
-                    builder = builder
-                            .waitSeconds(WAIT_APPROACH_WALL)
-                            .afterTime(0, robot.deposit::triggerClaw)
-                            .stopAndAdd(telemetryPacket -> !robot.deposit.hasSpecimen())
-                            .setTangent(PI / 2)
-                            .splineToConstantHeading(new Vector2d(chamberRight.x + chamberXs[i] * DISTANCE_BETWEEN_SPECIMENS, chamberRight.y), chamberRight.heading)
-                            .stopAndAdd(scoreSpecimen(robot))
-                    ;
-
+                for (int i = 0; i < min(chamberOffsets().length, cycles); i++) {
                     mTelemetry.addLine("> Specimen cycle " + (i + 1));
                 }
-
-
             }
-
-            /// Park in observation zone
-            builder = builder.strafeTo(intakingSpec.toVector2d());
-
             mTelemetry.addLine("> Park in observation zone");
 
-            trajectory = builder.build();
-
         } else {
 
-            pose = specimenPreload ?
-                    new Pose2d(chamberLeft.x, 0.5 * LENGTH_ROBOT - SIZE_HALF_FIELD, PI / 2) :
-                    new Pose2d(0.5 * LENGTH_ROBOT + 0.375 - 2 * SIZE_TILE, 0.5 * WIDTH_ROBOT - SIZE_HALF_FIELD, 0);
+            pose = basketStartPose(specimenPreload);
 
             mTelemetry.addLine("> Left side (near basket)");
 
-            MinVelConstraint inchingConstraint = new MinVelConstraint(Arrays.asList(
-                    new TranslationalVelConstraint(SPEED_INCHING),
-                    new AngularVelConstraint(SPEED_INCHING_TURNING)
-            ));
-
-            MinVelConstraint sweepConstraint = new MinVelConstraint(Arrays.asList(
-                    new TranslationalVelConstraint(SPEED_SWEEPING_SUB),
-                    new AngularVelConstraint(SPEED_SWEEPING_SUB_TURNING)
-            ));
-
-            intaking1SpecPreload.heading = atan2(sample1SpecPreload.y - intaking1SpecPreload.y, sample1SpecPreload.x - intaking1SpecPreload.x);
-            intaking1.heading = atan2(sample1.y - intaking1.y, sample1.x - intaking1.x);
-            intaking2.heading = atan2(sample2.y - intaking2.y, sample2.x - intaking2.x);
-            intaking3.heading = atan2(sample3.y - intaking3.y, sample3.x - intaking3.x);
-
-            EditablePose i1 = specimenPreload ? intaking1SpecPreload : intaking1;
-
-            ElapsedTime extendoTimer = new ElapsedTime();
-
-            Action preloadAnd1 =
-                    (specimenPreload ?
-                            robot.drivetrain.actionBuilder(pose)
-                                    .waitSeconds(partnerWait)
-                                    .strafeTo(chamberLeft.toVector2d())
-                                    .stopAndAdd(scoreSpecimen(robot))
-                                    .strafeToSplineHeading(intaking1SpecPreload.toVector2d(), intaking1SpecPreload.heading)
-                                    .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
-                                    .waitSeconds(WAIT_DROP_TO_EXTEND) :
-                            robot.drivetrain.actionBuilder(pose)
-                                    .strafeToSplineHeading(basket.toVector2d(), basket.heading)
-                                    .stopAndAdd(scoreSample(robot))
-                                    .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
-                                    .strafeToSplineHeading(intaking1.toVector2d(), intaking1.heading)
-                    )
-                    .afterTime(0, () -> {
-                        robot.intake.extendo.setTarget(EXTEND_SAMPLE_1);
-                        extendoTimer.reset();
-                    })
-                    .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_1)))
-                    .lineToY(i1.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
-                    .build();
-
-            Action score1 = robot.drivetrain.actionBuilder(i1.toPose2d())
-                    /// Score
-                    .strafeToSplineHeading(basket.toVector2d(), basket.heading)
-                    .stopAndAdd(scoreSample(robot))
-                    .build();
-
-            Action i1To2 = robot.drivetrain.actionBuilder(
-                            new Pose2d(i1.x, i1.y + Y_INCHING_FORWARD_WHEN_INTAKING, i1.heading)
-                    )
-                    .afterTime(0, () -> robot.intake.extendo.setExtended(false))
-                    .afterTime(0, () -> robot.intake.runRoller(Intake.SPEED_EJECTING))
-                    .setTangent(i1.heading + PI)
-                    .splineToLinearHeading(intaking2.toPose2d(), intaking2.heading)
-                    .afterTime(0, () -> {
-                        robot.intake.runRoller(SPEED_INTAKING);
-                        robot.intake.extendo.setTarget(EXTEND_SAMPLE_2);
-                        extendoTimer.reset();
-                    })
-                    .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_2)))
-                    .lineToY(intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
-                    .build();
-
-            Action intake2 = robot.drivetrain.actionBuilder(basket.toPose2d())
-                    .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
-                    .strafeToSplineHeading(intaking2.toVector2d(), intaking2.heading)
-                    .afterTime(0, () -> {
-                        robot.intake.extendo.setTarget(EXTEND_SAMPLE_2);
-                        extendoTimer.reset();
-                    })
-                    .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_2)))
-                    .lineToY(intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
-                    .build();
-
-            Action score2 = robot.drivetrain.actionBuilder(intaking2.toPose2d())
-                    .strafeToSplineHeading(basket.toVector2d(), basket.heading)
-                    .stopAndAdd(scoreSample(robot))
-                    .build();
-
-            Action i2To3 = robot.drivetrain.actionBuilder(
-                            new Pose2d(intaking2.x, intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, intaking2.heading)
-                    )
-                    .afterTime(0, () -> robot.intake.extendo.setExtended(false))
-                    .afterTime(0, () -> robot.intake.runRoller(Intake.SPEED_EJECTING))
-                    .setTangent(intaking2.heading + PI)
-                    .splineToLinearHeading(intaking3.toPose2d(), intaking3.heading)
-                    .afterTime(0, () -> {
-                        robot.intake.runRoller(SPEED_INTAKING);
-                        robot.intake.extendo.setTarget(EXTEND_SAMPLE_3);
-                        extendoTimer.reset();
-                    })
-                    .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_3)))
-                    .lineToY(intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
-                    .build();
-
-            Action intake3 = robot.drivetrain.actionBuilder(basket.toPose2d())
-                    .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
-                    .strafeToSplineHeading(intaking3.toVector2d(), intaking3.heading)
-                    .afterTime(0, () -> {
-                        robot.intake.extendo.setTarget(EXTEND_SAMPLE_3);
-                        extendoTimer.reset();
-                    })
-                    .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_3)))
-                    .lineToY(intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
-                    .build();
-
-            Action score3 = robot.drivetrain.actionBuilder(intaking3.toPose2d())
-                    .strafeToSplineHeading(basket.toVector2d(), basket.heading)
-                    .stopAndAdd(scoreSample(robot))
-                    .build();
-
-            Action i3ToSub = robot.drivetrain.actionBuilder(
-                            new Pose2d(intaking3.x, intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, intaking3.heading)
-                    )
-                    .afterTime(0, () -> {
-                        robot.intake.extendo.setExtended(false);
-                        robot.intake.runRoller(0);
-                    })
-                    .setTangent(PI / 4)
-                    .splineToSplineHeading(intakingSub.toPose2d(), intakingSub.heading)
-                    .build();
-
-            Action subPark = robot.drivetrain.actionBuilder(sweptSub.toPose2d())
-                    .afterTime(0, () -> {
-                        robot.intake.runRoller(0);
-                        Deposit.level1Ascent = true;
-                        robot.deposit.lift.setTarget(0);
-                    })
-                    .afterTime(1, () -> robot.intake.extendo.setExtended(false))
-                    .strafeToSplineHeading(parkLeft.toVector2d(), parkLeft.heading)
-                    .build();
-
-            Action park = robot.drivetrain.actionBuilder(basket.toPose2d())
-                    .afterTime(0, () -> {
-                        Deposit.level1Ascent = true;
-                        robot.deposit.lift.setTarget(0);
-                    })
-                    .splineTo(parkLeft.toVector2d(), parkLeft.heading)
-                    .build();
-
-            ArrayList<Action>
-                    toSubs = new ArrayList<>(),
-                    sweepLefts = new ArrayList<>(),
-                    sweepRights = new ArrayList<>(),
-                    scores = new ArrayList<>();
-
-            for (int i = 0; i < 6; i++) {
-                toSubs.add(robot.drivetrain.actionBuilder(basket.toPose2d())
-                        .setTangent(basket.heading)
-                        .splineTo(intakingSub.toVector2d(), intakingSub.heading)
-                        .build()
-                );
-                sweepLefts.add(robot.drivetrain.actionBuilder(intakingSub.toPose2d())
-                        .strafeToSplineHeading(sweptSub.toVector2d(), sweptSub.heading, sweepConstraint)
-                        .build()
-                );
-                sweepRights.add(robot.drivetrain.actionBuilder(sweptSub.toPose2d())
-                        .strafeToSplineHeading(intakingSub.toVector2d(), intakingSub.heading, sweepConstraint)
-                        .build()
-                );
-                scores.add(robot.drivetrain.actionBuilder(sweptSub.toPose2d())
-                        .setTangent(PI + sweptSub.heading)
-                        .waitSeconds(WAIT_INTAKE_RETRACT)
-                        .splineTo(basket.toVector2d(), PI + basket.heading)
-                        .stopAndAdd(scoreSample(robot))
-                        .build()
-                );
-            }
-
-            trajectory = new BasketAuto(
-                    robot,
-                    preloadAnd1,
-                    score1,
-                    intake2,
-                    score2,
-                    intake3,
-                    score3,
-                    park,
-                    i1To2,
-                    i2To3,
-                    i3ToSub,
-                    subPark,
-                    toSubs,
-                    sweepLefts,
-                    sweepRights,
-                    scores
-            );
+            trajectory = basketSide(robot, durations, specimenPreload, partnerWait);
         }
 
+        prefetcher.close();
+
         // Parallel action to bulk read, update trajectory, and update robot (robot.run())
         ParallelAction auton = new ParallelAction(
                 telemetryPacket -> {
-                    robot.bulkReader.bulkRead();
+                    robot.bulkRead();
                     return opModeIsActive();
                 },
                 trajectory,
                 telemetryPacket -> {
                     pose = robot.drivetrain.pose;
                     robot.run();
+                    if (!robot.watchdog.getLevel().atLeast(NO_DASHBOARD)) robot.profiler.addTo(telemetryPacket);
                     return opModeIsActive();
                 }
         );
@@ -542,7 +403,367 @@ public final class Auto extends LinearOpMode {
 
         robot.drivetrain.pinpoint.setPositionRR(pose);
 
-        Actions.runBlocking(auton);
+        runBlocking(robot, auton);
+
+        robot.profiler.dump();
+    }
+
+    /**
+     * Runs {@code action} to completion like {@link com.acmerobotics.roadrunner.ftc.Actions#runBlocking}, but only sends
+     * its packets to the dashboard while the watchdog is below
+     * {@link org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level#NO_DASHBOARD}
+     */
+    private static void runBlocking(Robot robot, Action action) {
+        FtcDashboard dashboard = FtcDashboard.getInstance();
+        Canvas preview = new Canvas();
+        action.preview(preview);
+
+        for (boolean running = true; running && !Thread.currentThread().isInterrupted(); ) {
+            boolean sending = !robot.watchdog.getLevel().atLeast(NO_DASHBOARD);
+            TelemetryPacket packet = new TelemetryPacket(sending);
+            if (sending) packet.fieldOverlay().getOperations().addAll(preview.getOperations());
+            running = action.run(packet);
+            if (sending) dashboard.sendTelemetryPacket(packet);
+        }
+    }
+
+    /**
+     * @return Name of the trajectories a selection uses; the partner wait doesn't change them
+     */
+    private static String buildName(boolean specimenSide, boolean specimenPreload, int cycles) {
+        return specimenSide ?
+                "specimen side, " + min(cycles, chamberOffsets().length) + " cycles" :
+                "basket side, " + (specimenPreload ? "specimen" : "sample") + " preload";
+    }
+
+    /**
+     * @return Builds for the trajectories of the selection, then of each selection one button press away
+     */
+    private static Map<String, Runnable> likelyBuilds(Robot robot, boolean specimenSide, boolean specimenPreload, int cycles) {
+        LinkedHashMap<String, Runnable> builds = new LinkedHashMap<>();
+        // taken here, on the OpMode thread that edits the poses, not on the threads that build from them
+        Poses poses = new Poses();
+        // only these builds' trajectories are kept, so their BasketAutos never record a duration
+        PhaseDurations priors = new PhaseDurations();
+
+        if (specimenSide) {
+            for (int c : new int[]{cycles, cycles + 1, cycles - 1}) {
+                if (c >= 0) builds.put(buildName(true, false, c), () -> specimenSide(robot, poses, 0, c));
+            }
+            builds.put(buildName(false, specimenPreload, 0), () -> basketSide(robot, poses, priors, specimenPreload, 0));
+        } else {
+            builds.put(buildName(false, specimenPreload, 0), () -> basketSide(robot, poses, priors, specimenPreload, 0));
+            builds.put(buildName(false, !specimenPreload, 0), () -> basketSide(robot, poses, priors, !specimenPreload, 0));
+            builds.put(buildName(true, false, cycles), () -> specimenSide(robot, poses, 0, cycles));
+        }
+
+        return builds;
+    }
+
+    public static Pose2d specimenStartPose() {
+        return specimenStartPose(chamberRight);
+    }
+
+    private static Pose2d specimenStartPose(EditablePose chamberRight) {
+        return new Pose2d(chamberRight.x, 0.5 * LENGTH_ROBOT - SIZE_HALF_FIELD, PI / 2);
+    }
+
+    public static Pose2d basketStartPose(boolean specimenPreload) {
+        return basketStartPose(chamberLeft, specimenPreload);
+    }
+
+    private static Pose2d basketStartPose(EditablePose chamberLeft, boolean specimenPreload) {
+        return specimenPreload ?
+                new Pose2d(chamberLeft.x, 0.5 * LENGTH_ROBOT - SIZE_HALF_FIELD, PI / 2) :
+                new Pose2d(0.5 * LENGTH_ROBOT + 0.375 - 2 * SIZE_TILE, 0.5 * WIDTH_ROBOT - SIZE_HALF_FIELD, 0);
+    }
+
+    private static double[] chamberOffsets() {
+        return new double[]{
+                X_OFFSET_CHAMBER_1,
+                X_OFFSET_CHAMBER_2,
+                X_OFFSET_CHAMBER_3,
+                X_OFFSET_CHAMBER_4,
+        };
+    }
+
+    /**
+     * Specimen preload, then push samples and cycle specimens from the observation zone
+     */
+    public static Action specimenSide(Robot robot, double partnerWait, int cycles) {
+        return specimenSide(robot, new Poses(), partnerWait, cycles);
+    }
+
+    static Action specimenSide(Robot robot, Poses poses, double partnerWait, int cycles) {
+
+        CachedActionBuilder builder = robot.drivetrain.cachedActionBuilder(specimenStartPose(poses.chamberRight));
+
+        /// Score preloaded specimen
+        builder = builder
+                .stopAndAdd(waitSeconds(robot, partnerWait))
+                .strafeTo(poses.chamberRight.toVector2d())
+                .stopAndAdd(scoreSpecimen(robot))
+        ;
+
+        if (cycles > 0) {
+
+            /// Push samples
+            builder = builder
+                    .afterTime(0, robot.deposit::triggerClaw)
+                    .setTangent(- PI / 2);
+            
+            EditablePose[] pushingPoses = {poses.aroundBeamPushing, poses.pushing1, poses.pushed1, poses.pushing2, poses.pushed2, poses.pushing3, poses.pushed3, poses.intakingFirstSpec};
+            for (EditablePose pose : pushingPoses) {
+                builder = builder.splineToConstantHeading(pose.toVector2d(), pose.heading);
+            }
+
+            double[] chamberXs = chamberOffsets();
+
+            /// Cycle specimens
+            for (int i = 0; i < min(chamberXs.length, cycles); i++) {
+                if (i > 0) builder = builder
+                        .afterTime(0, robot.deposit::triggerClaw)
+                        .setTangent(- PI / 2)
+                        .splineToConstantHeading(poses.intakingSpec.toVector2d(), - PI / 2)
+                ;
+                builder = builder
+                        .stopAndAdd(waitSeconds(robot, WAIT_APPROACH_WALL))
+                        .afterTime(0, robot.deposit::triggerClaw)
+                        .stopAndAdd(telemetryPacket -> !robot.deposit.hasSpecimen())
+                        .setTangent(PI / 2)
+                        .splineToConstantHeading(new Vector2d(poses.chamberRight.x + chamberXs[i] * DISTANCE_BETWEEN_SPECIMENS, poses.chamberRight.y), poses.chamberRight.heading)
+                        .stopAndAdd(scoreSpecimen(robot))
+                ;
+            }
+
+        }
+
+        /// Park in observation zone
+        builder = builder.strafeTo(poses.intakingSpec.toVector2d());
+
+        return builder.build();
+    }
+
+    /**
+     * Sample or specimen preload, the three spike marks, then submersible cycles until time runs out
+     *
+     * @param durations What deciding whether there's time for another cycle is based on, and where this match's
+     *                  phase durations are recorded
+     */
+    public static Action basketSide(Robot robot, PhaseDurations durations, boolean specimenPreload, double partnerWait) {
+        return basketSide(robot, new Poses(), durations, specimenPreload, partnerWait);
+    }
+
+    static Action basketSide(Robot robot, Poses poses, PhaseDurations durations, boolean specimenPreload, double partnerWait) {
+
+        Pose2d pose = basketStartPose(poses.chamberLeft, specimenPreload);
+
+        SpeedLimit inchingConstraint = new SpeedLimit(SPEED_INCHING, SPEED_INCHING_TURNING);
+
+        EditablePose i1 = specimenPreload ? poses.intaking1SpecPreload : poses.intaking1;
+
+        LoopTimer extendoTimer = new LoopTimer(robot.clock);
+
+        Action preloadAnd1 =
+                (specimenPreload ?
+                        robot.drivetrain.cachedActionBuilder(pose)
+                                .stopAndAdd(waitSeconds(robot, partnerWait))
+                                .strafeTo(poses.chamberLeft.toVector2d())
+                                .stopAndAdd(scoreSpecimen(robot))
+                                .strafeToSplineHeading(poses.intaking1SpecPreload.toVector2d(), poses.intaking1SpecPreload.heading)
+                                .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
+                                .stopAndAdd(waitSeconds(robot, WAIT_DROP_TO_EXTEND)) :
+                        robot.drivetrain.cachedActionBuilder(pose)
+                                .strafeToSplineHeading(poses.basket.toVector2d(), poses.basket.heading)
+                                .stopAndAdd(scoreSample(robot))
+                                .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
+                                .strafeToSplineHeading(poses.intaking1.toVector2d(), poses.intaking1.heading)
+                )
+                .afterTime(0, () -> {
+                    robot.intake.extendo.setTarget(EXTEND_SAMPLE_1);
+                    extendoTimer.reset();
+                })
+                .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_1)))
+                .lineToY(i1.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
+                .build();
+
+        Action score1 = robot.drivetrain.cachedActionBuilder(i1.toPose2d())
+                /// Score
+                .strafeToSplineHeading(poses.basket.toVector2d(), poses.basket.heading)
+                .stopAndAdd(scoreSample(robot))
+                .build();
+
+        Action i1To2 = robot.drivetrain.cachedActionBuilder(
+                        new Pose2d(i1.x, i1.y + Y_INCHING_FORWARD_WHEN_INTAKING, i1.heading)
+                )
+                .afterTime(0, () -> robot.intake.extendo.setExtended(false))
+                .afterTime(0, () -> robot.intake.runRoller(Intake.SPEED_EJECTING))
+                .setTangent(i1.heading + PI)
+                .splineToLinearHeading(poses.intaking2.toPose2d(), poses.intaking2.heading)
+                .afterTime(0, () -> {
+                    robot.intake.runRoller(SPEED_INTAKING);
+                    robot.intake.extendo.setTarget(EXTEND_SAMPLE_2);
+                    extendoTimer.reset();
+                })
+                .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_2)))
+                .lineToY(poses.intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
+                .build();
+
+        Action intake2 = robot.drivetrain.cachedActionBuilder(poses.basket.toPose2d())
+                .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
+                .strafeToSplineHeading(poses.intaking2.toVector2d(), poses.intaking2.heading)
+                .afterTime(0, () -> {
+                    robot.intake.extendo.setTarget(EXTEND_SAMPLE_2);
+                    extendoTimer.reset();
+                })
+                .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_2)))
+                .lineToY(poses.intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
+                .build();
+
+        Action score2 = robot.drivetrain.cachedActionBuilder(poses.intaking2.toPose2d())
+                .strafeToSplineHeading(poses.basket.toVector2d(), poses.basket.heading)
+                .stopAndAdd(scoreSample(robot))
+                .build();
+
+        Action i2To3 = robot.drivetrain.cachedActionBuilder(
+                        new Pose2d(poses.intaking2.x, poses.intaking2.y + Y_INCHING_FORWARD_WHEN_INTAKING, poses.intaking2.heading)
+                )
+                .afterTime(0, () -> robot.intake.extendo.setExtended(false))
+                .afterTime(0, () -> robot.intake.runRoller(Intake.SPEED_EJECTING))
+                .setTangent(poses.intaking2.heading + PI)
+                .splineToLinearHeading(poses.intaking3.toPose2d(), poses.intaking3.heading)
+                .afterTime(0, () -> {
+                    robot.intake.runRoller(SPEED_INTAKING);
+                    robot.intake.extendo.setTarget(EXTEND_SAMPLE_3);
+                    extendoTimer.reset();
+                })
+                .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_3)))
+                .lineToY(poses.intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
+                .build();
+
+        Action intake3 = robot.drivetrain.cachedActionBuilder(poses.basket.toPose2d())
+                .afterTime(0, () -> robot.intake.runRoller(SPEED_INTAKING))
+                .strafeToSplineHeading(poses.intaking3.toVector2d(), poses.intaking3.heading)
+                .afterTime(0, () -> {
+                    robot.intake.extendo.setTarget(EXTEND_SAMPLE_3);
+                    extendoTimer.reset();
+                })
+                .stopAndAdd(telemetryPacket -> !(extendoTimer.seconds() >= WAIT_EXTEND || robot.intake.hasSample() || robot.intake.extendo.atPosition(EXTEND_SAMPLE_3)))
+                .lineToY(poses.intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, inchingConstraint)
+                .build();
+
+        Action score3 = robot.drivetrain.cachedActionBuilder(poses.intaking3.toPose2d())
+                .strafeToSplineHeading(poses.basket.toVector2d(), poses.basket.heading)
+                .stopAndAdd(scoreSample(robot))
+                .build();
+
+        Action i3ToSub = robot.drivetrain.cachedActionBuilder(
+                        new Pose2d(poses.intaking3.x, poses.intaking3.y + Y_INCHING_FORWARD_WHEN_INTAKING, poses.intaking3.heading)
+                )
+                .afterTime(0, () -> {
+                    robot.intake.extendo.setExtended(false);
+                    robot.intake.runRoller(0);
+                })
+                .setTangent(PI / 4)
+                .splineToSplineHeading(poses.intakingSub.toPose2d(), poses.intakingSub.heading)
+                .build();
+
+        Action park = robot.drivetrain.cachedActionBuilder(poses.basket.toPose2d())
+                .afterTime(0, () -> {
+                    Deposit.level1Ascent = true;
+                    robot.deposit.lift.setTarget(0);
+                })
+                .splineTo(poses.parkLeft.toVector2d(), poses.parkLeft.heading)
+                .build();
+
+        return new BasketAuto(
+                robot,
+                poses,
+                durations,
+                preloadAnd1,
+                score1,
+                intake2,
+                score2,
+                intake3,
+                score3,
+                park,
+                i1To2,
+                i2To3,
+                i3ToSub
+        );
+    }
+
+    /**
+     * Basket to the submersible, planned while scoring
+     */
+    static Action toSub(Robot robot, Poses poses, Pose2d from) {
+        return robot.drivetrain.cachedActionBuilder(from)
+                .setTangent(from.heading.toDouble())
+                .splineTo(poses.intakingSub.toVector2d(), poses.intakingSub.heading)
+                .buildUncached();
+    }
+
+    /**
+     * One sweep across the submersible, to {@link Auto#sweptSub} or back to {@link Auto#intakingSub}
+     *
+     * @param speedScale Multiplies {@link #SPEED_SWEEPING_SUB} and {@link #SPEED_SWEEPING_SUB_TURNING}
+     */
+    static Action sweep(Robot robot, Pose2d from, EditablePose to, double speedScale) {
+        return robot.drivetrain.cachedActionBuilder(from)
+                .strafeToSplineHeading(to.toVector2d(), to.heading,
+                        new SpeedLimit(SPEED_SWEEPING_SUB * speedScale, SPEED_SWEEPING_SUB_TURNING * speedScale))
+                .buildUncached();
+    }
+
+    /**
+     * From wherever a sample was intaked in the submersible to scoring it
+     */
+    static Action scoreFromSub(Robot robot, Poses poses, Pose2d from) {
+        return robot.drivetrain.cachedActionBuilder(from)
+                .setTangent(PI + from.heading.toDouble())
+                .stopAndAdd(waitSeconds(robot, WAIT_INTAKE_RETRACT))
+                .splineTo(poses.basket.toVector2d(), PI + poses.basket.heading)
+                .stopAndAdd(scoreSample(robot))
+                .buildUncached();
+    }
+
+    /**
+     * From wherever the robot is sweeping to a level 1 ascent
+     */
+    static Action parkFromSub(Robot robot, Poses poses, Pose2d from) {
+        return robot.drivetrain.cachedActionBuilder(from)
+                .afterTime(0, () -> {
+                    robot.intake.runRoller(0);
+                    Deposit.level1Ascent = true;
+                    robot.deposit.lift.setTarget(0);
+                })
+                .afterTime(1, () -> robot.intake.extendo.setExtended(false))
+                .strafeToSplineHeading(poses.parkLeft.toVector2d(), poses.parkLeft.heading)
+                .buildUncached();
+    }
+
+    /**
+     * @return Seconds {@link BasketAuto} needs left after scoring to start another submersible cycle: the
+     *         {@link #QUANTILE_CYCLE} quantile of a cycle's duration, then the {@link #QUANTILE_PARK} quantile of
+     *         parking from the basket, so a typical cycle still ends with a park
+     */
+    public static double timeToCycle(PhaseDurations durations) {
+        return durations.quantile(BasketAuto.CYCLE, QUANTILE_CYCLE, TIME_CYCLE) +
+                durations.quantile(BasketAuto.PARKING_FROM_BASKET, QUANTILE_PARK, TIME_PARK);
+    }
+
+    /**
+     * @return Seconds {@link BasketAuto} needs left to keep sweeping: enough for a sample intaked now to be scored and
+     *         the robot to park after, or just to park from the submersible if that takes longer, all at the
+     *         {@link #QUANTILE_PARK} quantile
+     */
+    public static double timeToScore(PhaseDurations durations) {
+        return max(
+                WAIT_POST_INTAKING +
+                        durations.quantile(BasketAuto.State.SCORING.name(), QUANTILE_PARK, TIME_SCORE - WAIT_POST_INTAKING) +
+                        durations.quantile(BasketAuto.PARKING_FROM_BASKET, QUANTILE_PARK, TIME_PARK),
+                durations.quantile(BasketAuto.PARKING_FROM_SUB, QUANTILE_PARK, TIME_PARK)
+        );
     }
 
     private static Action scoreSample(Robot robot) {
@@ -550,10 +771,10 @@ public final class Auto extends LinearOpMode {
                 new InstantAction(() -> {
                     if (robot.getSample() == null) robot.deposit.transfer(NEUTRAL);
                 }),
-                new SleepAction(WAIT_APPROACH_BASKET),
+                waitSeconds(robot, WAIT_APPROACH_BASKET),
                 telemetryPacket -> !(robot.deposit.arm.atPosition(Arm.SAMPLE) && robot.deposit.lift.atPosition(HEIGHT_BASKET_HIGH)),
                 new InstantAction(robot.deposit::triggerClaw),
-                new SleepAction(WAIT_SCORE_BASKET)
+                waitSeconds(robot, WAIT_SCORE_BASKET)
         );
     }
 
@@ -562,12 +783,27 @@ public final class Auto extends LinearOpMode {
                 new InstantAction(() -> {
                     if (robot.getSample() == null) while (!robot.deposit.hasSpecimen()) robot.deposit.triggerClaw();
                 }),
-                new SleepAction(WAIT_APPROACH_CHAMBER),
+                waitSeconds(robot, WAIT_APPROACH_CHAMBER),
                 telemetryPacket -> !(robot.deposit.arm.atPosition(Arm.SPECIMEN) && robot.deposit.lift.atPosition(HEIGHT_CHAMBER_HIGH)), // wait until deposit in position
                 new InstantAction(robot.deposit::triggerClaw),
                 telemetryPacket -> robot.deposit.hasSample(), // wait until spec scored
-                new SleepAction(WAIT_SCORE_CHAMBER)
+                waitSeconds(robot, WAIT_SCORE_CHAMBER)
         );
     }
 
+    /**
+     * {@link com.acmerobotics.roadrunner.SleepAction} timed by {@link Robot#clock}, so it also runs on simulated time
+     */
+    private static Action waitSeconds(Robot robot, double seconds) {
+        return new Action() {
+
+            private LoopTimer timer = null;
+
+            public boolean run(@NonNull TelemetryPacket p) {
+                if (timer == null) timer = new LoopTimer(robot.clock);
+                return timer.seconds() < seconds;
+            }
+        };
+    }
+
 }
@@ -16,6 +16,8 @@ import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SUB_MAX;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SUB_MIN;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.INCREMENT_LOWERING_BUCKET;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.LENGTH_START_DROPPING_BUCKET;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.QUANTILE_CYCLE;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.SCALE_SWEEP_SPEED_MAX;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.SPEED_INTAKING;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.TIME_CYCLE;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.TIME_EXTEND_CYCLE;
@@ -24,20 +26,31 @@ import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_POST_INTAKING;
 
 import static java.lang.Math.PI;
 import static java.lang.Math.cos;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import androidx.annotation.NonNull;
 
 import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
 import com.acmerobotics.roadrunner.Action;
-import com.qualcomm.robotcore.util.ElapsedTime;
+import com.acmerobotics.roadrunner.Pose2d;
 
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
 import org.firstinspires.ftc.teamcode.subsystem.Robot;
 
-import java.util.ArrayList;
+import java.util.function.Function;
 
 class BasketAuto implements Action {
 
+    /**
+     * Names of {@link PhaseDurations} recorded under something other than their {@link State}
+     */
+    static final String
+            CYCLE = "CYCLE",
+            SCORING_3 = "SCORING_3",
+            PARKING_FROM_BASKET = "PARKING_FROM_BASKET",
+            PARKING_FROM_SUB = "PARKING_FROM_SUB";
+
     enum State {
         PRELOAD_AND_1,
         SCORING_1,
@@ -51,13 +64,25 @@ class BasketAuto implements Action {
     }
 
     private State state = PRELOAD_AND_1;
+    private String phase = PRELOAD_AND_1.name();
+
+    private LoopTimer matchTimer = null;
+    private final LoopTimer timer, bucketTimer, phaseTimer;
+
+    /**
+     * How long each phase has taken this match and the last few, which decide whether there's time for another cycle
+     */
+    private final PhaseDurations durations;
 
-    private ElapsedTime matchTimer = null;
-    private final ElapsedTime timer = new ElapsedTime(), bucketTimer = new ElapsedTime();
+    /**
+     * {@link Auto#timeToScore}, fixed for each visit to the submersible
+     */
+    private double timeToScore;
 
     private Action activeTraj;
 
     private final Robot robot;
+    private final Auto.Poses poses;
     private final Action
             score1,
             intake2,
@@ -67,19 +92,29 @@ class BasketAuto implements Action {
             park,
             i1To2,
             i2To3,
-            i3ToSub,
-            subPark;
+            i3ToSub;
 
-    private final ArrayList<Action>
-            toSubs,
-            sweepLefts,
-            sweepRights,
-            scores;
+    /**
+     * Submersible paths, planned from where the robot actually is, or will be, when it needs them
+     */
+    private final Replanner replanner = new Replanner();
+
+    /**
+     * Time since leaving the basket for the submersible, which is a {@link #CYCLE} once the sample is scored
+     */
+    private final LoopTimer cycleTimer;
 
     private boolean sweepingLeft = true;
 
+    /**
+     * Whether a path in the submersible couldn't be planned, so all that's left is parking
+     */
+    private boolean stranded = false;
+
     BasketAuto(
             Robot robot,
+            Auto.Poses poses,
+            PhaseDurations durations,
             Action preloadAnd1,
             Action score1,
             Action intake2,
@@ -89,14 +124,11 @@ class BasketAuto implements Action {
             Action park,
             Action i1To2,
             Action i2To3,
-            Action i3ToSub,
-            Action subPark,
-            ArrayList<Action> toSubs,
-            ArrayList<Action> sweepLefts,
-            ArrayList<Action> sweepRights,
-            ArrayList<Action> scores
+            Action i3ToSub
     ) {
         this.robot = robot;
+        this.poses = poses;
+        this.durations = durations;
         activeTraj = preloadAnd1;
         this.score1 = score1;
         this.intake2 = intake2;
@@ -107,15 +139,101 @@ class BasketAuto implements Action {
         this.i1To2 = i1To2;
         this.i2To3 = i2To3;
         this.i3ToSub = i3ToSub;
-        this.subPark = subPark;
-        this.toSubs = toSubs;
-        this.sweepLefts = sweepLefts;
-        this.sweepRights = sweepRights;
-        this.scores = scores;
+        timer = new LoopTimer(robot.clock);
+        bucketTimer = new LoopTimer(robot.clock);
+        cycleTimer = new LoopTimer(robot.clock);
+        phaseTimer = new LoopTimer(robot.clock);
+    }
+
+    private void enter(State next) {
+        enter(next, next.name());
+    }
+
+    /**
+     * Records how long the current phase took, then starts {@code nextPhase}
+     */
+    private void enter(State next, String nextPhase) {
+        durations.record(phase, phaseTimer.seconds());
+        // scoring a submersible sample, however the robot got it, is the end of a cycle
+        if (phase.equals(SCORING.name())) durations.record(CYCLE, cycleTimer.seconds());
+        start(next, nextPhase);
+    }
+
+    /**
+     * Starts {@code nextPhase} without recording the current one, which was cut short
+     */
+    private void start(State next, String nextPhase) {
+        state = next;
+        phase = nextPhase;
+        phaseTimer.reset();
+    }
+
+    /**
+     * Starts planning {@code next}'s path from {@code from} unless it's already planned or underway
+     */
+    private void prepare(State next, Pose2d from, Function<Pose2d, Action> build) {
+        if (!replanner.has(next)) replanner.plan(next, from, build);
+    }
+
+    /**
+     * Parks from where the robot is, once that path is planned
+     *
+     * @return False if it couldn't be planned, leaving the robot where it is
+     */
+    private boolean parkFromSub() {
+        if (replanner.failed(PARKING)) return false;
+
+        Pose2d pose = robot.drivetrain.pose;
+        prepare(PARKING, pose, from -> Auto.parkFromSub(robot, poses, from));
+        Action subPark = replanner.take(PARKING, pose);
+        if (subPark != null) {
+            activeTraj = subPark;
+            // a sweep that ends without a sample says nothing about how long getting one takes
+            start(PARKING, PARKING_FROM_SUB);
+            durations.save();
+        }
+        return true;
+    }
+
+    private void startScoring(Action score, String scoringPhase) {
+        activeTraj = score;
+        enter(SCORING, scoringPhase);
+        // the robot finishes scoring at the basket
+        prepare(DRIVING_TO_SUB, poses.basket.toPose2d(), from -> Auto.toSub(robot, poses, from));
+    }
+
+    private void startDrivingToSub(Action toSub) {
+        activeTraj = toSub;
+        enter(DRIVING_TO_SUB);
+        cycleTimer.reset();
+        planSweep(poses.intakingSub.toPose2d(), true);
+    }
+
+    /**
+     * @return Multiplier for the sweeping speed limits, rising as the time spent getting a sample this cycle runs
+     *         over its share of a typical {@link #CYCLE}, the rest being spent scoring it
+     */
+    private double sweepSpeedScale() {
+        double budget = durations.quantile(CYCLE, QUANTILE_CYCLE, TIME_CYCLE) - WAIT_POST_INTAKING -
+                durations.quantile(SCORING.name(), QUANTILE_CYCLE, TIME_SCORE - WAIT_POST_INTAKING);
+        return budget > 0 ? max(1, min(cycleTimer.seconds() / budget, SCALE_SWEEP_SPEED_MAX)) : 1;
+    }
+
+    /**
+     * Starts planning a sweep from {@code from}, replacing any other plan
+     *
+     * @param left Whether it goes to {@link Auto#sweptSub}, rather than back to {@link Auto#intakingSub}
+     */
+    private void planSweep(Pose2d from, boolean left) {
+        double speedScale = sweepSpeedScale();
+        replanner.plan(SWEEPING, from, start -> Auto.sweep(robot, start, left ? poses.sweptSub : poses.intakingSub, speedScale));
     }
 
     public boolean run(@NonNull TelemetryPacket p) {
-        if (matchTimer == null) matchTimer = new ElapsedTime();
+        if (matchTimer == null) {
+            matchTimer = new LoopTimer(robot.clock);
+            phaseTimer.reset();
+        }
 
         double remaining = 30 - matchTimer.seconds();
 
@@ -139,7 +257,7 @@ class BasketAuto implements Action {
                     // skip to 2 if didn't get 1
                     if (trajDone) {
                         activeTraj = i1To2;
-                        state = INTAKING_2;
+                        enter(INTAKING_2);
                     }
 
                 } else {
@@ -147,7 +265,7 @@ class BasketAuto implements Action {
                     if (timer.seconds() >= WAIT_POST_INTAKING) {
                         robot.intake.runRoller(0);
                         activeTraj = score1;
-                        state = SCORING_1;
+                        enter(SCORING_1);
                     }
                 }
 
@@ -156,7 +274,7 @@ class BasketAuto implements Action {
             case SCORING_1:
                 if (trajDone) {
                     activeTraj = intake2;
-                    state = INTAKING_2;
+                    enter(INTAKING_2);
                 }
                 break;
             case INTAKING_2:
@@ -172,7 +290,7 @@ class BasketAuto implements Action {
                     // skip to 3 if didn't get 2
                     if (trajDone) {
                         activeTraj = i2To3;
-                        state = INTAKING_3;
+                        enter(INTAKING_3);
                     }
 
                 } else {
@@ -180,7 +298,7 @@ class BasketAuto implements Action {
                     if (timer.seconds() >= WAIT_POST_INTAKING) {
                         robot.intake.runRoller(0);
                         activeTraj = score2;
-                        state = SCORING_2;
+                        enter(SCORING_2);
                     }
                 }
 
@@ -189,7 +307,7 @@ class BasketAuto implements Action {
             case SCORING_2:
                 if (trajDone) {
                     activeTraj = intake3;
-                    state = INTAKING_3;
+                    enter(INTAKING_3);
                 }
                 break;
             case INTAKING_3:
@@ -203,17 +321,13 @@ class BasketAuto implements Action {
                     timer.reset();
 
                     // skip to sub if didn't get 3
-                    if (trajDone) {
-                        activeTraj = i3ToSub;
-                        state = DRIVING_TO_SUB;
-                    }
+                    if (trajDone) startDrivingToSub(i3ToSub);
 
                 } else {
                     robot.intake.runRoller(1);
                     if (timer.seconds() >= WAIT_POST_INTAKING) {
                         robot.intake.runRoller(0);
-                        activeTraj = score3;
-                        state = SCORING;
+                        startScoring(score3, SCORING_3);
                     }
                 }
 
@@ -221,29 +335,48 @@ class BasketAuto implements Action {
 
             case SCORING:
                 if (trajDone) {
-                    if (remaining < TIME_CYCLE) {
+                    // out of time, or there's no path to the submersible
+                    if (remaining < Auto.timeToCycle(durations) || replanner.failed(DRIVING_TO_SUB)) {
+                        replanner.cancel();
                         activeTraj = park;
-                        state = PARKING;
-                    } else {
-                        activeTraj = toSubs.remove(0);
-                        state = DRIVING_TO_SUB;
+                        enter(PARKING, PARKING_FROM_BASKET);
+                        durations.save();
+                        break;
                     }
+
+                    // wait for the path from the basket, planned while scoring
+                    Pose2d pose = robot.drivetrain.pose;
+                    prepare(DRIVING_TO_SUB, pose, from -> Auto.toSub(robot, poses, from));
+                    Action toSub = replanner.take(DRIVING_TO_SUB, pose);
+                    if (toSub != null) startDrivingToSub(toSub);
                 }
                 break;
 
             case DRIVING_TO_SUB:
                 if (trajDone) {
+                    if (replanner.failed(SWEEPING)) {
+                        if (!parkFromSub()) return false;
+                        break;
+                    }
+
+                    // planned on the way, unless something replaced it
+                    if (!replanner.has(SWEEPING)) planSweep(robot.drivetrain.pose, true);
+                    Action sweep = replanner.take(SWEEPING, robot.drivetrain.pose);
+                    if (sweep == null) break;
+
                     sweepingLeft = true;
-                    activeTraj = sweepLefts.remove(0);
-                    state = SWEEPING;
+                    activeTraj = sweep;
+                    enter(SWEEPING);
+                    timeToScore = Auto.timeToScore(durations);
                     bucketTimer.reset();
+                    planSweep(poses.sweptSub.toPose2d(), false);
                 }
                 break;
             case SWEEPING:
 
-                if (remaining < TIME_SCORE) {
-                    activeTraj = subPark;
-                    state = PARKING;
+                if (remaining < timeToScore || stranded) {
+                    // keep sweeping until the path to park from here is ready
+                    if (!parkFromSub()) return false;
                     break;
                 }
 
@@ -259,24 +392,48 @@ class BasketAuto implements Action {
 
                     timer.reset();
 
-                    // sweep the other way
+                    // sweep the other way, planned during this sweep unless a lost sample replaced it
                     if (trajDone) {
-                        sweepingLeft = !sweepingLeft;
-                        activeTraj = (sweepingLeft ? sweepRights : sweepLefts).remove(0);
+                        if (replanner.failed(SWEEPING)) {
+                            stranded = true;
+                            break;
+                        }
+                        if (!replanner.has(SWEEPING)) planSweep(robot.drivetrain.pose, !sweepingLeft);
+                        Action sweep = replanner.take(SWEEPING, robot.drivetrain.pose);
+                        if (sweep != null) {
+                            sweepingLeft = !sweepingLeft;
+                            activeTraj = sweep;
+                            planSweep((sweepingLeft ? poses.sweptSub : poses.intakingSub).toPose2d(), !sweepingLeft);
+                        }
                     }
 
                 } else {
                     robot.intake.runRoller(1);
+
+                    // plan scoring from where the sample was picked up while the roller finishes
+                    if (replanner.failed(SCORING)) {
+                        stranded = true;
+                        break;
+                    }
+                    Pose2d pose = robot.drivetrain.pose;
+                    prepare(SCORING, pose, from -> Auto.scoreFromSub(robot, poses, from));
+
                     if (timer.seconds() >= WAIT_POST_INTAKING) {
-                        robot.intake.runRoller(0);
-                        activeTraj = scores.remove(0);
-                        state = SCORING;
+                        Action score = replanner.take(SCORING, pose);
+                        if (score != null) {
+                            robot.intake.runRoller(0);
+                            startScoring(score, SCORING.name());
+                        }
                     }
                 }
 
                 break;
 
             case PARKING:
+                if (trajDone) {
+                    durations.record(phase, phaseTimer.seconds());
+                    durations.save();
+                }
                 return !trajDone;
         }
 
@@ -0,0 +1,184 @@
+package org.firstinspires.ftc.teamcode.opmode;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How long each phase of an autonomous has taken, over the last {@link #WINDOW} times it finished, kept in
+ * {@link #FILE} across matches so {@link BasketAuto} can budget its remaining time from what the robot actually does <p>
+ * Phases with fewer than {@link #MIN_SAMPLES} durations fall back to a prior the caller passes in. The file is text,
+ * one line per phase: its name, then its durations in seconds, oldest first. Storage errors are ignored, leaving
+ * just the durations recorded this match. Safe to use from any thread
+ */
+@Config
+public final class PhaseDurations {
+
+    /**
+     * Whether to read and write {@link #FILE}
+     */
+    public static boolean ENABLED = true;
+
+    public static int
+            WINDOW = 20,
+            MIN_SAMPLES = 3;
+
+    public static final String FILE = "/sdcard/FIRST/PhaseDurations.txt";
+
+    /**
+     * Serializes saves, which run on their own threads
+     */
+    private static final Object storage = new Object();
+
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private final int window = Math.max(1, WINDOW);
+
+    /**
+     * Most recent durations of one phase, in a ring
+     */
+    private static final class Window {
+
+        final double[] durations, sorted;
+        int count = 0, next = 0;
+
+        Window(int size) {
+            durations = new double[size];
+            sorted = new double[size];
+        }
+
+        void add(double seconds) {
+            durations[next] = seconds;
+            next = (next + 1) % durations.length;
+            count = Math.min(count + 1, durations.length);
+        }
+
+        /**
+         * @return Durations, oldest first
+         */
+        double[] toArray() {
+            double[] ordered = new double[count];
+            int first = count < durations.length ? 0 : next;
+            for (int i = 0; i < count; i++) ordered[i] = durations[(first + i) % durations.length];
+            return ordered;
+        }
+    }
+
+    /**
+     * No durations, so every quantile is its prior
+     */
+    public PhaseDurations() {}
+
+    /**
+     * @return Durations saved in {@link #FILE}, or none if it's disabled, missing or unreadable
+     */
+    public static PhaseDurations load() {
+        PhaseDurations loaded = new PhaseDurations();
+        File file = new File(FILE);
+        if (!ENABLED || !file.isFile()) return loaded;
+
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens.length < 2) continue;
+
+                for (int i = 1; i < tokens.length; i++) {
+                    double seconds = Double.parseDouble(tokens[i]);
+                    if (seconds >= 0) loaded.record(tokens[0], seconds);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // corrupt; the next save overwrites it
+            return new PhaseDurations();
+        }
+        return loaded;
+    }
+
+    public synchronized void record(String phase, double seconds) {
+        Window durations = windows.get(phase);
+        if (durations == null) windows.put(phase, durations = new Window(window));
+        durations.add(seconds);
+    }
+
+    public synchronized int count(String phase) {
+        Window durations = windows.get(phase);
+        return durations == null ? 0 : durations.count;
+    }
+
+    /**
+     * @param q     0 for the shortest recorded duration, 1 for the longest, 0.5 for the median
+     * @param prior Seconds to assume while {@code phase} has fewer than {@link #MIN_SAMPLES} durations
+     * @return The {@code q} quantile of {@code phase}'s durations, interpolating between the two closest
+     */
+    public synchronized double quantile(String phase, double q, double prior) {
+        Window durations = windows.get(phase);
+        if (durations == null || durations.count < Math.max(1, MIN_SAMPLES)) return prior;
+
+        int n = durations.count;
+        double[] sorted = durations.sorted;
+        System.arraycopy(durations.durations, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+
+        double index = Math.max(0, Math.min(q, 1)) * (n - 1);
+        int below = (int) index;
+        int above = Math.min(below + 1, n - 1);
+        return sorted[below] + (index - below) * (sorted[above] - sorted[below]);
+    }
+
+    /**
+     * Writes these durations to {@link #FILE} on a background thread, so it's safe to call from the loop
+     */
+    public void save() {
+        if (!ENABLED) return;
+
+        Map<String, double[]> snapshot = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, Window> entry : windows.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue().toArray());
+            }
+        }
+
+        Thread writer = new Thread(() -> write(snapshot), "PhaseDurations");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static void write(Map<String, double[]> snapshot) {
+        synchronized (storage) {
+            File file = new File(FILE);
+            File directory = file.getParentFile();
+            //noinspection ResultOfMethodCallIgnored
+            if (directory != null) directory.mkdirs();
+
+            // written under another name first, so a reader never sees half a file
+            File temporary = new File(file.getPath() + ".tmp");
+            try (PrintWriter out = new PrintWriter(new FileWriter(temporary))) {
+                for (Map.Entry<String, double[]> entry : snapshot.entrySet()) {
+                    out.print(entry.getKey());
+                    for (double seconds : entry.getValue()) out.printf(Locale.US, " %.3f", seconds);
+                    out.println();
+                }
+                if (out.checkError()) throw new IOException("Couldn't write " + temporary);
+            } catch (IOException e) {
+                //noinspection ResultOfMethodCallIgnored
+                temporary.delete();
+                return;
+            }
+
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            if (!temporary.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                temporary.delete();
+            }
+        }
+    }
+}
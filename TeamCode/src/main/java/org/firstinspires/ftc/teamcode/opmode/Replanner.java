@@ -0,0 +1,136 @@
+package org.firstinspires.ftc.teamcode.opmode;
+
+import com.acmerobotics.roadrunner.Action;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Builds {@link BasketAuto}'s next drive action on a background thread, one at a time, so planning from the
+ * robot's measured pose never holds up the loop <p>
+ * Each plan is for a state, and is only handed out for that state. Starting a plan replaces any plan not yet taken.
+ * A plan is built from the pose it's expected to start at; if the robot is more than {@link Auto#REPLAN_DISTANCE} or
+ * {@link Auto#REPLAN_HEADING} from it when it's taken, it's rebuilt from where the robot actually is. A plan whose
+ * build throws is retried once in the loop that takes it, and after that counts as {@link #failed}.
+ * With {@link Auto#REPLAN_IN_BACKGROUND} off, plans are built as soon as they're started, on the calling thread
+ */
+final class Replanner {
+
+    private static final String TAG = "Replanner";
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "Replanner");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
+
+    private BasketAuto.State purpose = null, failed = null;
+    private Future<Action> plan = null;
+
+    private Pose2d from;
+    private Function<Pose2d, Action> build;
+    private boolean fromRobot;
+
+    Replanner() {
+        // no thread left behind once Auto is over
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts building {@code build}'s action for {@code purpose}, cancelling the plan in progress
+     *
+     * @param from Where the robot is expected to be when the action starts
+     */
+    void plan(BasketAuto.State purpose, Pose2d from, Function<Pose2d, Action> build) {
+        start(purpose, from, build, false);
+    }
+
+    private void start(BasketAuto.State purpose, Pose2d from, Function<Pose2d, Action> build, boolean fromRobot) {
+        if (plan != null) plan.cancel(true);
+
+        this.purpose = purpose;
+        this.from = from;
+        this.build = build;
+        this.fromRobot = fromRobot;
+        failed = null;
+
+        if (Auto.REPLAN_IN_BACKGROUND) {
+            plan = executor.submit(() -> build.apply(from));
+        } else {
+            FutureTask<Action> task = new FutureTask<>(() -> build.apply(from));
+            task.run();
+            plan = task;
+        }
+    }
+
+    /**
+     * @return Whether a plan for {@code purpose} is being built or ready to take
+     */
+    boolean has(BasketAuto.State purpose) {
+        return plan != null && this.purpose == purpose;
+    }
+
+    /**
+     * @return Whether the last plan for {@code purpose} couldn't be built, even on a second try
+     */
+    boolean failed(BasketAuto.State purpose) {
+        return failed == purpose;
+    }
+
+    /**
+     * @param pose Where the robot is now
+     * @return The plan for {@code purpose} once it's built, or null while it's being built, if there isn't one,
+     *         if it's being rebuilt from {@code pose} or if it couldn't be built
+     */
+    Action take(BasketAuto.State purpose, Pose2d pose) {
+        if (!has(purpose) || !plan.isDone()) return null;
+
+        if (!fromRobot && isFar(from, pose)) {
+            // the robot isn't where this was planned from, e.g. after a slow approach or a missed intake
+            start(purpose, pose, build, true);
+            return null;
+        }
+
+        Future<Action> done = plan;
+        plan = null;
+        this.purpose = null;
+
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            RobotLog.ee(TAG, e.getCause(), "Couldn't plan %s in the background, retrying in the loop", purpose);
+        } catch (InterruptedException | CancellationException e) {
+            // not cancelled from here, since cancelling also clears the plan
+            RobotLog.ee(TAG, e, "Plan for %s was interrupted, retrying in the loop", purpose);
+        }
+
+        try {
+            return build.apply(from);
+        } catch (RuntimeException e) {
+            RobotLog.ee(TAG, e, "Couldn't plan %s", purpose);
+            failed = purpose;
+            return null;
+        }
+    }
+
+    private static boolean isFar(Pose2d planned, Pose2d actual) {
+        return planned.position.minus(actual.position).norm() > Auto.REPLAN_DISTANCE ||
+                Math.abs(planned.heading.minus(actual.heading)) > Auto.REPLAN_HEADING;
+    }
+
+    void cancel() {
+        if (plan != null) plan.cancel(true);
+        plan = null;
+        purpose = null;
+    }
+}
@@ -27,7 +27,7 @@ public final class Sizing extends LinearOpMode {
         // Control loop:
         while (opModeIsActive()) {
             // Read sensors + gamepads:
-            robot.bulkReader.bulkRead();
+            robot.bulkRead();
             gamepadEx1.readButtons();
 
             if (gamepadEx1.wasJustPressed(X)) {
@@ -21,6 +21,8 @@ import static org.firstinspires.ftc.teamcode.opmode.Tele.TeleOpConfig.PRELOAD_SP
 import static org.firstinspires.ftc.teamcode.opmode.Auto.isRedAlliance;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.pose;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.TELEMETRY;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level.NO_DASHBOARD;
 import static org.firstinspires.ftc.teamcode.subsystem.Deposit.Position.FLOOR;
 import static org.firstinspires.ftc.teamcode.subsystem.Deposit.Position.HIGH;
 import static org.firstinspires.ftc.teamcode.subsystem.Deposit.Position.LOW;
@@ -71,6 +73,7 @@ public final class Tele extends LinearOpMode {
 
         double TELE = 120; // seconds
         double CLIMB_TIME = TELE - 10; // 15 seconds for climb
+        double TELEMETRY_PERIOD = 0.1, LED_PERIOD = 0.1; // seconds
         boolean rumbledClimb = false, rumbledSample = false;
 
         mTelemetry = new MultipleTelemetry(telemetry, FtcDashboard.getInstance().getTelemetry());
@@ -162,10 +165,33 @@ public final class Tele extends LinearOpMode {
 
         matchTimer.reset();
 
+        robot.watchdog.addListener((from, to) -> mTelemetry = to.atLeast(NO_DASHBOARD) ?
+                new MultipleTelemetry(telemetry) :
+                new MultipleTelemetry(telemetry, FtcDashboard.getInstance().getTelemetry())
+        );
+
+        robot.scheduler.add("Telemetry", TELEMETRY_PERIOD, 9, () -> {
+            if (!gamepadEx1.isDown(A)) return;
+            long start = robot.profiler.start();
+            robot.printTelemetry();
+            mTelemetry.update();
+            robot.profiler.stop(TELEMETRY, start);
+        });
+
+        robot.scheduler.add("Gamepad LEDs", LED_PERIOD, 8, () -> {
+            Sample sample = robot.getSample();
+            gamepad1.setLedColor(
+                    sample == RED || sample == NEUTRAL ? 1 : 0,
+                    sample == NEUTRAL ? 1 : 0,
+                    sample == BLUE ? 1 : 0,
+                    Gamepad.LED_DURATION_CONTINUOUS
+            );
+        });
+
         // Control loop:
         while (opModeIsActive()) {
             // Read sensors + gamepads:
-            robot.bulkReader.bulkRead();
+            robot.bulkRead();
             robot.drivetrain.updatePoseEstimate();
             gamepadEx1.readButtons();
 
@@ -225,11 +251,6 @@ public final class Tele extends LinearOpMode {
 
             robot.run();
 
-            if (gamepadEx1.isDown(A)) {
-                robot.printTelemetry();
-                mTelemetry.update();
-            }
-
             if (!rumbledClimb && matchTimer.seconds() >= CLIMB_TIME) {
                 gamepad1.rumble(1, 1, 2000);
                 rumbledClimb = true;
@@ -241,14 +262,8 @@ public final class Tele extends LinearOpMode {
                 rumbledSample = true;
             }
 
-            Sample sample = robot.getSample();
-            gamepad1.setLedColor(
-                    sample == RED || sample == NEUTRAL ? 1 : 0,
-                    sample == NEUTRAL ? 1 : 0,
-                    sample == BLUE ? 1 : 0,
-                    Gamepad.LED_DURATION_CONTINUOUS
-            );
-
         }
+
+        robot.profiler.dump();
     }
 }
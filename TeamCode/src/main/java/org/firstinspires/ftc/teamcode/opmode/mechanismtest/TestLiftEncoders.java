@@ -6,7 +6,6 @@ import static org.firstinspires.ftc.teamcode.subsystem.Lift.INCHES_PER_TICK;
 
 import com.acmerobotics.dashboard.FtcDashboard;
 import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
-import com.arcrobotics.ftclib.hardware.motors.Motor;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 
@@ -24,8 +23,8 @@ public final class TestLiftEncoders extends LinearOpMode {
 
         BulkReader bulkReader = new BulkReader(hardwareMap);
 
-        Motor.Encoder encoder0 = new CachedMotorEx(hardwareMap, "right back", RPM_312).encoder;
-        Motor.Encoder encoder1 = new CachedMotorEx(hardwareMap, "left back", RPM_312).encoder;
+        CachedMotorEx.Encoder encoder0 = new CachedMotorEx(hardwareMap, "right back", RPM_312).encoder;
+        CachedMotorEx.Encoder encoder1 = new CachedMotorEx(hardwareMap, "left back", RPM_312).encoder;
         
         waitForStart();
 
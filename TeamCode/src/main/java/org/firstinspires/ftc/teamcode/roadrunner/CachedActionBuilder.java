@@ -0,0 +1,440 @@
+package org.firstinspires.ftc.teamcode.roadrunner;
+
+import androidx.annotation.NonNull;
+
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.acmerobotics.roadrunner.Action;
+import com.acmerobotics.roadrunner.AngularVelConstraint;
+import com.acmerobotics.roadrunner.Arclength;
+import com.acmerobotics.roadrunner.InstantAction;
+import com.acmerobotics.roadrunner.InstantFunction;
+import com.acmerobotics.roadrunner.MinVelConstraint;
+import com.acmerobotics.roadrunner.ParallelAction;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.Pose2dDual;
+import com.acmerobotics.roadrunner.SequentialAction;
+import com.acmerobotics.roadrunner.TimeTrajectory;
+import com.acmerobotics.roadrunner.TrajectoryActionBuilder;
+import com.acmerobotics.roadrunner.TranslationalVelConstraint;
+import com.acmerobotics.roadrunner.Vector2d;
+import com.acmerobotics.roadrunner.VelConstraint;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The parts of {@link TrajectoryActionBuilder} autonomous uses, with trajectories loaded from {@link TrajectoryCache}
+ * instead of generated when the same paths have been built before <p>
+ * Calls are recorded, not run, until {@link #build()}. Each stretch of path between {@link #stopAndAdd}s is then
+ * looked up by a hash of the start pose, every waypoint and constraint and the drive parameters, and only generated
+ * by {@link TrajectoryActionBuilder} (arc length parametrization and profiling) on a miss. Actions and markers
+ * are put together the same way either way. <p>
+ * Differences from {@link TrajectoryActionBuilder}: methods return this builder instead of a copy, so don't branch
+ * one; there are no turns or displacement markers; an {@link #afterTime} after path can't be followed by more path
+ * without a {@link #stopAndAdd} in between; and marker delays run on {@link MecanumDrive#clock}
+ */
+public final class CachedActionBuilder {
+
+    /**
+     * Velocity limit for a segment, by value, so it can be hashed
+     */
+    public static final class SpeedLimit {
+
+        public final double maxVel, maxAngVel;
+
+        public SpeedLimit(double maxVel, double maxAngVel) {
+            this.maxVel = maxVel;
+            this.maxAngVel = maxAngVel;
+        }
+
+        VelConstraint constraint() {
+            return new MinVelConstraint(Arrays.asList(
+                    new TranslationalVelConstraint(maxVel),
+                    new AngularVelConstraint(maxAngVel)
+            ));
+        }
+    }
+
+    private static final int
+            SET_TANGENT = 0,
+            STRAFE_TO = 1,
+            STRAFE_TO_SPLINE_HEADING = 2,
+            LINE_TO_Y = 3,
+            SPLINE_TO = 4,
+            SPLINE_TO_CONSTANT_HEADING = 5,
+            SPLINE_TO_LINEAR_HEADING = 6,
+            SPLINE_TO_SPLINE_HEADING = 7;
+
+    private static final class Segment {
+
+        final int type;
+        final double[] args;
+        final SpeedLimit limit;
+
+        Segment(int type, SpeedLimit limit, double... args) {
+            this.type = type;
+            this.args = args;
+            this.limit = limit;
+        }
+
+        TrajectoryActionBuilder addTo(TrajectoryActionBuilder builder) {
+            double[] a = args;
+            switch (type) {
+                case SET_TANGENT:
+                    return builder.setTangent(a[0]);
+                case STRAFE_TO:
+                    return limit == null ?
+                            builder.strafeTo(new Vector2d(a[0], a[1])) :
+                            builder.strafeTo(new Vector2d(a[0], a[1]), limit.constraint());
+                case STRAFE_TO_SPLINE_HEADING:
+                    return limit == null ?
+                            builder.strafeToSplineHeading(new Vector2d(a[0], a[1]), a[2]) :
+                            builder.strafeToSplineHeading(new Vector2d(a[0], a[1]), a[2], limit.constraint());
+                case LINE_TO_Y:
+                    return limit == null ?
+                            builder.lineToY(a[0]) :
+                            builder.lineToY(a[0], limit.constraint());
+                case SPLINE_TO:
+                    return builder.splineTo(new Vector2d(a[0], a[1]), a[2]);
+                case SPLINE_TO_CONSTANT_HEADING:
+                    return builder.splineToConstantHeading(new Vector2d(a[0], a[1]), a[2]);
+                case SPLINE_TO_LINEAR_HEADING:
+                    return builder.splineToLinearHeading(new Pose2d(a[0], a[1], a[2]), a[3]);
+                case SPLINE_TO_SPLINE_HEADING:
+                    return builder.splineToSplineHeading(new Pose2d(a[0], a[1], a[2]), a[3]);
+                default:
+                    throw new IllegalStateException("Unknown segment type " + type);
+            }
+        }
+    }
+
+    /**
+     * Consecutive segments, followed without stopping, then markers to run once they're done
+     */
+    private static final class Path {
+        final ArrayList<Segment> segments = new ArrayList<>();
+        final ArrayList<Action> markers = new ArrayList<>();
+        int moves;
+    }
+
+    /**
+     * A marker placed where no path was pending, which runs alongside everything after it
+     */
+    private static final class Marker {
+        final Action action;
+
+        Marker(Action action) {
+            this.action = action;
+        }
+    }
+
+    private final MecanumDrive drive;
+    private final Pose2d beginPose;
+
+    /**
+     * {@link Path}s, {@link Marker}s and stop-and-add {@link Action}s, in order
+     */
+    private final ArrayList<Object> parts = new ArrayList<>();
+    private Path path = null;
+
+    CachedActionBuilder(MecanumDrive drive, Pose2d beginPose) {
+        this.drive = drive;
+        this.beginPose = beginPose;
+    }
+
+    private CachedActionBuilder add(Segment segment) {
+        if (path != null && !path.markers.isEmpty()) {
+            throw new IllegalStateException("Path after an afterTime needs a stopAndAdd in between");
+        }
+        if (path == null) {
+            path = new Path();
+            parts.add(path);
+        }
+        path.segments.add(segment);
+        if (segment.type != SET_TANGENT) path.moves++;
+        return this;
+    }
+
+    public CachedActionBuilder setTangent(double tangent) {
+        return add(new Segment(SET_TANGENT, null, tangent));
+    }
+
+    public CachedActionBuilder strafeTo(Vector2d position) {
+        return strafeTo(position, null);
+    }
+
+    public CachedActionBuilder strafeTo(Vector2d position, SpeedLimit limit) {
+        return add(new Segment(STRAFE_TO, limit, position.x, position.y));
+    }
+
+    public CachedActionBuilder strafeToSplineHeading(Vector2d position, double heading) {
+        return strafeToSplineHeading(position, heading, null);
+    }
+
+    public CachedActionBuilder strafeToSplineHeading(Vector2d position, double heading, SpeedLimit limit) {
+        return add(new Segment(STRAFE_TO_SPLINE_HEADING, limit, position.x, position.y, heading));
+    }
+
+    public CachedActionBuilder lineToY(double y) {
+        return lineToY(y, null);
+    }
+
+    public CachedActionBuilder lineToY(double y, SpeedLimit limit) {
+        return add(new Segment(LINE_TO_Y, limit, y));
+    }
+
+    public CachedActionBuilder splineTo(Vector2d position, double tangent) {
+        return add(new Segment(SPLINE_TO, null, position.x, position.y, tangent));
+    }
+
+    public CachedActionBuilder splineToConstantHeading(Vector2d position, double tangent) {
+        return add(new Segment(SPLINE_TO_CONSTANT_HEADING, null, position.x, position.y, tangent));
+    }
+
+    public CachedActionBuilder splineToLinearHeading(Pose2d pose, double tangent) {
+        return add(new Segment(SPLINE_TO_LINEAR_HEADING, null, pose.position.x, pose.position.y, pose.heading.toDouble(), tangent));
+    }
+
+    public CachedActionBuilder splineToSplineHeading(Pose2d pose, double tangent) {
+        return add(new Segment(SPLINE_TO_SPLINE_HEADING, null, pose.position.x, pose.position.y, pose.heading.toDouble(), tangent));
+    }
+
+    /**
+     * Ends the pending path, if any, and runs {@code action} after it
+     */
+    public CachedActionBuilder stopAndAdd(Action action) {
+        parts.add(action);
+        path = null;
+        return this;
+    }
+
+    public CachedActionBuilder stopAndAdd(InstantFunction f) {
+        return stopAndAdd(new InstantAction(f));
+    }
+
+    /**
+     * Runs {@code action} {@code dt} seconds after the pending path ends or, with no path pending, {@code dt} seconds
+     * after whatever comes next starts, alongside it
+     */
+    public CachedActionBuilder afterTime(double dt, Action action) {
+        if (dt < 0) throw new IllegalArgumentException("Time (" + dt + ") must be non-negative");
+
+        Action marker = dt > 0 ? new SequentialAction(sleep(dt), action) : action;
+        if (path != null && path.moves > 0) {
+            path.markers.add(marker);
+        } else {
+            parts.add(new Marker(marker));
+            // setTangent still applies to the path after the marker
+            path = null;
+        }
+        return this;
+    }
+
+    public CachedActionBuilder afterTime(double dt, InstantFunction f) {
+        return afterTime(dt, new InstantAction(f));
+    }
+
+    private Action sleep(double seconds) {
+        return new Action() {
+
+            private LoopTimer timer = null;
+
+            public boolean run(@NonNull TelemetryPacket p) {
+                if (timer == null) timer = new LoopTimer(drive.clock);
+                return timer.seconds() < seconds;
+            }
+        };
+    }
+
+    public Action build() {
+        return build(TrajectoryCache.get(key(), pathCount(), this::generate));
+    }
+
+    /**
+     * {@link #build()} without {@link TrajectoryCache}, for one-off paths, like ones from the robot's measured pose,
+     * that would only fill it
+     */
+    public Action buildUncached() {
+        return build(generate());
+    }
+
+    private Action build(List<List<SampledTrajectory>> trajectories) {
+
+        // put together back to front, so each part can wrap everything after it
+        Action rest = null;
+        int p = trajectories.size();
+        for (int i = parts.size() - 1; i >= 0; i--) {
+            Object part = parts.get(i);
+            ArrayList<Action> sequence = new ArrayList<>();
+
+            if (part instanceof Marker) {
+                Action marker = ((Marker) part).action;
+                rest = rest == null ? marker : new ParallelAction(rest, marker);
+                continue;
+            } else if (part instanceof Path) {
+                Path path = (Path) part;
+                for (SampledTrajectory trajectory : trajectories.get(--p)) {
+                    sequence.add(drive.new FollowTrajectoryAction(trajectory));
+                }
+                if (path.markers.size() == 1) sequence.add(path.markers.get(0));
+                else if (!path.markers.isEmpty()) sequence.add(new ParallelAction(path.markers));
+            } else {
+                sequence.add((Action) part);
+            }
+
+            if (rest != null) sequence.add(rest);
+            rest = sequence.size() == 1 ? sequence.get(0) : new SequentialAction(sequence);
+        }
+
+        return rest == null ? new SequentialAction() : rest;
+    }
+
+    private int pathCount() {
+        int count = 0;
+        for (Object part : parts) if (part instanceof Path) count++;
+        return count;
+    }
+
+    /**
+     * Generates each path's trajectories with {@link TrajectoryActionBuilder}, starting where the last path ended,
+     * heading the way it was going, like {@link TrajectoryActionBuilder} does after a {@link #stopAndAdd}
+     */
+    private List<List<SampledTrajectory>> generate() {
+        ArrayList<List<SampledTrajectory>> trajectories = new ArrayList<>();
+
+        Pose2d pose = beginPose;
+        double tangent = beginPose.heading.toDouble();
+
+        for (Object part : parts) {
+            if (!(part instanceof Path)) continue;
+            Path path = (Path) part;
+
+            // a TrajectoryPrefetcher closing
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException("Trajectory generation interrupted");
+
+            if (path.moves == 0) {
+                for (Segment segment : path.segments) tangent = segment.args[0];
+                trajectories.add(Collections.emptyList());
+                continue;
+            }
+
+            int[] generated = {0};
+            TrajectoryActionBuilder builder = drive.actionBuilder(
+                    pose,
+                    turn -> {
+                        throw new IllegalStateException("Turns aren't cached");
+                    },
+                    trajectory -> {
+                        generated[0]++;
+                        return new Leg(trajectory);
+                    }
+            ).setTangent(tangent);
+            for (Segment segment : path.segments) builder = segment.addTo(builder);
+
+            // the order the builder's action would follow them in, not the order it made them in
+            ArrayList<TimeTrajectory> ordered = new ArrayList<>(generated[0]);
+            collectLegs(builder.build(), ordered);
+            if (ordered.size() != generated[0] || ordered.isEmpty()) {
+                throw new IllegalStateException("Lost track of trajectories: " + ordered.size() + " of " + generated[0]);
+            }
+            ArrayList<SampledTrajectory> sampled = new ArrayList<>(ordered.size());
+            for (TimeTrajectory trajectory : ordered) sampled.add(new SampledTrajectory(trajectory));
+            trajectories.add(Collections.unmodifiableList(sampled));
+
+            TimeTrajectory last = ordered.get(ordered.size() - 1);
+            Pose2dDual<Arclength> end = last.path.get(last.path.length(), 2);
+            pose = end.value();
+            tangent = Math.atan2(end.position.y.get(1), end.position.x.get(1));
+        }
+
+        return Collections.unmodifiableList(trajectories);
+    }
+
+    /**
+     * Stands in for a trajectory's follow action in the {@link TrajectoryActionBuilder}'s output, so the order it
+     * runs them in can be read back
+     */
+    private static final class Leg implements Action {
+
+        final TimeTrajectory trajectory;
+
+        Leg(TimeTrajectory trajectory) {
+            this.trajectory = trajectory;
+        }
+
+        public boolean run(@NonNull TelemetryPacket p) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds the trajectories of {@code action}'s {@link Leg}s to {@code into} in the order {@code action} runs them
+     */
+    private static void collectLegs(Action action, List<TimeTrajectory> into) {
+        if (action instanceof Leg) {
+            into.add(((Leg) action).trajectory);
+        } else if (action instanceof SequentialAction) {
+            for (Action child : ((SequentialAction) action).getInitialActions()) collectLegs(child, into);
+        } else if (action instanceof ParallelAction) {
+            for (Action child : ((ParallelAction) action).getInitialActions()) collectLegs(child, into);
+        }
+    }
+
+    /**
+     * @return Hash of everything that shapes the trajectories: the start pose, segments and where paths stop,
+     *         the drive parameters and the sample period. Actions and markers don't
+     */
+    private long key() {
+        Hash hash = new Hash()
+                .add(SampledTrajectory.DT)
+                .add(MecanumDrive.PARAMS.inPerTick)
+                .add(MecanumDrive.PARAMS.lateralInPerTick)
+                .add(MecanumDrive.PARAMS.trackWidthTicks)
+                .add(MecanumDrive.PARAMS.maxWheelVel)
+                .add(MecanumDrive.PARAMS.minProfileAccel)
+                .add(MecanumDrive.PARAMS.maxProfileAccel)
+                .add(MecanumDrive.PARAMS.maxAngVel)
+                .add(MecanumDrive.PARAMS.maxAngAccel)
+                .add(beginPose.position.x)
+                .add(beginPose.position.y)
+                .add(beginPose.heading.toDouble());
+
+        for (Object part : parts) {
+            if (!(part instanceof Path)) continue;
+            hash.add(-1);
+            for (Segment segment : ((Path) part).segments) {
+                hash.add(segment.type);
+                for (double arg : segment.args) hash.add(arg);
+                hash.add(segment.limit == null ? 0 : 1);
+                if (segment.limit != null) hash.add(segment.limit.maxVel).add(segment.limit.maxAngVel);
+            }
+        }
+
+        return hash.value;
+    }
+
+    /**
+     * 64-bit FNV-1a
+     */
+    private static final class Hash {
+
+        long value = 0xcbf29ce484222325L;
+
+        Hash add(long bits) {
+            for (int i = 0; i < 8; i++) {
+                value ^= (bits >>> (8 * i)) & 0xff;
+                value *= 0x100000001b3L;
+            }
+            return this;
+        }
+
+        Hash add(double x) {
+            return add(Double.doubleToLongBits(x));
+        }
+    }
+}
@@ -5,4 +5,9 @@ import com.acmerobotics.roadrunner.Twist2dDual;
 
 public interface Localizer {
     Twist2dDual<Time> update();
+
+    /**
+     * @param recording Whether {@link #update()} writes its inputs to the flight log
+     */
+    default void setRecording(boolean recording) {}
 }
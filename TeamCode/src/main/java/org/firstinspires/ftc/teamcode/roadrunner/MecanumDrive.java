@@ -13,15 +13,11 @@ import com.acmerobotics.dashboard.config.Config;
 import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
 import com.acmerobotics.roadrunner.AccelConstraint;
 import com.acmerobotics.roadrunner.Action;
-import com.acmerobotics.roadrunner.Actions;
 import com.acmerobotics.roadrunner.AngularVelConstraint;
 import com.acmerobotics.roadrunner.DualNum;
-import com.acmerobotics.roadrunner.HolonomicController;
 import com.acmerobotics.roadrunner.MecanumKinematics;
 import com.acmerobotics.roadrunner.MinVelConstraint;
-import com.acmerobotics.roadrunner.MotorFeedforward;
 import com.acmerobotics.roadrunner.Pose2d;
-import com.acmerobotics.roadrunner.Pose2dDual;
 import com.acmerobotics.roadrunner.PoseVelocity2d;
 import com.acmerobotics.roadrunner.PoseVelocity2dDual;
 import com.acmerobotics.roadrunner.ProfileAccelConstraint;
@@ -31,13 +27,14 @@ import com.acmerobotics.roadrunner.Time;
 import com.acmerobotics.roadrunner.TimeTrajectory;
 import com.acmerobotics.roadrunner.TimeTurn;
 import com.acmerobotics.roadrunner.TrajectoryActionBuilder;
+import com.acmerobotics.roadrunner.TrajectoryActionFactory;
 import com.acmerobotics.roadrunner.TrajectoryBuilderParams;
+import com.acmerobotics.roadrunner.TurnActionFactory;
 import com.acmerobotics.roadrunner.TurnConstraints;
 import com.acmerobotics.roadrunner.Twist2dDual;
 import com.acmerobotics.roadrunner.Vector2d;
 import com.acmerobotics.roadrunner.Vector2dDual;
 import com.acmerobotics.roadrunner.VelConstraint;
-import com.acmerobotics.roadrunner.ftc.DownsampledWriter;
 import com.acmerobotics.roadrunner.ftc.Encoder;
 import com.acmerobotics.roadrunner.ftc.FlightRecorder;
 import com.acmerobotics.roadrunner.ftc.LazyImu;
@@ -47,23 +44,21 @@ import com.acmerobotics.roadrunner.ftc.PositionVelocityPair;
 import com.acmerobotics.roadrunner.ftc.RawEncoder;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
-import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
-import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.IMU;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
-import org.firstinspires.ftc.teamcode.roadrunner.message.DriveCommandMessage;
-import org.firstinspires.ftc.teamcode.roadrunner.message.MecanumCommandMessage;
-import org.firstinspires.ftc.teamcode.roadrunner.message.MecanumLocalizerInputsMessage;
-import org.firstinspires.ftc.teamcode.roadrunner.message.PoseMessage;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.PoseHistory;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedDcMotorEx;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.VoltageDevice;
 
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 @Config
@@ -71,6 +66,12 @@ public class MecanumDrive {
 
     public static double SLOW_FACTOR = 0.3;
 
+    /**
+     * Whether drive actions sample their trajectory into a {@link SampledTrajectory} when made, and follow that,
+     * instead of evaluating Road Runner's splines every loop
+     */
+    public static boolean SAMPLE_TRAJECTORIES = true;
+
     /**
      * Drive robot with control stick inputs
      *
@@ -191,6 +192,13 @@ public class MecanumDrive {
 
     public static Params PARAMS = new Params();
 
+    public static final int POSE_HISTORY_SIZE = 100;
+
+    private static final FlightLog.Channel LOCALIZER_INPUTS = FlightLog.channel("MECANUM_LOCALIZER_INPUTS",
+            "left front position", "left front velocity", "left back position", "left back velocity",
+            "right back position", "right back velocity", "right front position", "right front velocity",
+            "yaw", "pitch", "roll");
+
     public final MecanumKinematics kinematics = new MecanumKinematics(
             PARAMS.inPerTick * PARAMS.trackWidthTicks, PARAMS.inPerTick / PARAMS.lateralInPerTick);
 
@@ -206,19 +214,38 @@ public class MecanumDrive {
 
     public final CachedDcMotorEx leftFront, leftBack, rightBack, rightFront;
 
-    public final VoltageSensor voltageSensor;
+    public final VoltageDevice voltageSensor;
+
+    public final LoopClock clock;
 
     public LazyImu lazyImu;
 
-    public final Localizer localizer;
+    public Localizer localizer;
     public Pose2d pose;
 
-    public final LinkedList<Pose2d> poseHistory = new LinkedList<>();
+    /**
+     * Every pose estimate from the last {@link #POSE_HISTORY_SIZE} calls to {@link #updatePoseEstimate()}, timestamped on {@link #clock}
+     */
+    public final PoseHistory poseHistory = new PoseHistory(POSE_HISTORY_SIZE);
 
-    private final DownsampledWriter estimatedPoseWriter = new DownsampledWriter("ESTIMATED_POSE", 50_000_000);
-    private final DownsampledWriter targetPoseWriter = new DownsampledWriter("TARGET_POSE", 50_000_000);
-    private final DownsampledWriter driveCommandWriter = new DownsampledWriter("DRIVE_COMMAND", 50_000_000);
-    private final DownsampledWriter mecanumCommandWriter = new DownsampledWriter("MECANUM_COMMAND", 50_000_000);
+    private double[] xPoints = new double[0], yPoints = new double[0];
+
+    /**
+     * Switched off by the {@link org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog} when loops run long
+     */
+    public boolean drawingPoseHistory = true, recording = true;
+
+    static final FlightLog.Channel
+            ESTIMATED_POSE = FlightLog.channel("ESTIMATED_POSE",
+                    "x", "y", "heading", "x velocity", "y velocity", "heading velocity"),
+            TARGET_POSE = FlightLog.channel("TARGET_POSE",
+                    "x", "y", "heading", "x velocity", "y velocity", "heading velocity",
+                    "x acceleration", "y acceleration", "heading acceleration"),
+            DRIVE_COMMAND = FlightLog.channel("DRIVE_COMMAND",
+                    "forward velocity", "forward acceleration", "lateral velocity", "lateral acceleration",
+                    "angular velocity", "angular acceleration"),
+            MECANUM_COMMAND = FlightLog.channel("MECANUM_COMMAND",
+                    "voltage", "left front power", "left back power", "right back power", "right front power");
 
     public class DriveLocalizer implements Localizer {
         public final Encoder leftFront, leftBack, rightBack, rightFront;
@@ -228,11 +255,11 @@ public class MecanumDrive {
         private Rotation2d lastHeading;
         private boolean initialized;
 
-        public DriveLocalizer() {
-            leftFront = new OverflowEncoder(new RawEncoder(MecanumDrive.this.leftFront.motor));
-            leftBack = new OverflowEncoder(new RawEncoder(MecanumDrive.this.leftBack.motor));
-            rightBack = new OverflowEncoder(new RawEncoder(MecanumDrive.this.rightBack.motor));
-            rightFront = new OverflowEncoder(new RawEncoder(MecanumDrive.this.rightFront.motor));
+        public DriveLocalizer(HardwareMap hardwareMap) {
+            leftFront = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, "left front")));
+            leftBack = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, "left back")));
+            rightBack = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, "right back")));
+            rightFront = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, "right front")));
 
             imu = lazyImu.get();
 
@@ -249,8 +276,13 @@ public class MecanumDrive {
 
             YawPitchRollAngles angles = imu.getRobotYawPitchRollAngles();
 
-            FlightRecorder.write("MECANUM_LOCALIZER_INPUTS", new MecanumLocalizerInputsMessage(
-                    leftFrontPosVel, leftBackPosVel, rightBackPosVel, rightFrontPosVel, angles));
+            if (recording && LOCALIZER_INPUTS.begin()) LOCALIZER_INPUTS
+                    .put(leftFrontPosVel.position).put(leftFrontPosVel.velocity)
+                    .put(leftBackPosVel.position).put(leftBackPosVel.velocity)
+                    .put(rightBackPosVel.position).put(rightBackPosVel.velocity)
+                    .put(rightFrontPosVel.position).put(rightFrontPosVel.velocity)
+                    .put(angles.getYaw(AngleUnit.RADIANS)).put(angles.getPitch(AngleUnit.RADIANS)).put(angles.getRoll(AngleUnit.RADIANS))
+                    .commit();
 
             Rotation2d heading = Rotation2d.exp(angles.getYaw(AngleUnit.RADIANS));
 
@@ -270,25 +302,13 @@ public class MecanumDrive {
                 );
             }
 
-            double headingDelta = heading.minus(lastHeading);
-            Twist2dDual<Time> twist = kinematics.forward(new MecanumKinematics.WheelIncrements<>(
-                    new DualNum<Time>(new double[]{
-                            (leftFrontPosVel.position - lastLeftFrontPos),
-                            leftFrontPosVel.velocity,
-                    }).times(PARAMS.inPerTick),
-                    new DualNum<Time>(new double[]{
-                            (leftBackPosVel.position - lastLeftBackPos),
-                            leftBackPosVel.velocity,
-                    }).times(PARAMS.inPerTick),
-                    new DualNum<Time>(new double[]{
-                            (rightBackPosVel.position - lastRightBackPos),
-                            rightBackPosVel.velocity,
-                    }).times(PARAMS.inPerTick),
-                    new DualNum<Time>(new double[]{
-                            (rightFrontPosVel.position - lastRightFrontPos),
-                            rightFrontPosVel.velocity,
-                    }).times(PARAMS.inPerTick)
-            ));
+            Twist2dDual<Time> twist = twist(kinematics, PARAMS.inPerTick,
+                    leftFrontPosVel.position - lastLeftFrontPos, leftFrontPosVel.velocity,
+                    leftBackPosVel.position - lastLeftBackPos, leftBackPosVel.velocity,
+                    rightBackPosVel.position - lastRightBackPos, rightBackPosVel.velocity,
+                    rightFrontPosVel.position - lastRightFrontPos, rightFrontPosVel.velocity,
+                    heading.minus(lastHeading)
+            );
 
             lastLeftFrontPos = leftFrontPosVel.position;
             lastLeftBackPos = leftBackPosVel.position;
@@ -297,15 +317,36 @@ public class MecanumDrive {
 
             lastHeading = heading;
 
-            return new Twist2dDual<>(
-                    twist.line,
-                    DualNum.cons(headingDelta, twist.angle.drop(1))
-            );
+            return twist;
         }
     }
 
+    /**
+     * The odometry math of {@link DriveLocalizer#update()}, without any hardware reads
+     */
+    public static Twist2dDual<Time> twist(
+            MecanumKinematics kinematics, double inPerTick,
+            double leftFrontPosDelta, double leftFrontVel,
+            double leftBackPosDelta, double leftBackVel,
+            double rightBackPosDelta, double rightBackVel,
+            double rightFrontPosDelta, double rightFrontVel,
+            double headingDelta
+    ) {
+        Twist2dDual<Time> twist = kinematics.forward(new MecanumKinematics.WheelIncrements<>(
+                new DualNum<Time>(new double[]{leftFrontPosDelta, leftFrontVel}).times(inPerTick),
+                new DualNum<Time>(new double[]{leftBackPosDelta, leftBackVel}).times(inPerTick),
+                new DualNum<Time>(new double[]{rightBackPosDelta, rightBackVel}).times(inPerTick),
+                new DualNum<Time>(new double[]{rightFrontPosDelta, rightFrontVel}).times(inPerTick)
+        ));
+
+        return new Twist2dDual<>(
+                twist.line,
+                DualNum.cons(headingDelta, twist.angle.drop(1))
+        );
+    }
+
     public MecanumDrive(HardwareMap hardwareMap, Pose2d pose) {
-        this.pose = pose;
+        this(new HardwareMapDevices(hardwareMap), pose);
 
         LynxFirmware.throwIfModulesAreOutdated(hardwareMap);
 
@@ -313,32 +354,48 @@ public class MecanumDrive {
             module.setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
         }
 
-        // TODO: make sure your config has motors with these names (or change them)
+        // TODO: make sure your config has an IMU with this name (can be BNO or BHI)
         //   see https://ftc-docs.firstinspires.org/en/latest/hardware_and_software_configuration/configuring/index.html
-        leftFront = new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "left front"));
-        leftBack = new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "left back"));
-        rightBack = new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "right back"));
-        rightFront = new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "right front"));
+        lazyImu = new LazyImu(hardwareMap, "imu", new RevHubOrientationOnRobot(
+                PARAMS.logoFacingDirection, PARAMS.usbFacingDirection));
 
-        leftFront.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        leftBack.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        rightBack.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
-        rightFront.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+        localizer = new DriveLocalizer(hardwareMap);
 
-        // TODO: reverse motor directions if needed
-        leftFront.motor.setDirection(DcMotorSimple.Direction.REVERSE);
-        leftBack.motor.setDirection(DcMotorSimple.Direction.REVERSE);
+        FlightRecorder.write("MECANUM_PARAMS", PARAMS);
+    }
 
-        // TODO: make sure your config has an IMU with this name (can be BNO or BHI)
+    /**
+     * Drive motors and voltage sensor only, for subclasses that bring their own localization
+     */
+    public MecanumDrive(DeviceMap devices, Pose2d pose) {
+        this.pose = pose;
+
+        // TODO: make sure your config has motors with these names (or change them)
         //   see https://ftc-docs.firstinspires.org/en/latest/hardware_and_software_configuration/configuring/index.html
-        lazyImu = new LazyImu(hardwareMap, "imu", new RevHubOrientationOnRobot(
-                PARAMS.logoFacingDirection, PARAMS.usbFacingDirection));
+        leftFront = new CachedDcMotorEx(devices, "left front");
+        leftBack = new CachedDcMotorEx(devices, "left back");
+        rightBack = new CachedDcMotorEx(devices, "right back");
+        rightFront = new CachedDcMotorEx(devices, "right front");
 
-        voltageSensor = hardwareMap.voltageSensor.iterator().next();
+        leftFront.motor.setBraking(true);
+        leftBack.motor.setBraking(true);
+        rightBack.motor.setBraking(true);
+        rightFront.motor.setBraking(true);
 
-        localizer = new DriveLocalizer();
+        // TODO: reverse motor directions if needed
+        leftFront.motor.setInverted(true);
+        leftBack.motor.setInverted(true);
 
-        FlightRecorder.write("MECANUM_PARAMS", PARAMS);
+        voltageSensor = devices.batteryVoltage();
+
+        clock = devices.clock();
+    }
+
+    /**
+     * @return Seconds on this drivetrain's {@link #clock}, in place of {@link com.acmerobotics.roadrunner.Actions#now}
+     */
+    private double now() {
+        return clock.nanoTime() * 1e-9;
     }
 
     public void setDrivePowers(PoseVelocity2d powers) {
@@ -357,23 +414,50 @@ public class MecanumDrive {
     }
 
     public final class FollowTrajectoryAction implements Action {
+        /**
+         * Null when following a {@link SampledTrajectory} from {@link TrajectoryCache}
+         */
         public final TimeTrajectory timeTrajectory;
+        /**
+         * Null unless {@link #SAMPLE_TRAJECTORIES} or made from one
+         */
+        private final SampledTrajectory sampledTrajectory;
+        private final double duration;
         private double beginTs = -1;
 
         private final double[] xPoints, yPoints;
+        private final MecanumFollower follower = new MecanumFollower(PARAMS, kinematics);
+
+        public FollowTrajectoryAction(SampledTrajectory t) {
+            timeTrajectory = null;
+            sampledTrajectory = t;
+            duration = t.duration;
+            xPoints = t.x;
+            yPoints = t.y;
+        }
 
         public FollowTrajectoryAction(TimeTrajectory t) {
             timeTrajectory = t;
+            duration = t.duration;
 
-            List<Double> disps = com.acmerobotics.roadrunner.Math.range(
-                    0, t.path.length(),
-                    Math.max(2, (int) Math.ceil(t.path.length() / 2)));
-            xPoints = new double[disps.size()];
-            yPoints = new double[disps.size()];
-            for (int i = 0; i < disps.size(); i++) {
-                Pose2d p = t.path.get(disps.get(i), 1).value();
-                xPoints[i] = p.position.x;
-                yPoints[i] = p.position.y;
+            if (SAMPLE_TRAJECTORIES) {
+                // the preview draws the samples
+                sampledTrajectory = new SampledTrajectory(t);
+                xPoints = sampledTrajectory.x;
+                yPoints = sampledTrajectory.y;
+            } else {
+                sampledTrajectory = null;
+
+                List<Double> disps = com.acmerobotics.roadrunner.Math.range(
+                        0, t.path.length(),
+                        Math.max(2, (int) Math.ceil(t.path.length() / 2)));
+                xPoints = new double[disps.size()];
+                yPoints = new double[disps.size()];
+                for (int i = 0; i < disps.size(); i++) {
+                    Pose2d p = t.path.get(disps.get(i), 1).value();
+                    xPoints[i] = p.position.x;
+                    yPoints[i] = p.position.y;
+                }
             }
         }
 
@@ -381,13 +465,13 @@ public class MecanumDrive {
         public boolean run(@NonNull TelemetryPacket p) {
             double t;
             if (beginTs < 0) {
-                beginTs = Actions.now();
+                beginTs = now();
                 t = 0;
             } else {
-                t = Actions.now() - beginTs;
+                t = now() - beginTs;
             }
 
-            if (t >= timeTrajectory.duration) {
+            if (t >= duration) {
                 leftFront.setPower(0);
                 leftBack.setPower(0);
                 rightBack.setPower(0);
@@ -396,51 +480,35 @@ public class MecanumDrive {
                 return false;
             }
 
-            Pose2dDual<Time> txWorldTarget = timeTrajectory.get(t);
-            targetPoseWriter.write(new PoseMessage(txWorldTarget.value()));
+            if (sampledTrajectory != null) follower.setTarget(sampledTrajectory, t);
+            else follower.setTarget(timeTrajectory.get(t));
+            if (recording) logTarget(follower);
 
             PoseVelocity2d robotVelRobot = updatePoseEstimate();
 
-            PoseVelocity2dDual<Time> command = new HolonomicController(
-                    PARAMS.axialGain, PARAMS.lateralGain, PARAMS.headingGain,
-                    PARAMS.axialVelGain, PARAMS.lateralVelGain, PARAMS.headingVelGain
-            )
-                    .compute(txWorldTarget, pose, robotVelRobot);
-            driveCommandWriter.write(new DriveCommandMessage(command));
-
-            MecanumKinematics.WheelVelocities<Time> wheelVels = kinematics.inverse(command);
             double voltage = voltageSensor.getVoltage();
+            follower.update(pose, robotVelRobot, voltage);
+            if (recording) logCommand(follower, voltage);
 
-            final MotorFeedforward feedforward = new MotorFeedforward(PARAMS.kS,
-                    PARAMS.kV / PARAMS.inPerTick, PARAMS.kA / PARAMS.inPerTick);
-            double leftFrontPower = feedforward.compute(wheelVels.leftFront) / voltage;
-            double leftBackPower = feedforward.compute(wheelVels.leftBack) / voltage;
-            double rightBackPower = feedforward.compute(wheelVels.rightBack) / voltage;
-            double rightFrontPower = feedforward.compute(wheelVels.rightFront) / voltage;
-            mecanumCommandWriter.write(new MecanumCommandMessage(
-                    voltage, leftFrontPower, leftBackPower, rightBackPower, rightFrontPower
-            ));
-
-            leftFront.setPower(leftFrontPower);
-            leftBack.setPower(leftBackPower);
-            rightBack.setPower(rightBackPower);
-            rightFront.setPower(rightFrontPower);
+            leftFront.setPower(follower.powers[MecanumFollower.LEFT_FRONT]);
+            leftBack.setPower(follower.powers[MecanumFollower.LEFT_BACK]);
+            rightBack.setPower(follower.powers[MecanumFollower.RIGHT_BACK]);
+            rightFront.setPower(follower.powers[MecanumFollower.RIGHT_FRONT]);
 
             p.put("x", pose.position.x);
             p.put("y", pose.position.y);
             p.put("heading (deg)", toDegrees(pose.heading.toDouble()));
 
-            Pose2d error = txWorldTarget.value().minusExp(pose);
-            p.put("xError", error.position.x);
-            p.put("yError", error.position.y);
-            p.put("headingError (deg)", toDegrees(error.heading.toDouble()));
+            p.put("xError", follower.errorX);
+            p.put("yError", follower.errorY);
+            p.put("headingError (deg)", toDegrees(follower.errorHeading));
 
             // only draw when active; only one drive action should be active at a time
             Canvas c = p.fieldOverlay();
-            drawPoseHistory(c);
+            if (drawingPoseHistory) drawPoseHistory(c);
 
             c.setStroke("#4CAF50");
-            Drawing.drawRobot(c, txWorldTarget.value());
+            Drawing.drawRobot(c, follower.targetX[0], follower.targetY[0], follower.targetHeading);
 
             c.setStroke("#3F51B5");
             Drawing.drawRobot(c, pose);
@@ -462,21 +530,28 @@ public class MecanumDrive {
 
     public final class TurnAction implements Action {
         private final TimeTurn turn;
+        /**
+         * Null unless {@link #SAMPLE_TRAJECTORIES}
+         */
+        private final SampledTrajectory sampledTurn;
 
         private double beginTs = -1;
 
+        private final MecanumFollower follower = new MecanumFollower(PARAMS, kinematics);
+
         public TurnAction(TimeTurn turn) {
             this.turn = turn;
+            sampledTurn = SAMPLE_TRAJECTORIES ? new SampledTrajectory(turn) : null;
         }
 
         @Override
         public boolean run(@NonNull TelemetryPacket p) {
             double t;
             if (beginTs < 0) {
-                beginTs = Actions.now();
+                beginTs = now();
                 t = 0;
             } else {
-                t = Actions.now() - beginTs;
+                t = now() - beginTs;
             }
 
             if (t >= turn.duration) {
@@ -488,40 +563,26 @@ public class MecanumDrive {
                 return false;
             }
 
-            Pose2dDual<Time> txWorldTarget = turn.get(t);
-            targetPoseWriter.write(new PoseMessage(txWorldTarget.value()));
+            if (sampledTurn != null) follower.setTarget(sampledTurn, t);
+            else follower.setTarget(turn.get(t));
+            if (recording) logTarget(follower);
 
             PoseVelocity2d robotVelRobot = updatePoseEstimate();
 
-            PoseVelocity2dDual<Time> command = new HolonomicController(
-                    PARAMS.axialGain, PARAMS.lateralGain, PARAMS.headingGain,
-                    PARAMS.axialVelGain, PARAMS.lateralVelGain, PARAMS.headingVelGain
-            )
-                    .compute(txWorldTarget, pose, robotVelRobot);
-            driveCommandWriter.write(new DriveCommandMessage(command));
-
-            MecanumKinematics.WheelVelocities<Time> wheelVels = kinematics.inverse(command);
             double voltage = voltageSensor.getVoltage();
-            final MotorFeedforward feedforward = new MotorFeedforward(PARAMS.kS,
-                    PARAMS.kV / PARAMS.inPerTick, PARAMS.kA / PARAMS.inPerTick);
-            double leftFrontPower = feedforward.compute(wheelVels.leftFront) / voltage;
-            double leftBackPower = feedforward.compute(wheelVels.leftBack) / voltage;
-            double rightBackPower = feedforward.compute(wheelVels.rightBack) / voltage;
-            double rightFrontPower = feedforward.compute(wheelVels.rightFront) / voltage;
-            mecanumCommandWriter.write(new MecanumCommandMessage(
-                    voltage, leftFrontPower, leftBackPower, rightBackPower, rightFrontPower
-            ));
+            follower.update(pose, robotVelRobot, voltage);
+            if (recording) logCommand(follower, voltage);
 
-            leftFront.setPower(feedforward.compute(wheelVels.leftFront) / voltage);
-            leftBack.setPower(feedforward.compute(wheelVels.leftBack) / voltage);
-            rightBack.setPower(feedforward.compute(wheelVels.rightBack) / voltage);
-            rightFront.setPower(feedforward.compute(wheelVels.rightFront) / voltage);
+            leftFront.setPower(follower.powers[MecanumFollower.LEFT_FRONT]);
+            leftBack.setPower(follower.powers[MecanumFollower.LEFT_BACK]);
+            rightBack.setPower(follower.powers[MecanumFollower.RIGHT_BACK]);
+            rightFront.setPower(follower.powers[MecanumFollower.RIGHT_FRONT]);
 
             Canvas c = p.fieldOverlay();
-            drawPoseHistory(c);
+            if (drawingPoseHistory) drawPoseHistory(c);
 
             c.setStroke("#4CAF50");
-            Drawing.drawRobot(c, txWorldTarget.value());
+            Drawing.drawRobot(c, follower.targetX[0], follower.targetY[0], follower.targetHeading);
 
             c.setStroke("#3F51B5");
             Drawing.drawRobot(c, pose);
@@ -540,29 +601,55 @@ public class MecanumDrive {
     }
 
     public PoseVelocity2d updatePoseEstimate() {
+        localizer.setRecording(recording);
         Twist2dDual<Time> twist = localizer.update();
         pose = pose.plus(twist.value());
 
-        poseHistory.add(pose);
-        while (poseHistory.size() > 100) {
-            poseHistory.removeFirst();
-        }
+        PoseVelocity2d velocity = twist.velocity().value();
+        poseHistory.add(clock.nanoTime(), pose, velocity);
+        if (recording) logEstimate(velocity);
+
+        return velocity;
+    }
 
-        estimatedPoseWriter.write(new PoseMessage(pose));
+    void logEstimate(PoseVelocity2d velocity) {
+        if (ESTIMATED_POSE.begin()) ESTIMATED_POSE
+                .put(pose.position.x).put(pose.position.y).put(pose.heading.toDouble())
+                .put(velocity.linearVel.x).put(velocity.linearVel.y).put(velocity.angVel)
+                .commit();
+    }
 
-        return twist.velocity().value();
+    private static void logTarget(MecanumFollower follower) {
+        if (TARGET_POSE.begin()) TARGET_POSE
+                .put(follower.targetX[0]).put(follower.targetY[0]).put(follower.targetHeading)
+                .put(follower.targetX[1]).put(follower.targetY[1]).put(follower.targetHeadingVel)
+                .put(follower.targetX[2]).put(follower.targetY[2]).put(follower.targetHeadingAccel)
+                .commit();
     }
 
-    private void drawPoseHistory(Canvas c) {
-        double[] xPoints = new double[poseHistory.size()];
-        double[] yPoints = new double[poseHistory.size()];
+    private static void logCommand(MecanumFollower follower, double voltage) {
+        if (DRIVE_COMMAND.begin()) DRIVE_COMMAND
+                .put(follower.velocity[MecanumFollower.FORWARD]).put(follower.acceleration[MecanumFollower.FORWARD])
+                .put(follower.velocity[MecanumFollower.LATERAL]).put(follower.acceleration[MecanumFollower.LATERAL])
+                .put(follower.velocity[MecanumFollower.ANGULAR]).put(follower.acceleration[MecanumFollower.ANGULAR])
+                .commit();
+        if (MECANUM_COMMAND.begin()) MECANUM_COMMAND
+                .put(voltage)
+                .put(follower.powers[MecanumFollower.LEFT_FRONT]).put(follower.powers[MecanumFollower.LEFT_BACK])
+                .put(follower.powers[MecanumFollower.RIGHT_BACK]).put(follower.powers[MecanumFollower.RIGHT_FRONT])
+                .commit();
+    }
 
-        int i = 0;
-        for (Pose2d t : poseHistory) {
-            xPoints[i] = t.position.x;
-            yPoints[i] = t.position.y;
+    private void drawPoseHistory(Canvas c) {
+        // only reallocated until the history fills up
+        if (xPoints.length != poseHistory.size()) {
+            xPoints = new double[poseHistory.size()];
+            yPoints = new double[poseHistory.size()];
+        }
 
-            i++;
+        for (int i = 0; i < xPoints.length; i++) {
+            xPoints[i] = poseHistory.getX(i);
+            yPoints[i] = poseHistory.getY(i);
         }
 
         c.setStrokeWidth(1);
@@ -571,9 +658,20 @@ public class MecanumDrive {
     }
 
     public TrajectoryActionBuilder actionBuilder(Pose2d beginPose) {
+        return actionBuilder(beginPose, TurnAction::new, FollowTrajectoryAction::new);
+    }
+
+    /**
+     * {@link #actionBuilder} with trajectories loaded from {@link TrajectoryCache} when they've been built before
+     */
+    public CachedActionBuilder cachedActionBuilder(Pose2d beginPose) {
+        return new CachedActionBuilder(this, beginPose);
+    }
+
+    TrajectoryActionBuilder actionBuilder(Pose2d beginPose, TurnActionFactory turnFactory, TrajectoryActionFactory trajectoryFactory) {
         return new TrajectoryActionBuilder(
-                TurnAction::new,
-                FollowTrajectoryAction::new,
+                turnFactory,
+                trajectoryFactory,
                 new TrajectoryBuilderParams(
                         1e-6,
                         new ProfileParams(
@@ -0,0 +1,170 @@
+package org.firstinspires.ftc.teamcode.roadrunner;
+
+import com.acmerobotics.roadrunner.DualNum;
+import com.acmerobotics.roadrunner.HolonomicController;
+import com.acmerobotics.roadrunner.MecanumKinematics;
+import com.acmerobotics.roadrunner.MotorFeedforward;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.Pose2dDual;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.Time;
+
+/**
+ * {@link HolonomicController}, {@link MecanumKinematics#inverse} and {@link MotorFeedforward} for
+ * {@link MecanumDrive}'s actions, worked out on primitives <p>
+ * Gains are read once, when the follower is made, and every intermediate lives in a field, so following a
+ * trajectory doesn't allocate. The outputs match Road Runner's to rounding error, which
+ * {@code FollowerBenchmark} checks before it times either
+ */
+public final class MecanumFollower {
+
+    /**
+     * Indices into {@link #velocity} and {@link #acceleration}
+     */
+    public static final int FORWARD = 0, LATERAL = 1, ANGULAR = 2;
+
+    /**
+     * Indices into {@link #powers}
+     */
+    public static final int LEFT_FRONT = 0, LEFT_BACK = 1, RIGHT_BACK = 2, RIGHT_FRONT = 3;
+
+    private final double
+            axialGain, lateralGain, headingGain,
+            axialVelGain, lateralVelGain, headingVelGain,
+            trackWidth, lateralMultiplier;
+
+    private final MotorFeedforward feedforward;
+
+    /**
+     * Target position, velocity and acceleration, field frame
+     */
+    public final double[] targetX = new double[3], targetY = new double[3];
+    public double targetHeading, targetHeadingVel, targetHeadingAccel;
+    private double targetCos = 1, targetSin = 0;
+    private final double[] sample = new double[SampledTrajectory.FIELDS];
+
+    /**
+     * Target pose relative to the robot, from the last {@link #update}
+     */
+    public double errorX, errorY, errorHeading;
+
+    /**
+     * Robot-frame command from the last {@link #update}
+     */
+    public final double[] velocity = new double[3], acceleration = new double[3];
+
+    /**
+     * Motor powers from the last {@link #update}
+     */
+    public final double[] powers = new double[4];
+
+    public MecanumFollower(MecanumDrive.Params params, MecanumKinematics kinematics) {
+        axialGain = params.axialGain;
+        lateralGain = params.lateralGain;
+        headingGain = params.headingGain;
+        axialVelGain = params.axialVelGain;
+        lateralVelGain = params.lateralVelGain;
+        headingVelGain = params.headingVelGain;
+
+        trackWidth = kinematics.trackWidth;
+        lateralMultiplier = kinematics.lateralMultiplier;
+
+        feedforward = new MotorFeedforward(params.kS, params.kV / params.inPerTick, params.kA / params.inPerTick);
+    }
+
+    /**
+     * @param target A pose from a {@link com.acmerobotics.roadrunner.TimeTrajectory} or
+     *               {@link com.acmerobotics.roadrunner.TimeTurn}, with velocity and acceleration
+     */
+    public void setTarget(Pose2dDual<Time> target) {
+        for (int i = 0; i < 3; i++) {
+            targetX[i] = target.position.x.get(i);
+            targetY[i] = target.position.y.get(i);
+        }
+
+        DualNum<Time> real = target.heading.real, imag = target.heading.imag;
+        targetCos = real.get(0);
+        targetSin = imag.get(0);
+        targetHeading = Math.atan2(targetSin, targetCos);
+        // same as Rotation2dDual.velocity()
+        targetHeadingVel = targetCos * imag.get(1) - targetSin * real.get(1);
+        targetHeadingAccel = targetCos * imag.get(2) - targetSin * real.get(2);
+    }
+
+    /**
+     * @param x Target x position, velocity and acceleration, field frame
+     * @param y Target y position, velocity and acceleration, field frame
+     */
+    public void setTarget(double[] x, double[] y, double heading, double headingVel, double headingAccel) {
+        System.arraycopy(x, 0, targetX, 0, 3);
+        System.arraycopy(y, 0, targetY, 0, 3);
+        targetHeading = heading;
+        targetCos = Math.cos(heading);
+        targetSin = Math.sin(heading);
+        targetHeadingVel = headingVel;
+        targetHeadingAccel = headingAccel;
+    }
+
+    /**
+     * @param t Seconds into {@code trajectory}
+     */
+    public void setTarget(SampledTrajectory trajectory, double t) {
+        trajectory.get(t, sample);
+        targetX[0] = sample[SampledTrajectory.X];
+        targetX[1] = sample[SampledTrajectory.X_VELOCITY];
+        targetX[2] = sample[SampledTrajectory.X_ACCELERATION];
+        targetY[0] = sample[SampledTrajectory.Y];
+        targetY[1] = sample[SampledTrajectory.Y_VELOCITY];
+        targetY[2] = sample[SampledTrajectory.Y_ACCELERATION];
+        targetHeading = sample[SampledTrajectory.HEADING];
+        targetCos = Math.cos(targetHeading);
+        targetSin = Math.sin(targetHeading);
+        targetHeadingVel = sample[SampledTrajectory.HEADING_VELOCITY];
+        targetHeadingAccel = sample[SampledTrajectory.HEADING_ACCELERATION];
+    }
+
+    /**
+     * Computes the command and motor powers that follow the target from {@code pose}
+     *
+     * @param robotVel Robot-frame velocity
+     */
+    public void update(Pose2d pose, PoseVelocity2d robotVel, double voltage) {
+        double c = targetCos, s = targetSin, w = targetHeadingVel;
+
+        // target velocity and acceleration rotated into the target's frame, by its current heading held constant
+        // like HolonomicController does, so there are no rotating-frame terms
+        double targetVelX = c * targetX[1] + s * targetY[1];
+        double targetVelY = -s * targetX[1] + c * targetY[1];
+        double targetAccelX = c * targetX[2] + s * targetY[2];
+        double targetAccelY = -s * targetX[2] + c * targetY[2];
+
+        // target pose in the robot's frame (Pose2d.minusExp)
+        double robotCos = pose.heading.real, robotSin = pose.heading.imag;
+        double dx = targetX[0] - pose.position.x, dy = targetY[0] - pose.position.y;
+        errorX = robotCos * dx + robotSin * dy;
+        errorY = -robotSin * dx + robotCos * dy;
+        errorHeading = Math.atan2(robotCos * s - robotSin * c, robotCos * c + robotSin * s);
+
+        velocity[FORWARD] = targetVelX + axialGain * errorX + axialVelGain * (targetVelX - robotVel.linearVel.x);
+        velocity[LATERAL] = targetVelY + lateralGain * errorY + lateralVelGain * (targetVelY - robotVel.linearVel.y);
+        velocity[ANGULAR] = w + headingGain * errorHeading + headingVelGain * (w - robotVel.angVel);
+        acceleration[FORWARD] = targetAccelX;
+        acceleration[LATERAL] = targetAccelY;
+        acceleration[ANGULAR] = targetHeadingAccel;
+
+        powers[LEFT_FRONT] = wheelPower(-1, -1, voltage);
+        powers[LEFT_BACK] = wheelPower(1, -1, voltage);
+        powers[RIGHT_BACK] = wheelPower(-1, 1, voltage);
+        powers[RIGHT_FRONT] = wheelPower(1, 1, voltage);
+    }
+
+    /**
+     * @param lateral Sign of the lateral term in this wheel's {@link MecanumKinematics#inverse} velocity
+     * @param angular Sign of the angular term
+     */
+    private double wheelPower(int lateral, int angular, double voltage) {
+        double wheelVel = velocity[FORWARD] + lateral * lateralMultiplier * velocity[LATERAL] + angular * trackWidth * velocity[ANGULAR];
+        double wheelAccel = acceleration[FORWARD] + lateral * lateralMultiplier * acceleration[LATERAL] + angular * trackWidth * acceleration[ANGULAR];
+        return feedforward.compute(wheelVel, wheelAccel) / voltage;
+    }
+}
@@ -4,9 +4,10 @@ package org.firstinspires.ftc.teamcode.roadrunner;
 
 import static com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver.EncoderDirection.FORWARD;
 import static com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver.EncoderDirection.REVERSED;
-import static com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver.readData.ONLY_UPDATE_HEADING;
 import static com.qualcomm.hardware.rev.RevHubOrientationOnRobot.zyxOrientation;
 
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.POSE_ESTIMATE;
+
 import static java.lang.Math.PI;
 import static java.lang.Math.atan2;
 
@@ -15,14 +16,17 @@ import com.acmerobotics.roadrunner.Pose2d;
 import com.acmerobotics.roadrunner.PoseVelocity2d;
 import com.acmerobotics.roadrunner.ftc.FlightRecorder;
 import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver;
-import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriverRR;
 import com.acmerobotics.roadrunner.ftc.LazyImu;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
-import org.firstinspires.ftc.teamcode.roadrunner.message.PoseMessage;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
+import org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.PinpointDevice;
 
 /**
  * Experimental extension of MecanumDrive that uses the Gobilda Pinpoint sensor for localization.
@@ -82,20 +86,50 @@ public class PinpointDrive extends MecanumDrive {
     }
 
     public static Params PINPOINT_CONFIG = new Params();
-    public GoBildaPinpointDriverRR pinpoint;
+
+    private static final FlightLog.Channel
+            PINPOINT_RAW_POSE = FlightLog.channel("PINPOINT_RAW_POSE", "x", "y", "heading"),
+            PINPOINT_STATUS = FlightLog.channel("PINPOINT_STATUS", "status");
+    public final PinpointDevice pinpoint;
     private Pose2d lastPinpointPose = pose;
     
     public boolean trackHeadingOnly = false;
 
+    public final LoopProfiler profiler;
+
     public PinpointDrive(HardwareMap hardwareMap, Pose2d pose) {
+        this(hardwareMap, pose, new LoopProfiler());
+    }
+
+    /**
+     * @param profiler Times {@link #updatePoseEstimate()}, usually the {@link org.firstinspires.ftc.teamcode.subsystem.Robot}'s
+     */
+    public PinpointDrive(HardwareMap hardwareMap, Pose2d pose, LoopProfiler profiler) {
         super(hardwareMap, pose);
-        FlightRecorder.write("PINPOINT_PARAMS", PINPOINT_CONFIG);
-        pinpoint = hardwareMap.get(GoBildaPinpointDriverRR.class, PINPOINT_CONFIG.pinpointDeviceName);
+        this.profiler = profiler;
+        pinpoint = new HardwareMapDevices(hardwareMap).pinpoint(PINPOINT_CONFIG.pinpointDeviceName);
 
         if (PINPOINT_CONFIG.usePinpointIMUForTuning) {
             lazyImu = new LazyImu(hardwareMap, PINPOINT_CONFIG.pinpointDeviceName, new RevHubOrientationOnRobot(zyxOrientation(0, 0, 0)));
         }
 
+        initPinpoint(pose);
+    }
+
+    public PinpointDrive(DeviceMap devices, Pose2d pose) {
+        this(devices, pose, new LoopProfiler(devices.clock()));
+    }
+
+    public PinpointDrive(DeviceMap devices, Pose2d pose, LoopProfiler profiler) {
+        super(devices, pose);
+        this.profiler = profiler;
+        pinpoint = devices.pinpoint(PINPOINT_CONFIG.pinpointDeviceName);
+        initPinpoint(pose);
+    }
+
+    private void initPinpoint(Pose2d pose) {
+        FlightRecorder.write("PINPOINT_PARAMS", PINPOINT_CONFIG);
+
         pinpoint.setOffsets(PINPOINT_CONFIG.xOffset, PINPOINT_CONFIG.yOffset);
 
         pinpoint.setEncoderResolution(PINPOINT_CONFIG.encoderResolution);
@@ -112,17 +146,13 @@ public class PinpointDrive extends MecanumDrive {
          */
         //pinpoint.recalibrateIMU();
         pinpoint.resetPosAndIMU();
-        // wait for pinpoint to finish calibrating
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
 
         pinpoint.setPositionRR(pose);
     }
     @Override
     public PoseVelocity2d updatePoseEstimate() {
+        long start = profiler.start();
+
         if (lastPinpointPose != pose) {
             // RR localizer note:
             // Something else is modifying our pose (likely for relocalization),
@@ -134,25 +164,28 @@ public class PinpointDrive extends MecanumDrive {
             pinpoint.setPositionRR(pose);
         }
 
-        if (trackHeadingOnly)
-            pinpoint.update(ONLY_UPDATE_HEADING);
-        else
-            pinpoint.update();
+        pinpoint.update(trackHeadingOnly);
 
         pose = pinpoint.getPositionRR();
         lastPinpointPose = pose;
 
-        // RR standard
-        poseHistory.add(pose);
-        while (poseHistory.size() > 100) {
-            poseHistory.removeFirst();
+        if (recording) {
+            if (PINPOINT_RAW_POSE.begin()) {
+                Pose2D rawPose = pinpoint.getPosition();
+                PINPOINT_RAW_POSE
+                        .put(rawPose.getX(DistanceUnit.INCH))
+                        .put(rawPose.getY(DistanceUnit.INCH))
+                        .put(rawPose.getHeading(AngleUnit.RADIANS))
+                        .commit();
+            }
+            PINPOINT_STATUS.write(pinpoint.getDeviceStatus().ordinal());
         }
 
-        FlightRecorder.write("ESTIMATED_POSE", new PoseMessage(pose));
-        FlightRecorder.write("PINPOINT_RAW_POSE",new FTCPoseMessage(pinpoint.getPosition()));
-        FlightRecorder.write("PINPOINT_STATUS",pinpoint.getDeviceStatus());
-
-        return pinpoint.getVelocityRR();
+        PoseVelocity2d velocity = pinpoint.getVelocityRR();
+        poseHistory.add(clock.nanoTime(), pose, velocity);
+        if (recording) logEstimate(velocity);
+        profiler.stop(POSE_ESTIMATE, start);
+        return velocity;
     }
 
 
@@ -0,0 +1,162 @@
+package org.firstinspires.ftc.teamcode.roadrunner;
+
+import com.acmerobotics.roadrunner.DualNum;
+import com.acmerobotics.roadrunner.Pose2dDual;
+import com.acmerobotics.roadrunner.Time;
+import com.acmerobotics.roadrunner.TimeTrajectory;
+import com.acmerobotics.roadrunner.TimeTurn;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.DoubleFunction;
+
+/**
+ * A {@link TimeTrajectory} or {@link TimeTurn}'s target pose, velocity and acceleration, sampled every {@link #DT}
+ * seconds into flat arrays and read back by linear interpolation <p>
+ * Looking up a target is then an index and a few multiply-adds, with no spline evaluation or allocation, at the cost
+ * of sampling once up front. Heading is unwrapped while sampling, so it interpolates without wrapping. Unlike a
+ * {@link TimeTrajectory}, samples can be written to and read from storage, which {@link TrajectoryCache} does
+ */
+public final class SampledTrajectory {
+
+    public static final double DT = 0.01;
+
+    /**
+     * Indices into the array {@link #get} fills
+     */
+    public static final int
+            X = 0, X_VELOCITY = 1, X_ACCELERATION = 2,
+            Y = 3, Y_VELOCITY = 4, Y_ACCELERATION = 5,
+            HEADING = 6, HEADING_VELOCITY = 7, HEADING_ACCELERATION = 8,
+            FIELDS = 9;
+
+    public final double duration;
+
+    /**
+     * Field frame; don't modify
+     */
+    final double[]
+            x, xVelocity, xAcceleration,
+            y, yVelocity, yAcceleration,
+            heading, headingVelocity, headingAcceleration;
+
+    private SampledTrajectory(double duration, int size) {
+        this.duration = duration;
+        x = new double[size];
+        xVelocity = new double[size];
+        xAcceleration = new double[size];
+        y = new double[size];
+        yVelocity = new double[size];
+        yAcceleration = new double[size];
+        heading = new double[size];
+        headingVelocity = new double[size];
+        headingAcceleration = new double[size];
+    }
+
+    public SampledTrajectory(TimeTrajectory trajectory) {
+        this(trajectory.duration, trajectory::get);
+    }
+
+    public SampledTrajectory(TimeTurn turn) {
+        this(turn.duration, turn::get);
+    }
+
+    private SampledTrajectory(double duration, DoubleFunction<Pose2dDual<Time>> targets) {
+        this(duration, sizeFor(duration));
+
+        for (int i = 0; i < x.length; i++) {
+            Pose2dDual<Time> target = targets.apply(time(i));
+
+            x[i] = target.position.x.get(0);
+            xVelocity[i] = target.position.x.get(1);
+            xAcceleration[i] = target.position.x.get(2);
+            y[i] = target.position.y.get(0);
+            yVelocity[i] = target.position.y.get(1);
+            yAcceleration[i] = target.position.y.get(2);
+
+            // same as MecanumFollower.setTarget
+            DualNum<Time> real = target.heading.real, imag = target.heading.imag;
+            double cos = real.get(0), sin = imag.get(0);
+            double angle = Math.atan2(sin, cos);
+            heading[i] = i == 0 ? angle : heading[i - 1] + Math.IEEEremainder(angle - heading[i - 1], 2 * Math.PI);
+            headingVelocity[i] = cos * imag.get(1) - sin * real.get(1);
+            headingAcceleration[i] = cos * imag.get(2) - sin * real.get(2);
+        }
+    }
+
+    private static int sizeFor(double duration) {
+        return Math.max(2, (int) Math.ceil(duration / DT) + 1);
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return Seconds into the trajectory of sample {@code i}; the last sample is at {@link #duration}
+     */
+    private double time(int i) {
+        return Math.min(i * DT, duration);
+    }
+
+    /**
+     * Interpolates the target at {@code t} seconds into the trajectory, clamped to its start and end
+     *
+     * @param target Filled with {@link #FIELDS} values, at {@link #X} through {@link #HEADING_ACCELERATION}
+     */
+    public void get(double t, double[] target) {
+        int a = Math.max(0, Math.min((int) (t / DT), x.length - 2));
+        int b = a + 1;
+        double ta = time(a), tb = time(b);
+        double s = tb > ta ? Math.max(0, Math.min((t - ta) / (tb - ta), 1)) : 0;
+
+        target[X] = x[a] + s * (x[b] - x[a]);
+        target[X_VELOCITY] = xVelocity[a] + s * (xVelocity[b] - xVelocity[a]);
+        target[X_ACCELERATION] = xAcceleration[a] + s * (xAcceleration[b] - xAcceleration[a]);
+        target[Y] = y[a] + s * (y[b] - y[a]);
+        target[Y_VELOCITY] = yVelocity[a] + s * (yVelocity[b] - yVelocity[a]);
+        target[Y_ACCELERATION] = yAcceleration[a] + s * (yAcceleration[b] - yAcceleration[a]);
+        target[HEADING] = heading[a] + s * (heading[b] - heading[a]);
+        target[HEADING_VELOCITY] = headingVelocity[a] + s * (headingVelocity[b] - headingVelocity[a]);
+        target[HEADING_ACCELERATION] = headingAcceleration[a] + s * (headingAcceleration[b] - headingAcceleration[a]);
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeDouble(duration);
+        out.writeInt(x.length);
+        for (int i = 0; i < x.length; i++) {
+            out.writeDouble(x[i]);
+            out.writeDouble(xVelocity[i]);
+            out.writeDouble(xAcceleration[i]);
+            out.writeDouble(y[i]);
+            out.writeDouble(yVelocity[i]);
+            out.writeDouble(yAcceleration[i]);
+            out.writeDouble(heading[i]);
+            out.writeDouble(headingVelocity[i]);
+            out.writeDouble(headingAcceleration[i]);
+        }
+    }
+
+    public static SampledTrajectory read(DataInputStream in) throws IOException {
+        double duration = in.readDouble();
+        int size = in.readInt();
+        if (!(duration >= 0) || size != sizeFor(duration)) {
+            throw new IOException("Corrupt sampled trajectory");
+        }
+
+        SampledTrajectory trajectory = new SampledTrajectory(duration, size);
+        for (int i = 0; i < size; i++) {
+            trajectory.x[i] = in.readDouble();
+            trajectory.xVelocity[i] = in.readDouble();
+            trajectory.xAcceleration[i] = in.readDouble();
+            trajectory.y[i] = in.readDouble();
+            trajectory.yVelocity[i] = in.readDouble();
+            trajectory.yAcceleration[i] = in.readDouble();
+            trajectory.heading[i] = in.readDouble();
+            trajectory.headingVelocity[i] = in.readDouble();
+            trajectory.headingAcceleration[i] = in.readDouble();
+        }
+        return trajectory;
+    }
+}
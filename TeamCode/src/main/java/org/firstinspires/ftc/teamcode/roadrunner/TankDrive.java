@@ -41,7 +41,6 @@ import com.acmerobotics.roadrunner.ftc.PositionVelocityPair;
 import com.acmerobotics.roadrunner.ftc.RawEncoder;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
-import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.VoltageSensor;
@@ -51,6 +50,7 @@ import org.firstinspires.ftc.teamcode.roadrunner.message.PoseMessage;
 import org.firstinspires.ftc.teamcode.roadrunner.message.TankCommandMessage;
 import org.firstinspires.ftc.teamcode.roadrunner.message.TankLocalizerInputsMessage;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedDcMotorEx;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -110,6 +110,13 @@ public final class TankDrive {
     public final AccelConstraint defaultAccelConstraint =
             new ProfileAccelConstraint(PARAMS.minProfileAccel, PARAMS.maxProfileAccel);
 
+    // TODO: make sure your config has motors with these names (or change them)
+    //   add additional motors on each side if you have them
+    //   see https://ftc-docs.firstinspires.org/en/latest/hardware_and_software_configuration/configuring/index.html
+    public static final List<String>
+            LEFT_MOTOR_NAMES = Arrays.asList("left"),
+            RIGHT_MOTOR_NAMES = Arrays.asList("right");
+
     public final List<CachedDcMotorEx> leftMotors, rightMotors;
 
     public final LazyImu lazyImu;
@@ -133,11 +140,11 @@ public final class TankDrive {
         private double lastLeftPos, lastRightPos;
         private boolean initialized;
 
-        public DriveLocalizer() {
+        public DriveLocalizer(HardwareMap hardwareMap) {
             {
                 List<Encoder> leftEncs = new ArrayList<>();
-                for (CachedDcMotorEx m : leftMotors) {
-                    Encoder e = new OverflowEncoder(new RawEncoder(m.motor));
+                for (String name : LEFT_MOTOR_NAMES) {
+                    Encoder e = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, name)));
                     leftEncs.add(e);
                 }
                 this.leftEncs = Collections.unmodifiableList(leftEncs);
@@ -145,8 +152,8 @@ public final class TankDrive {
 
             {
                 List<Encoder> rightEncs = new ArrayList<>();
-                for (CachedDcMotorEx m : rightMotors) {
-                    Encoder e = new OverflowEncoder(new RawEncoder(m.motor));
+                for (String name : RIGHT_MOTOR_NAMES) {
+                    Encoder e = new OverflowEncoder(new RawEncoder(hardwareMap.get(DcMotorEx.class, name)));
                     rightEncs.add(e);
                 }
                 this.rightEncs = Collections.unmodifiableList(rightEncs);
@@ -221,17 +228,19 @@ public final class TankDrive {
             module.setBulkCachingMode(LynxModule.BulkCachingMode.AUTO);
         }
 
-        // TODO: make sure your config has motors with these names (or change them)
-        //   add additional motors on each side if you have them
-        //   see https://ftc-docs.firstinspires.org/en/latest/hardware_and_software_configuration/configuring/index.html
-        leftMotors = Arrays.asList(new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "left")));
-        rightMotors = Arrays.asList(new CachedDcMotorEx(hardwareMap.get(DcMotorEx.class, "right")));
+        HardwareMapDevices devices = new HardwareMapDevices(hardwareMap);
+
+        List<CachedDcMotorEx> leftMotors = new ArrayList<>(), rightMotors = new ArrayList<>();
+        for (String name : LEFT_MOTOR_NAMES) leftMotors.add(new CachedDcMotorEx(devices, name));
+        for (String name : RIGHT_MOTOR_NAMES) rightMotors.add(new CachedDcMotorEx(devices, name));
+        this.leftMotors = Collections.unmodifiableList(leftMotors);
+        this.rightMotors = Collections.unmodifiableList(rightMotors);
 
         for (CachedDcMotorEx m : leftMotors) {
-            m.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+            m.motor.setBraking(true);
         }
         for (CachedDcMotorEx m : rightMotors) {
-            m.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+            m.motor.setBraking(true);
         }
 
         // TODO: reverse motor directions if needed
@@ -244,7 +253,7 @@ public final class TankDrive {
 
         voltageSensor = hardwareMap.voltageSensor.iterator().next();
 
-        localizer = new TankDrive.DriveLocalizer();
+        localizer = new TankDrive.DriveLocalizer(hardwareMap);
 
         FlightRecorder.write("TANK_PARAMS", PARAMS);
     }
@@ -14,7 +14,7 @@ import com.acmerobotics.roadrunner.ftc.RawEncoder;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
-import org.firstinspires.ftc.teamcode.roadrunner.message.ThreeDeadWheelInputsMessage;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
 
 @Config
 public final class ThreeDeadWheelLocalizer implements Localizer {
@@ -26,12 +26,15 @@ public final class ThreeDeadWheelLocalizer implements Localizer {
 
     public static Params PARAMS = new Params();
 
+    private static final FlightLog.Channel INPUTS = FlightLog.channel("THREE_DEAD_WHEEL_INPUTS",
+            "par0 position", "par0 velocity", "par1 position", "par1 velocity", "perp position", "perp velocity");
+
     public final Encoder par0, par1, perp;
 
     public final double inPerTick;
 
     private double lastPar0Pos, lastPar1Pos, lastPerpPos;
-    private boolean initialized;
+    private boolean initialized, recording = true;
 
     public ThreeDeadWheelLocalizer(HardwareMap hardwareMap, double inPerTick) {
         // TODO: make sure your config has **motors** with these names (or change them)
@@ -49,12 +52,21 @@ public final class ThreeDeadWheelLocalizer implements Localizer {
         FlightRecorder.write("THREE_DEAD_WHEEL_PARAMS", PARAMS);
     }
 
+    @Override
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
     public Twist2dDual<Time> update() {
         PositionVelocityPair par0PosVel = par0.getPositionAndVelocity();
         PositionVelocityPair par1PosVel = par1.getPositionAndVelocity();
         PositionVelocityPair perpPosVel = perp.getPositionAndVelocity();
 
-        FlightRecorder.write("THREE_DEAD_WHEEL_INPUTS", new ThreeDeadWheelInputsMessage(par0PosVel, par1PosVel, perpPosVel));
+        if (recording && INPUTS.begin()) INPUTS
+                .put(par0PosVel.position).put(par0PosVel.velocity)
+                .put(par1PosVel.position).put(par1PosVel.velocity)
+                .put(perpPosVel.position).put(perpPosVel.velocity)
+                .commit();
 
         if (!initialized) {
             initialized = true;
@@ -73,27 +85,43 @@ public final class ThreeDeadWheelLocalizer implements Localizer {
         double par1PosDelta = par1PosVel.position - lastPar1Pos;
         double perpPosDelta = perpPosVel.position - lastPerpPos;
 
-        Twist2dDual<Time> twist = new Twist2dDual<>(
+        Twist2dDual<Time> twist = twist(PARAMS, inPerTick,
+                par0PosDelta, par0PosVel.velocity,
+                par1PosDelta, par1PosVel.velocity,
+                perpPosDelta, perpPosVel.velocity
+        );
+
+        lastPar0Pos = par0PosVel.position;
+        lastPar1Pos = par1PosVel.position;
+        lastPerpPos = perpPosVel.position;
+
+        return twist;
+    }
+
+    /**
+     * The odometry math of {@link #update()}, without any hardware reads
+     */
+    public static Twist2dDual<Time> twist(
+            Params params, double inPerTick,
+            double par0PosDelta, double par0Vel,
+            double par1PosDelta, double par1Vel,
+            double perpPosDelta, double perpVel
+    ) {
+        return new Twist2dDual<>(
                 new Vector2dDual<>(
                         new DualNum<Time>(new double[] {
-                                (PARAMS.par0YTicks * par1PosDelta - PARAMS.par1YTicks * par0PosDelta) / (PARAMS.par0YTicks - PARAMS.par1YTicks),
-                                (PARAMS.par0YTicks * par1PosVel.velocity - PARAMS.par1YTicks * par0PosVel.velocity) / (PARAMS.par0YTicks - PARAMS.par1YTicks),
+                                (params.par0YTicks * par1PosDelta - params.par1YTicks * par0PosDelta) / (params.par0YTicks - params.par1YTicks),
+                                (params.par0YTicks * par1Vel - params.par1YTicks * par0Vel) / (params.par0YTicks - params.par1YTicks),
                         }).times(inPerTick),
                         new DualNum<Time>(new double[] {
-                                (PARAMS.perpXTicks / (PARAMS.par0YTicks - PARAMS.par1YTicks) * (par1PosDelta - par0PosDelta) + perpPosDelta),
-                                (PARAMS.perpXTicks / (PARAMS.par0YTicks - PARAMS.par1YTicks) * (par1PosVel.velocity - par0PosVel.velocity) + perpPosVel.velocity),
+                                (params.perpXTicks / (params.par0YTicks - params.par1YTicks) * (par1PosDelta - par0PosDelta) + perpPosDelta),
+                                (params.perpXTicks / (params.par0YTicks - params.par1YTicks) * (par1Vel - par0Vel) + perpVel),
                         }).times(inPerTick)
                 ),
                 new DualNum<>(new double[] {
-                        (par0PosDelta - par1PosDelta) / (PARAMS.par0YTicks - PARAMS.par1YTicks),
-                        (par0PosVel.velocity - par1PosVel.velocity) / (PARAMS.par0YTicks - PARAMS.par1YTicks),
+                        (par0PosDelta - par1PosDelta) / (params.par0YTicks - params.par1YTicks),
+                        (par0Vel - par1Vel) / (params.par0YTicks - params.par1YTicks),
                 })
         );
-
-        lastPar0Pos = par0PosVel.position;
-        lastPar1Pos = par1PosVel.position;
-        lastPerpPos = perpPosVel.position;
-
-        return twist;
     }
 }
@@ -0,0 +1,171 @@
+package org.firstinspires.ftc.teamcode.roadrunner;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Sampled trajectories for {@link CachedActionBuilder}, kept in memory for the life of the app and in
+ * {@link #DIRECTORY} across restarts <p>
+ * Entries are keyed by a hash of everything that shapes the trajectories, so a changed waypoint or constraint
+ * is a new key rather than a stale hit. The least recently written files past {@link #MAX_FILES} are deleted.
+ * Files are:
+ * <pre>
+ * header  int magic, int version, long key, int path count
+ * path    int trajectory count, {@link SampledTrajectory} (x trajectory count)
+ * </pre>
+ * Storage errors are misses, never failures: the trajectories are just generated again. Safe to use from any thread
+ */
+@Config
+public final class TrajectoryCache {
+
+    /**
+     * Whether to read and write {@link #DIRECTORY}; trajectories are shared in memory either way
+     */
+    public static boolean ENABLED = true;
+
+    public static final String DIRECTORY = "/sdcard/FIRST/TrajectoryCache";
+
+    public static final int MAX_FILES = 64;
+
+    private static final int MAGIC = 0x54524A43; // "TRJC"
+    private static final int VERSION = 1;
+
+    /**
+     * Paths loaded, generated or being generated this app session, so each key is only read or generated once
+     * however many threads ask for it
+     */
+    private static final Map<Long, FutureTask<List<List<SampledTrajectory>>>> entries = new ConcurrentHashMap<>();
+
+    private TrajectoryCache() {}
+
+    /**
+     * @param pathCount Paths expected under {@code key}; a file with a different number is ignored
+     * @param generate  Makes the paths on a miss, which are then saved
+     * @return The paths under {@code key}, waiting for them if another thread is generating them
+     */
+    static List<List<SampledTrajectory>> get(long key, int pathCount, Callable<List<List<SampledTrajectory>>> generate) {
+        FutureTask<List<List<SampledTrajectory>>> task = entries.get(key);
+        if (task == null) {
+            FutureTask<List<List<SampledTrajectory>>> created = new FutureTask<>(() -> {
+                List<List<SampledTrajectory>> paths = ENABLED ? load(key) : null;
+                if (paths == null || paths.size() != pathCount) {
+                    paths = generate.call();
+                    if (ENABLED) save(key, paths);
+                }
+                return paths;
+            });
+
+            if (entries.size() >= MAX_FILES) entries.clear();
+            task = entries.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // let the next caller try again
+            entries.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for trajectories", e);
+        }
+    }
+
+    /**
+     * @return The paths saved under {@code key}, or null if there aren't any
+     */
+    private static List<List<SampledTrajectory>> load(long key) {
+        File file = file(key);
+        if (!file.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key) return null;
+
+            int pathCount = in.readInt();
+            ArrayList<List<SampledTrajectory>> read = new ArrayList<>(pathCount);
+            for (int i = 0; i < pathCount; i++) {
+                int count = in.readInt();
+                ArrayList<SampledTrajectory> path = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) path.add(SampledTrajectory.read(in));
+                read.add(Collections.unmodifiableList(path));
+            }
+            return Collections.unmodifiableList(read);
+        } catch (IOException | RuntimeException e) {
+            // truncated or corrupt; generating overwrites it
+            return null;
+        }
+    }
+
+    private static void save(long key, List<List<SampledTrajectory>> paths) {
+        File directory = new File(DIRECTORY);
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+
+        // written under another name first, so a reader never sees half a file
+        File file = file(key), temporary = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(key);
+            out.writeInt(paths.size());
+            for (List<SampledTrajectory> path : paths) {
+                out.writeInt(path.size());
+                for (SampledTrajectory trajectory : path) trajectory.write(out);
+            }
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            return;
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        if (!temporary.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+        }
+
+        prune(directory);
+    }
+
+    private static File file(long key) {
+        return new File(DIRECTORY, String.format(Locale.US, "%016x.traj", key));
+    }
+
+    private static void prune(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".traj"));
+        if (files == null || files.length <= MAX_FILES) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_FILES; i++) {
+            //noinspection ResultOfMethodCallIgnored
+            files[i].delete();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.firstinspires.ftc.teamcode.roadrunner;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds trajectories on background threads before they're asked for, so the {@link CachedActionBuilder#build()}
+ * that does ask finds them in {@link TrajectoryCache}, or waits for the build already underway instead of starting
+ * its own <p>
+ * Builds are named, so asking for a set of them again only starts the new ones. Queued builds no longer in the
+ * set are cancelled; ones already running finish and stay cached
+ */
+public final class TrajectoryPrefetcher implements AutoCloseable {
+
+    private static final int THREADS = 2;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "Trajectory prefetcher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final HashMap<String, Future<?>> builds = new HashMap<>();
+
+    /**
+     * @param wanted Builds that may be needed, by name, most likely first
+     */
+    public void prefetch(Map<String, Runnable> wanted) {
+        for (Iterator<Map.Entry<String, Future<?>>> i = builds.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<String, Future<?>> build = i.next();
+            if (!wanted.containsKey(build.getKey())) {
+                build.getValue().cancel(false);
+                i.remove();
+            }
+        }
+
+        for (Map.Entry<String, Runnable> build : wanted.entrySet()) {
+            if (!builds.containsKey(build.getKey())) builds.put(build.getKey(), executor.submit(build.getValue()));
+        }
+    }
+
+    /**
+     * @return Whether the named build has finished, successfully or not
+     */
+    public boolean isDone(String name) {
+        Future<?> build = builds.get(name);
+        return build != null && build.isDone();
+    }
+
+    /**
+     * Cancels every build, interrupting running ones between paths so they don't compete with the OpMode
+     */
+    @Override
+    public void close() {
+        for (Future<?> build : builds.values()) build.cancel(true);
+        builds.clear();
+        executor.shutdown();
+    }
+}
@@ -20,7 +20,7 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
 import org.firstinspires.ftc.robotcore.external.navigation.UnnormalizedAngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
-import org.firstinspires.ftc.teamcode.roadrunner.message.TwoDeadWheelInputsMessage;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
 
 @Config
 public final class TwoDeadWheelLocalizer implements Localizer {
@@ -31,6 +31,10 @@ public final class TwoDeadWheelLocalizer implements Localizer {
 
     public static Params PARAMS = new Params();
 
+    private static final FlightLog.Channel INPUTS = FlightLog.channel("TWO_DEAD_WHEEL_INPUTS",
+            "par position", "par velocity", "perp position", "perp velocity",
+            "yaw", "pitch", "roll", "x rotation rate", "y rotation rate", "z rotation rate");
+
     public final Encoder par, perp;
     public final IMU imu;
 
@@ -40,7 +44,7 @@ public final class TwoDeadWheelLocalizer implements Localizer {
     private final double inPerTick;
 
     private double lastRawHeadingVel, headingVelOffset;
-    private boolean initialized;
+    private boolean initialized, recording = true;
 
     public TwoDeadWheelLocalizer(HardwareMap hardwareMap, IMU imu, double inPerTick) {
         // TODO: make sure your config has **motors** with these names (or change them)
@@ -59,6 +63,11 @@ public final class TwoDeadWheelLocalizer implements Localizer {
         FlightRecorder.write("TWO_DEAD_WHEEL_PARAMS", PARAMS);
     }
 
+    @Override
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
     public Twist2dDual<Time> update() {
         PositionVelocityPair parPosVel = par.getPositionAndVelocity();
         PositionVelocityPair perpPosVel = perp.getPositionAndVelocity();
@@ -74,7 +83,12 @@ public final class TwoDeadWheelLocalizer implements Localizer {
                 angularVelocityDegrees.acquisitionTime
         );
 
-        FlightRecorder.write("TWO_DEAD_WHEEL_INPUTS", new TwoDeadWheelInputsMessage(parPosVel, perpPosVel, angles, angularVelocity));
+        if (recording && INPUTS.begin()) INPUTS
+                .put(parPosVel.position).put(parPosVel.velocity)
+                .put(perpPosVel.position).put(perpPosVel.velocity)
+                .put(angles.getYaw(AngleUnit.RADIANS)).put(angles.getPitch(AngleUnit.RADIANS)).put(angles.getRoll(AngleUnit.RADIANS))
+                .put(angularVelocity.xRotationRate).put(angularVelocity.yRotationRate).put(angularVelocity.zRotationRate)
+                .commit();
 
         Rotation2d heading = Rotation2d.exp(angles.getYaw(AngleUnit.RADIANS));
 
@@ -103,15 +117,37 @@ public final class TwoDeadWheelLocalizer implements Localizer {
         double perpPosDelta = perpPosVel.position - lastPerpPos;
         double headingDelta = heading.minus(lastHeading);
 
-        Twist2dDual<Time> twist = new Twist2dDual<>(
+        Twist2dDual<Time> twist = twist(PARAMS, inPerTick,
+                parPosDelta, parPosVel.velocity,
+                perpPosDelta, perpPosVel.velocity,
+                headingDelta, headingVel
+        );
+
+        lastParPos = parPosVel.position;
+        lastPerpPos = perpPosVel.position;
+        lastHeading = heading;
+
+        return twist;
+    }
+
+    /**
+     * The odometry math of {@link #update()}, without any hardware reads
+     */
+    public static Twist2dDual<Time> twist(
+            Params params, double inPerTick,
+            double parPosDelta, double parVel,
+            double perpPosDelta, double perpVel,
+            double headingDelta, double headingVel
+    ) {
+        return new Twist2dDual<>(
                 new Vector2dDual<>(
                         new DualNum<Time>(new double[] {
-                                parPosDelta - PARAMS.parYTicks * headingDelta,
-                                parPosVel.velocity - PARAMS.parYTicks * headingVel,
+                                parPosDelta - params.parYTicks * headingDelta,
+                                parVel - params.parYTicks * headingVel,
                         }).times(inPerTick),
                         new DualNum<Time>(new double[] {
-                                perpPosDelta - PARAMS.perpXTicks * headingDelta,
-                                perpPosVel.velocity - PARAMS.perpXTicks * headingVel,
+                                perpPosDelta - params.perpXTicks * headingDelta,
+                                perpVel - params.perpXTicks * headingVel,
                         }).times(inPerTick)
                 ),
                 new DualNum<>(new double[] {
@@ -119,11 +155,5 @@ public final class TwoDeadWheelLocalizer implements Localizer {
                         headingVel,
                 })
         );
-
-        lastParPos = parPosVel.position;
-        lastPerpPos = perpPosVel.position;
-        lastHeading = heading;
-
-        return twist;
     }
 }
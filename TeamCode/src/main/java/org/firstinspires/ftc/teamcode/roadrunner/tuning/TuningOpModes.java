@@ -9,6 +9,7 @@ import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManager;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeRegistrar;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 
 import org.firstinspires.ftc.robotcore.internal.opmode.OpModeMeta;
 import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
@@ -48,8 +49,9 @@ public final class TuningOpModes {
 
                     List<Encoder> leftEncs = new ArrayList<>(), rightEncs = new ArrayList<>();
                     List<Encoder> parEncs = new ArrayList<>(), perpEncs = new ArrayList<>();
-                    parEncs.add(new PinpointEncoder(pd.pinpoint,false, pd.leftBack.motor));
-                    perpEncs.add(new PinpointEncoder(pd.pinpoint,true, pd.leftBack.motor));
+                    GoBildaPinpointDriverRR pinpoint = hardwareMap.get(GoBildaPinpointDriverRR.class, PinpointDrive.PINPOINT_CONFIG.pinpointDeviceName);
+                    parEncs.add(new PinpointEncoder(pinpoint,false, hardwareMap.get(DcMotorEx.class, "left back")));
+                    perpEncs.add(new PinpointEncoder(pinpoint,true, hardwareMap.get(DcMotorEx.class, "left back")));
 
                     return new DriveView(
                             DriveType.MECANUM,
@@ -59,19 +61,19 @@ public final class TuningOpModes {
                             MecanumDrive.PARAMS.maxProfileAccel,
                             hardwareMap.getAll(LynxModule.class),
                             Arrays.asList(
-                                    pd.leftFront.motor,
-                                    pd.leftBack.motor
+                                    hardwareMap.get(DcMotorEx.class, "left front"),
+                                    hardwareMap.get(DcMotorEx.class, "left back")
                             ),
                             Arrays.asList(
-                                    pd.rightFront.motor,
-                                    pd.rightBack.motor
+                                    hardwareMap.get(DcMotorEx.class, "right front"),
+                                    hardwareMap.get(DcMotorEx.class, "right back")
                             ),
                             leftEncs,
                             rightEncs,
                             parEncs,
                             perpEncs,
                             pd.lazyImu,
-                            pd.voltageSensor,
+                            hardwareMap.voltageSensor.iterator().next(),
                             () -> new MotorFeedforward(MecanumDrive.PARAMS.kS,
                                     MecanumDrive.PARAMS.kV / MecanumDrive.PARAMS.inPerTick,
                                     MecanumDrive.PARAMS.kA / MecanumDrive.PARAMS.inPerTick)
@@ -110,19 +112,19 @@ public final class TuningOpModes {
                         MecanumDrive.PARAMS.maxProfileAccel,
                         hardwareMap.getAll(LynxModule.class),
                         Arrays.asList(
-                                md.leftFront.motor,
-                                md.leftBack.motor
+                                hardwareMap.get(DcMotorEx.class, "left front"),
+                                hardwareMap.get(DcMotorEx.class, "left back")
                         ),
                         Arrays.asList(
-                                md.rightFront.motor,
-                                md.rightBack.motor
+                                hardwareMap.get(DcMotorEx.class, "right front"),
+                                hardwareMap.get(DcMotorEx.class, "right back")
                         ),
                         leftEncs,
                         rightEncs,
                         parEncs,
                         perpEncs,
                         md.lazyImu,
-                        md.voltageSensor,
+                        hardwareMap.voltageSensor.iterator().next(),
                         () -> new MotorFeedforward(MecanumDrive.PARAMS.kS,
                                 MecanumDrive.PARAMS.kV / MecanumDrive.PARAMS.inPerTick,
                                 MecanumDrive.PARAMS.kA / MecanumDrive.PARAMS.inPerTick)
@@ -158,8 +160,8 @@ public final class TuningOpModes {
                         TankDrive.PARAMS.minProfileAccel,
                         TankDrive.PARAMS.maxProfileAccel,
                         hardwareMap.getAll(LynxModule.class),
-                        Arrays.asList(td.leftMotors.get(0).motor),
-                        Arrays.asList(td.rightMotors.get(0).motor),
+                        Arrays.asList(hardwareMap.get(DcMotorEx.class, TankDrive.LEFT_MOTOR_NAMES.get(0))),
+                        Arrays.asList(hardwareMap.get(DcMotorEx.class, TankDrive.RIGHT_MOTOR_NAMES.get(0))),
                         leftEncs,
                         rightEncs,
                         parEncs,
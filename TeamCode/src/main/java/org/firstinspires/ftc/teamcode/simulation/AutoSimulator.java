@@ -0,0 +1,199 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static org.firstinspires.ftc.teamcode.control.vision.pipeline.Sample.NEUTRAL;
+
+import androidx.annotation.NonNull;
+
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.acmerobotics.roadrunner.Action;
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.Vector2d;
+
+import org.firstinspires.ftc.teamcode.opmode.Auto;
+import org.firstinspires.ftc.teamcode.opmode.PhaseDurations;
+import org.firstinspires.ftc.teamcode.roadrunner.TrajectoryCache;
+import org.firstinspires.ftc.teamcode.subsystem.Arm;
+import org.firstinspires.ftc.teamcode.subsystem.Deposit;
+import org.firstinspires.ftc.teamcode.subsystem.Intake;
+import org.firstinspires.ftc.teamcode.subsystem.Robot;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+
+/**
+ * Runs the real {@link Robot} and autonomous {@link Action}s against simple physics on a simulated clock <p>
+ * Every loop: the autonomous and {@link Robot#run} read the simulated sensors and command the simulated
+ * actuators, then the physics steps forward {@link #LOOP_TIME} seconds. Nothing waits on wall time, so a whole
+ * autonomous takes milliseconds, and the same constants always give the same result
+ */
+public final class AutoSimulator {
+
+    public static double
+            LOOP_TIME = 0.015,
+            MATCH_TIME = 30,
+            SPEED_AXON = 500,
+            BUCKET_SENSOR_TOLERANCE = 3;
+
+    public final SimulatedDevices devices = new SimulatedDevices();
+    public final Robot robot;
+
+    private final MecanumModel drivetrain;
+    private final LiftModel lift;
+    private final ExtendoModel extendo;
+    private final ServoModel arm, bucket;
+    private final SampleModel samples;
+    private final SimulatedDevices.Touch bucketSensor;
+
+    private int loops = 0;
+
+    /**
+     * @param spikeMarks Positions of the samples on the field the intake can pick up
+     */
+    public AutoSimulator(Pose2d startPose, Vector2d... spikeMarks) {
+
+        // Static state left over from the last autonomous
+        Deposit.level1Ascent = false;
+
+        // Sensor and planning threads would make results depend on wall time
+        Intake.ASYNC_COLOR_SENSOR = false;
+        Auto.REPLAN_IN_BACKGROUND = false;
+        // No flight logs, trajectory cache or phase duration files from desktop runs, which would also make each
+        // run's decisions depend on the runs before it
+        FlightLog.ENABLED = false;
+        TrajectoryCache.ENABLED = false;
+        PhaseDurations.ENABLED = false;
+
+        robot = new Robot(devices, startPose);
+
+        drivetrain = new MecanumModel(devices);
+        lift = new LiftModel(devices);
+        extendo = new ExtendoModel(devices);
+        arm = new ServoModel(devices.servo("arm right"), 355, false, SPEED_AXON, Arm.TRANSFER.right);
+        bucket = new ServoModel(devices.servo("bucket left"), 355, false, SPEED_AXON, Intake.ANGLE_BUCKET_RETRACTED);
+        samples = new SampleModel(devices, spikeMarks);
+        bucketSensor = devices.touchSensor("bucket pivot sensor");
+
+        step(0);
+    }
+
+    private void step(double dt) {
+        drivetrain.update(dt);
+        lift.update(dt);
+        extendo.update(dt);
+        arm.update(dt);
+        bucket.update(dt);
+
+        bucketSensor.pressed = bucket.getAngle() <= Intake.ANGLE_BUCKET_RETRACTED + BUCKET_SENSOR_TOLERANCE;
+
+        samples.update(dt, robot, drivetrain.getPose(), lift.getPosition(), extendo.getPosition(), bucket.getAngle());
+
+        devices.clock.advance(dt);
+    }
+
+    /**
+     * Run one loop of the given autonomous, then step the physics
+     *
+     * @return Whether the autonomous is still running
+     */
+    public boolean loop(Action auto) {
+        boolean running = auto.run(new TelemetryPacket());
+        robot.run();
+        step(LOOP_TIME);
+        loops++;
+        return running;
+    }
+
+    /**
+     * Run the given autonomous until {@link #MATCH_TIME} on the simulated clock
+     */
+    public Result run(Action auto) {
+
+        double secondsLeft = 0;
+        boolean running = true;
+
+        while (devices.clock.seconds() < MATCH_TIME) {
+            if (running) {
+                running = loop(auto);
+                if (!running) secondsLeft = MATCH_TIME - devices.clock.seconds();
+            } else {
+                robot.run();
+                step(LOOP_TIME);
+                loops++;
+            }
+        }
+
+        return new Result(samples.samplesScored, samples.specimensScored, running ? 0 : secondsLeft, drivetrain.getPose(), loops);
+    }
+
+    /**
+     * Simulate the left side autonomous, set up the same way {@link Auto} sets it up
+     */
+    public static Result basketSide(boolean specimenPreload, double partnerWait) {
+
+        AutoSimulator sim = new AutoSimulator(
+                Auto.basketStartPose(specimenPreload),
+                (specimenPreload ? Auto.sample1SpecPreload : Auto.sample1).toVector2d(),
+                Auto.sample2.toVector2d(),
+                Auto.sample3.toVector2d()
+        );
+
+        sim.robot.deposit.closeClaw();
+        if (specimenPreload)
+            sim.robot.deposit.preloadSpecimen();
+        else
+            sim.robot.deposit.transfer(NEUTRAL);
+        sim.robot.intake.setAlliance(false);
+        sim.robot.deposit.setAlliance(false);
+
+        return sim.run(Auto.basketSide(sim.robot, PhaseDurations.load(), specimenPreload, partnerWait));
+    }
+
+    /**
+     * Simulate the right side autonomous, set up the same way {@link Auto} sets it up
+     */
+    public static Result specimenSide(double partnerWait, int cycles) {
+
+        AutoSimulator sim = new AutoSimulator(Auto.specimenStartPose());
+
+        sim.robot.deposit.closeClaw();
+        sim.robot.deposit.preloadSpecimen();
+        sim.robot.intake.setAlliance(false);
+        sim.robot.deposit.setAlliance(false);
+
+        return sim.run(Auto.specimenSide(sim.robot, partnerWait, cycles));
+    }
+
+    public static final class Result {
+
+        public final int samplesScored, specimensScored, loops;
+        public final double secondsLeft;
+        public final Pose2d finalPose;
+
+        private Result(int samplesScored, int specimensScored, double secondsLeft, Pose2d finalPose, int loops) {
+            this.samplesScored = samplesScored;
+            this.specimensScored = specimensScored;
+            this.secondsLeft = secondsLeft;
+            this.finalPose = finalPose;
+            this.loops = loops;
+        }
+
+        @NonNull
+        public String toString() {
+            return samplesScored + " samples, " + specimensScored + " specimens, " + secondsLeft + " s left, ended at " + finalPose + " after " + loops + " loops";
+        }
+    }
+
+    public static void main(String[] args) {
+
+        long start = System.nanoTime();
+        System.out.println("Sample preload:   " + basketSide(false, 0));
+        System.out.println("  in " + (System.nanoTime() - start) * 1e-6 + " ms");
+
+        start = System.nanoTime();
+        System.out.println("Specimen preload: " + basketSide(true, 0));
+        System.out.println("  in " + (System.nanoTime() - start) * 1e-6 + " ms");
+
+        start = System.nanoTime();
+        System.out.println("Specimen side:    " + specimenSide(0, 3));
+        System.out.println("  in " + (System.nanoTime() - start) * 1e-6 + " ms");
+    }
+}
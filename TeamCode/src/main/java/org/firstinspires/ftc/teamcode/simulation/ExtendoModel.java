@@ -0,0 +1,65 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static com.arcrobotics.ftclib.hardware.motors.Motor.GoBILDA.RPM_117;
+import static com.qualcomm.robotcore.util.Range.clip;
+import static java.lang.Math.PI;
+import static java.lang.Math.exp;
+
+import org.firstinspires.ftc.teamcode.subsystem.Extendo;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+
+/**
+ * Extendo linkage, simulated in crank angle and converted to slide length with {@link Extendo.Math}
+ */
+final class ExtendoModel {
+
+    public static double
+            TIME_CONSTANT = 0.05,
+            VOLTAGE_RATED = 12,
+            ANGLE_SENSOR_TRIGGERED = 0.02;
+
+    private static final double ANGLE_MAX = Extendo.Math.radians(Extendo.Math.MM_EXTENDED) - Extendo.Math.RAD_RETRACTED;
+
+    private final SimulatedDevices.Port motor, encoder;
+    private final SimulatedDevices.Touch sensor;
+    private final SimulatedDevices.Voltage battery;
+
+    // crank angle past retracted, rad
+    private double angle, velocity;
+
+    ExtendoModel(SimulatedDevices devices) {
+        motor = devices.port("extendo");
+        encoder = devices.port("right front");
+        sensor = devices.touchSensor("extendo sensor");
+        battery = devices.voltage;
+    }
+
+    void update(double dt) {
+
+        double freeSpeed = RPM_117.getRPM() / 60 * 2 * PI;
+        double steadyState = freeSpeed * motor.power * battery.voltage / VOLTAGE_RATED;
+
+        velocity = steadyState + (velocity - steadyState) * exp(-dt / TIME_CONSTANT);
+        angle += velocity * dt;
+
+        // hard stops
+        if (angle != clip(angle, 0, ANGLE_MAX)) {
+            angle = clip(angle, 0, ANGLE_MAX);
+            velocity = 0;
+        }
+
+        // encoder counts backwards, see Extendo's constructor
+        double ticksPerRadian = RPM_117.getCPR() / (2 * PI);
+        encoder.position = (int) -Math.round(angle * ticksPerRadian);
+        encoder.velocity = -velocity * ticksPerRadian;
+
+        sensor.pressed = angle <= ANGLE_SENSOR_TRIGGERED;
+    }
+
+    /**
+     * @return Millimeters past retracted, same as {@link Extendo#getPosition}
+     */
+    double getPosition() {
+        return Extendo.Math.millimeters(angle + Extendo.Math.RAD_RETRACTED) - Extendo.Math.MM_RETRACTED;
+    }
+}
@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static com.arcrobotics.ftclib.hardware.motors.Motor.GoBILDA.RPM_312;
+import static com.qualcomm.robotcore.util.Range.clip;
+import static java.lang.Math.exp;
+
+import org.firstinspires.ftc.teamcode.subsystem.Lift;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
+
+/**
+ * Three-motor lift fighting gravity <p>
+ * Gravity takes exactly {@link Lift#kG} of power at {@link BatteryVoltage#NOMINAL_VOLTAGE}, i.e. assumes kG is tuned
+ */
+final class LiftModel {
+
+    public static double
+            TIME_CONSTANT = 0.08,
+            VOLTAGE_RATED = 12,
+            HEIGHT_MAX = 32;
+
+    private final SimulatedDevices.Port[] motors;
+    private final SimulatedDevices.Port rightEncoder, leftEncoder;
+    private final SimulatedDevices.Voltage battery;
+
+    private double position, velocity;
+
+    LiftModel(SimulatedDevices devices) {
+        motors = new SimulatedDevices.Port[]{
+                devices.port("lift right"),
+                devices.port("lift left"),
+                devices.port("lift 3"),
+        };
+        rightEncoder = devices.port("right back");
+        leftEncoder = devices.port("left back");
+        battery = devices.voltage;
+    }
+
+    void update(double dt) {
+
+        double power = 0;
+        for (SimulatedDevices.Port motor : motors) power += motor.power / motors.length;
+
+        double freeSpeed = RPM_312.getRPM() / 60 * RPM_312.getCPR() * Lift.INCHES_PER_TICK;
+        double steadyState = freeSpeed * (power * battery.voltage - Lift.kG * BatteryVoltage.NOMINAL_VOLTAGE) / VOLTAGE_RATED;
+
+        velocity = steadyState + (velocity - steadyState) * exp(-dt / TIME_CONSTANT);
+        position += velocity * dt;
+
+        // hard stops
+        if (position != clip(position, 0, HEIGHT_MAX)) {
+            position = clip(position, 0, HEIGHT_MAX);
+            velocity = 0;
+        }
+
+        int ticks = (int) Math.round(position / Lift.INCHES_PER_TICK);
+        rightEncoder.position = leftEncoder.position = ticks;
+        rightEncoder.velocity = leftEncoder.velocity = velocity / Lift.INCHES_PER_TICK;
+    }
+
+    /**
+     * @return Inches above the bottom hard stop
+     */
+    double getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,77 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.exp;
+import static java.lang.Math.signum;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.Twist2d;
+import com.acmerobotics.roadrunner.Vector2d;
+
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
+import org.firstinspires.ftc.teamcode.roadrunner.PinpointDrive;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+
+/**
+ * Mecanum base driven by the four drive motor ports <p>
+ * Each wheel follows the drive's own feedforward model ({@link MecanumDrive.Params#kS kS}, kV, kA) run backwards,
+ * and the wheel speeds go through the same kinematics as {@link MecanumDrive#kinematics}
+ * to move the simulated Pinpoint
+ */
+final class MecanumModel {
+
+    private final SimulatedDevices.Port leftFront, leftBack, rightBack, rightFront;
+    private final SimulatedDevices.Pinpoint pinpoint;
+    private final SimulatedDevices.Voltage battery;
+
+    // wheel surface speeds, in/s
+    private double vLeftFront, vLeftBack, vRightBack, vRightFront;
+
+    MecanumModel(SimulatedDevices devices) {
+        leftFront = devices.port("left front");
+        leftBack = devices.port("left back");
+        rightBack = devices.port("right back");
+        rightFront = devices.port("right front");
+        pinpoint = devices.pinpoint(PinpointDrive.PINPOINT_CONFIG.pinpointDeviceName);
+        battery = devices.voltage;
+    }
+
+    void update(double dt) {
+        MecanumDrive.Params params = MecanumDrive.PARAMS;
+
+        vLeftFront = wheelSpeed(vLeftFront, leftFront.power, dt);
+        vLeftBack = wheelSpeed(vLeftBack, leftBack.power, dt);
+        vRightBack = wheelSpeed(vRightBack, rightBack.power, dt);
+        vRightFront = wheelSpeed(vRightFront, rightFront.power, dt);
+
+        double trackWidth = params.inPerTick * params.trackWidthTicks;
+        double lateralMultiplier = params.inPerTick / params.lateralInPerTick;
+
+        // MecanumKinematics.forward
+        double vx = 0.25 * (vLeftFront + vLeftBack + vRightBack + vRightFront);
+        double vy = 0.25 * (-vLeftFront + vLeftBack - vRightBack + vRightFront) / lateralMultiplier;
+        double omega = 0.25 * (-vLeftFront - vLeftBack + vRightBack + vRightFront) / trackWidth;
+
+        pinpoint.pose = pinpoint.pose.plus(new Twist2d(new Vector2d(vx * dt, vy * dt), omega * dt));
+        pinpoint.velocity = new PoseVelocity2d(new Vector2d(vx, vy), omega);
+    }
+
+    /**
+     * Solves power * voltage = kS * sgn(v) + kV * v + kA * a for the wheel's next speed,
+     * exactly over dt so any loop time stays stable
+     */
+    private double wheelSpeed(double speed, double power, double dt) {
+        MecanumDrive.Params params = MecanumDrive.PARAMS;
+
+        double volts = power * battery.voltage;
+        double steadyState = abs(volts) <= params.kS ? 0 : params.inPerTick * (volts - signum(volts) * params.kS) / params.kV;
+
+        double timeConstant = params.kA / params.kV;
+        return timeConstant <= 0 ? steadyState : steadyState + (speed - steadyState) * exp(-dt / timeConstant);
+    }
+
+    Pose2d getPose() {
+        return pinpoint.pose;
+    }
+}
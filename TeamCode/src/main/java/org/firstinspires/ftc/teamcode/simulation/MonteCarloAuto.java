@@ -0,0 +1,604 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SAMPLE_1;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SAMPLE_2;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SAMPLE_3;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SUB_MAX;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.EXTEND_SUB_MIN;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.INCREMENT_LOWERING_BUCKET;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.LENGTH_START_DROPPING_BUCKET;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.SPEED_INCHING;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.SPEED_INTAKING;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.SPEED_SWEEPING_SUB;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.SPEED_SWEEPING_SUB_TURNING;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.TIME_EXTEND_CYCLE;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_APPROACH_BASKET;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_APPROACH_CHAMBER;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_APPROACH_WALL;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_DROP_TO_EXTEND;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_EXTEND;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_INTAKE_RETRACT;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_POST_INTAKING;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_SCORE_BASKET;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.WAIT_SCORE_CHAMBER;
+import static org.firstinspires.ftc.teamcode.opmode.Auto.Y_INCHING_FORWARD_WHEN_INTAKING;
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.exp;
+import static java.lang.Math.hypot;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+
+import androidx.annotation.NonNull;
+
+import org.firstinspires.ftc.teamcode.control.motion.EditablePose;
+import org.firstinspires.ftc.teamcode.opmode.Auto;
+import org.firstinspires.ftc.teamcode.opmode.PhaseDurations;
+import org.firstinspires.ftc.teamcode.roadrunner.MecanumDrive;
+import org.firstinspires.ftc.teamcode.subsystem.Arm;
+import org.firstinspires.ftc.teamcode.subsystem.Deposit;
+import org.firstinspires.ftc.teamcode.subsystem.Extendo;
+import org.firstinspires.ftc.teamcode.subsystem.Intake;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs thousands of autonomous attempts in parallel and reports how many game pieces they score <p>
+ * {@link AutoSimulator} runs the real {@link org.firstinspires.ftc.teamcode.subsystem.Robot}, which shares
+ * static @Config state and telemetry and so can only run one match at a time. This instead steps a lightweight
+ * model of the drive, lift, extendo and intake timing through the same decisions as BasketAuto and the
+ * specimen side of {@link Auto}, reading the same tunables. Each match perturbs sensor noise, intake success
+ * and servo timing with its own {@link SplittableRandom}, split from {@link #SEED} so results are repeatable
+ * no matter how the {@link ForkJoinPool} schedules the work
+ */
+public final class MonteCarloAuto {
+
+    public static int
+            RUNS = 10000,
+            RUNS_PER_TASK = 250;
+
+    public static long SEED = 21836;
+
+    /**
+     * What BasketAuto's decisions are based on; empty means {@link Auto}'s priors. Set to {@link PhaseDurations#load()}
+     * to evaluate the decisions a robot would make from its own recorded durations
+     */
+    public static PhaseDurations DURATIONS = new PhaseDurations();
+
+    public static double
+            LOOP_TIME = 0.02,
+            MATCH_TIME = 30,
+            SPREAD_DRIVE_TIME = 0.05,
+            SPREAD_SERVO_TIME = 0.15,
+            SPREAD_EXTENDO_READING = 8,
+            PROBABILITY_SPIKE_INTAKE = 0.9,
+            PROBABILITY_SPEC_GRAB = 0.95,
+            PROBABILITY_SCORE = 0.97,
+            PROBABILITY_BAD_SUB_SAMPLE = 1 / 3.0,
+            RATE_SUB_INTAKE = 0.6,
+            SPEED_EXTENDO = 1500,
+            SPEED_LIFT = 45,
+            TIME_CONSTANT_EXTENDO = 0.1,
+            TIME_BUCKET_RETRACT = 0.3,
+            SECONDS_PER_BIN = 0.5;
+
+    /**
+     * @return Distribution of {@link Auto#basketSide} results over {@link #RUNS} matches
+     */
+    public static Distribution basketSide(boolean specimenPreload, double partnerWait) {
+        return evaluate(match -> match.basketSide(specimenPreload, partnerWait));
+    }
+
+    /**
+     * @return Distribution of {@link Auto#specimenSide} results over {@link #RUNS} matches
+     */
+    public static Distribution specimenSide(double partnerWait, int cycles) {
+        return evaluate(match -> match.specimenSide(partnerWait, cycles));
+    }
+
+    private static Distribution evaluate(ToDoubleFunction<Match> routine) {
+        return ForkJoinPool.commonPool().invoke(new Batch(routine, new SplittableRandom(SEED), RUNS));
+    }
+
+    private static final class Batch extends RecursiveTask<Distribution> {
+
+        private final ToDoubleFunction<Match> routine;
+        private final SplittableRandom random;
+        private final int runs;
+
+        Batch(ToDoubleFunction<Match> routine, SplittableRandom random, int runs) {
+            this.routine = routine;
+            this.random = random;
+            this.runs = runs;
+        }
+
+        protected Distribution compute() {
+
+            if (runs <= RUNS_PER_TASK) {
+                Distribution distribution = new Distribution();
+                for (int i = 0; i < runs; i++) {
+                    Match match = new Match(random.split());
+                    double secondsLeft = routine.applyAsDouble(match);
+                    distribution.add(match.samples, match.specimens, secondsLeft);
+                }
+                return distribution;
+            }
+
+            Batch left = new Batch(routine, random.split(), runs / 2);
+            Batch right = new Batch(routine, random, runs - runs / 2);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    /**
+     * Histograms of game pieces scored and seconds left at the end of the routine
+     */
+    public static final class Distribution {
+
+        private static final int MAX_PIECES = 16;
+
+        private final long[]
+                samples = new long[MAX_PIECES + 1],
+                specimens = new long[MAX_PIECES + 1],
+                secondsLeft = new long[(int) (MATCH_TIME / SECONDS_PER_BIN) + 1];
+
+        private int runs = 0;
+
+        private void add(int samples, int specimens, double secondsLeft) {
+            this.samples[min(samples, MAX_PIECES)]++;
+            this.specimens[min(specimens, MAX_PIECES)]++;
+            this.secondsLeft[min((int) (secondsLeft / SECONDS_PER_BIN), this.secondsLeft.length - 1)]++;
+            runs++;
+        }
+
+        private Distribution merge(Distribution other) {
+            for (int i = 0; i < samples.length; i++) samples[i] += other.samples[i];
+            for (int i = 0; i < specimens.length; i++) specimens[i] += other.specimens[i];
+            for (int i = 0; i < secondsLeft.length; i++) secondsLeft[i] += other.secondsLeft[i];
+            runs += other.runs;
+            return this;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return Fraction of runs that scored exactly this many samples
+         */
+        public double probabilitySamples(int scored) {
+            return scored < 0 || scored > MAX_PIECES ? 0 : samples[scored] / (double) runs;
+        }
+
+        /**
+         * @return Fraction of runs that scored exactly this many specimens
+         */
+        public double probabilitySpecimens(int scored) {
+            return scored < 0 || scored > MAX_PIECES ? 0 : specimens[scored] / (double) runs;
+        }
+
+        public double meanSamples() {
+            return mean(samples, 1);
+        }
+
+        public double meanSpecimens() {
+            return mean(specimens, 1);
+        }
+
+        public double meanSecondsLeft() {
+            return mean(secondsLeft, SECONDS_PER_BIN);
+        }
+
+        /**
+         * @param quantile On the inclusive interval [0, 1]
+         * @return Lower edge of the {@link #SECONDS_PER_BIN} bin containing the quantile
+         */
+        public double quantileSecondsLeft(double quantile) {
+            long count = 0, target = (long) Math.ceil(quantile * runs);
+            for (int i = 0; i < secondsLeft.length; i++) {
+                count += secondsLeft[i];
+                if (count >= max(target, 1)) return i * SECONDS_PER_BIN;
+            }
+            return (secondsLeft.length - 1) * SECONDS_PER_BIN;
+        }
+
+        private double mean(long[] histogram, double binWidth) {
+            double sum = 0;
+            for (int i = 0; i < histogram.length; i++) sum += i * binWidth * histogram[i];
+            return runs == 0 ? 0 : sum / runs;
+        }
+
+        @NonNull
+        public String toString() {
+            StringBuilder string = new StringBuilder();
+            string.append(runs).append(" runs\n");
+            appendHistogram(string, "Samples", samples);
+            appendHistogram(string, "Specimens", specimens);
+            string.append("Seconds left: mean ").append(meanSecondsLeft())
+                    .append(", 10% ").append(quantileSecondsLeft(0.1))
+                    .append(", 50% ").append(quantileSecondsLeft(0.5))
+                    .append(", 90% ").append(quantileSecondsLeft(0.9));
+            return string.toString();
+        }
+
+        private void appendHistogram(StringBuilder string, String name, long[] histogram) {
+            string.append(name).append(": mean ").append(mean(histogram, 1)).append('\n');
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] == 0) continue;
+                string.append("  ").append(i).append(": ").append(100.0 * histogram[i] / runs).append("%\n");
+            }
+        }
+    }
+
+    /**
+     * One perturbed match, stepped {@link #LOOP_TIME} at a time
+     */
+    private static final class Match {
+
+        private final SplittableRandom random;
+
+        /**
+         * {@link Auto#timeToCycle} and {@link Auto#timeToScore} from {@link #DURATIONS}
+         */
+        private final double timeToCycle, timeToScore;
+
+        private double time = 0, extendo = 0, extendoTarget = 0;
+        private int samples = 0, specimens = 0;
+
+        Match(SplittableRandom random) {
+            this.random = random;
+            timeToCycle = Auto.timeToCycle(DURATIONS);
+            timeToScore = Auto.timeToScore(DURATIONS);
+        }
+
+        private void step() {
+            double toTarget = extendoTarget - extendo;
+            double maxStep = SPEED_EXTENDO * LOOP_TIME;
+            double change = toTarget * (1 - exp(-LOOP_TIME / TIME_CONSTANT_EXTENDO));
+            extendo += max(-maxStep, min(change, maxStep));
+            time += LOOP_TIME;
+        }
+
+        private boolean over() {
+            return time >= MATCH_TIME;
+        }
+
+        private double remaining() {
+            return MATCH_TIME - time;
+        }
+
+        /**
+         * @return Whether the match is still running once the given time is reached
+         */
+        private boolean waitUntil(double endTime) {
+            while (time < endTime) {
+                if (over()) return false;
+                step();
+            }
+            return !over();
+        }
+
+        private boolean waitSeconds(double seconds) {
+            return waitUntil(time + seconds);
+        }
+
+        private boolean chance(double probability) {
+            return random.nextDouble() < probability;
+        }
+
+        private double gaussian() {
+            return sqrt(-2 * log(1 - random.nextDouble())) * cos(2 * PI * random.nextDouble());
+        }
+
+        private double perturbed(double seconds, double spread) {
+            return seconds * max(0, 1 + spread * gaussian());
+        }
+
+        private double servo(double seconds) {
+            return perturbed(seconds, SPREAD_SERVO_TIME);
+        }
+
+        private double drive(EditablePose start, EditablePose end) {
+            return drive(hypot(end.x - start.x, end.y - start.y), end.heading - start.heading);
+        }
+
+        private double drive(double distance, double turn) {
+            MecanumDrive.Params params = MecanumDrive.PARAMS;
+            double translation = profileTime(distance, params.maxWheelVel, params.maxProfileAccel, -params.minProfileAccel);
+            double rotation = profileTime(abs(atan2(sin(turn), cos(turn))), params.maxAngVel, params.maxAngAccel, params.maxAngAccel);
+            return perturbed(max(translation, rotation), SPREAD_DRIVE_TIME);
+        }
+
+        private boolean extendoAtPosition(double target) {
+            return abs(target - extendoReading()) < Extendo.POSITION_TOLERANCE;
+        }
+
+        private double extendoReading() {
+            return extendo + SPREAD_EXTENDO_READING * gaussian();
+        }
+
+        /**
+         * Same as BasketAuto's intaking states: extend, inch forward, stop as soon as a sample is in the bucket
+         *
+         * @return Whether a sample was intaked
+         */
+        private boolean intakeSpike(double extension) {
+
+            extendoTarget = extension;
+
+            double extendStart = time;
+            double inchingTime = perturbed(Y_INCHING_FORWARD_WHEN_INTAKING / SPEED_INCHING, SPREAD_DRIVE_TIME);
+            double hazard = 1 - pow(1 - PROBABILITY_SPIKE_INTAKE, LOOP_TIME / max(inchingTime, LOOP_TIME));
+
+            boolean extending = true;
+            double inched = 0;
+
+            while (!over()) {
+
+                boolean reached = extendoAtPosition(extension);
+
+                if (reached && chance(hazard)) return waitSeconds(WAIT_POST_INTAKING);
+
+                if (extending) extending = !(time - extendStart >= WAIT_EXTEND || reached);
+                else if ((inched += LOOP_TIME) >= inchingTime) return false;
+
+                step();
+            }
+
+            return false;
+        }
+
+        /**
+         * Same as BasketAuto's SWEEPING state: sweep across the submersible with the extendo oscillating
+         *
+         * @return Whether a sample was intaked before {@link Auto#timeToScore} seconds were left
+         */
+        private boolean sweepSub() {
+
+            EditablePose intaking = Auto.intakingSub, swept = Auto.sweptSub;
+            double sweepTime = max(
+                    hypot(swept.x - intaking.x, swept.y - intaking.y) / SPEED_SWEEPING_SUB,
+                    abs(swept.heading - intaking.heading) / SPEED_SWEEPING_SUB_TURNING
+            );
+
+            double bucketStart = time;
+            double sweepLeft = perturbed(sweepTime, SPREAD_DRIVE_TIME);
+
+            while (!over()) {
+
+                if (remaining() < timeToScore) return false;
+
+                extendoTarget = EXTEND_SUB_MIN + (EXTEND_SUB_MAX - EXTEND_SUB_MIN) * (1 - cos(2 * PI * remaining() / TIME_EXTEND_CYCLE)) / 2;
+
+                if (extendoReading() >= LENGTH_START_DROPPING_BUCKET) {
+                    double roller = min((time - bucketStart) * INCREMENT_LOWERING_BUCKET, SPEED_INTAKING);
+
+                    if (chance(RATE_SUB_INTAKE * LOOP_TIME * roller / SPEED_INTAKING)) {
+
+                        // Intake ejects the other alliance's samples and keeps sweeping
+                        if (!chance(PROBABILITY_BAD_SUB_SAMPLE)) return waitSeconds(WAIT_POST_INTAKING);
+                        if (!waitSeconds(Intake.TIME_EJECTING)) return false;
+                    }
+                }
+
+                if ((sweepLeft -= LOOP_TIME) <= 0) sweepLeft = perturbed(sweepTime, SPREAD_DRIVE_TIME);
+
+                step();
+            }
+
+            return false;
+        }
+
+        /**
+         * Transfer (unless preloaded), raise the deposit while driving to the basket, and release
+         *
+         * @return Whether the match is still running
+         */
+        private boolean scoreSample(double driveTime, boolean transfer) {
+
+            double driveEnd = time + driveTime;
+
+            if (transfer) {
+                extendoTarget = 0;
+                while (extendo > Extendo.LENGTH_INTERFACING) {
+                    if (over()) return false;
+                    step();
+                }
+                if (!waitSeconds(servo(TIME_BUCKET_RETRACT) + servo(Intake.TIME_PRE_TRANSFER) + Intake.TIME_TRANSFER)) return false;
+            }
+
+            double depositTime = max(Deposit.HEIGHT_BASKET_HIGH / SPEED_LIFT, servo(Arm.TIME_RETRACTED_TO_SAMPLE));
+
+            if (!waitUntil(max(driveEnd, time + depositTime) + WAIT_APPROACH_BASKET)) return false;
+
+            if (chance(PROBABILITY_SCORE)) samples++;
+
+            return waitSeconds(WAIT_SCORE_BASKET);
+        }
+
+        /**
+         * Raise to the chamber while driving, then clip and release
+         *
+         * @return Whether the match is still running
+         */
+        private boolean scoreSpecimen(double driveTime, double armTime) {
+
+            double depositTime = max(Deposit.HEIGHT_CHAMBER_HIGH / SPEED_LIFT, servo(armTime));
+
+            if (!waitUntil(max(time + driveTime, time + depositTime) + WAIT_APPROACH_CHAMBER)) return false;
+
+            if (!waitSeconds(Deposit.HEIGHT_OFFSET_SPECIMEN_SCORED / SPEED_LIFT)) return false;
+
+            if (chance(PROBABILITY_SCORE)) specimens++;
+
+            return waitSeconds(WAIT_SCORE_CHAMBER);
+        }
+
+        private double finish(boolean parked) {
+            return parked ? max(0, remaining()) : 0;
+        }
+
+        /**
+         * @return Seconds left after parking, or 0 if the match ended first
+         */
+        double basketSide(boolean specimenPreload, double partnerWait) {
+
+            EditablePose
+                    start = new EditablePose(Auto.basketStartPose(specimenPreload)),
+                    basket = Auto.basket;
+
+            EditablePose[] spikes = {
+                    intakingPose(specimenPreload ? Auto.intaking1SpecPreload : Auto.intaking1, specimenPreload ? Auto.sample1SpecPreload : Auto.sample1),
+                    intakingPose(Auto.intaking2, Auto.sample2),
+                    intakingPose(Auto.intaking3, Auto.sample3),
+            };
+            double[] extensions = {EXTEND_SAMPLE_1, EXTEND_SAMPLE_2, EXTEND_SAMPLE_3};
+
+            // Preload
+            if (specimenPreload) {
+                if (!waitSeconds(partnerWait)) return 0;
+                if (!scoreSpecimen(drive(start, Auto.chamberLeft), 0)) return 0;
+                if (!waitSeconds(drive(Auto.chamberLeft, spikes[0]) + WAIT_DROP_TO_EXTEND)) return 0;
+            } else {
+                if (!scoreSample(drive(start, basket), false)) return 0;
+                if (!waitSeconds(drive(basket, spikes[0]))) return 0;
+            }
+
+            // Spike marks
+            EditablePose from = spikes[0];
+            for (int i = 0; i < spikes.length; i++) {
+
+                if (i > 0) {
+                    extendoTarget = 0;
+                    if (!waitSeconds(drive(from, spikes[i]))) return 0;
+                }
+
+                boolean intaked = intakeSpike(extensions[i]);
+                if (over()) return 0;
+
+                if (intaked) {
+                    if (!scoreSample(drive(spikes[i], basket), true)) return 0;
+                    from = basket;
+                } else {
+                    from = new EditablePose(spikes[i].x, spikes[i].y + Y_INCHING_FORWARD_WHEN_INTAKING, spikes[i].heading);
+                }
+            }
+
+            // Submersible
+            while (true) {
+
+                if (from == basket && remaining() < timeToCycle) {
+                    extendoTarget = 0;
+                    return finish(waitSeconds(drive(basket, Auto.parkLeft)));
+                }
+
+                extendoTarget = 0;
+                if (!waitSeconds(drive(from, Auto.intakingSub))) return 0;
+
+                if (!sweepSub()) {
+                    if (over()) return 0;
+                    return finish(waitSeconds(drive(Auto.sweptSub, Auto.parkLeft)));
+                }
+
+                if (!waitSeconds(WAIT_INTAKE_RETRACT)) return 0;
+                if (!scoreSample(drive(Auto.sweptSub, basket), true)) return 0;
+                from = basket;
+            }
+        }
+
+        /**
+         * @return Seconds left after parking, or 0 if the match ended first
+         */
+        double specimenSide(double partnerWait, int cycles) {
+
+            EditablePose
+                    start = new EditablePose(Auto.specimenStartPose()),
+                    chamber = Auto.chamberRight,
+                    wall = Auto.intakingSpec;
+
+            if (!waitSeconds(partnerWait)) return 0;
+            if (!scoreSpecimen(drive(start, chamber), 0)) return 0;
+
+            if (cycles > 0) {
+
+                // Push samples, one continuous spline
+                EditablePose[] pushing = {
+                        chamber, Auto.aroundBeamPushing,
+                        Auto.pushing1, Auto.pushed1, Auto.pushing2, Auto.pushed2, Auto.pushing3, Auto.pushed3,
+                        Auto.intakingFirstSpec
+                };
+                double length = 0;
+                for (int i = 1; i < pushing.length; i++)
+                    length += hypot(pushing[i].x - pushing[i - 1].x, pushing[i].y - pushing[i - 1].y);
+                if (!waitSeconds(drive(length, 0))) return 0;
+
+                EditablePose from = Auto.intakingFirstSpec;
+
+                double[] chamberOffsets = {
+                        Auto.X_OFFSET_CHAMBER_1,
+                        Auto.X_OFFSET_CHAMBER_2,
+                        Auto.X_OFFSET_CHAMBER_3,
+                        Auto.X_OFFSET_CHAMBER_4,
+                };
+
+                for (int i = 0; i < min(chamberOffsets.length, cycles); i++) {
+
+                    if (i > 0) {
+                        double toWall = drive(chamber, wall);
+                        double armTime = servo(Arm.TIME_SPEC_TO_RETRACTED) + servo(Arm.TIME_TRANSFER_TO_INTAKING);
+                        if (!waitSeconds(max(toWall, armTime))) return 0;
+                        from = wall;
+                    }
+
+                    if (!waitSeconds(WAIT_APPROACH_WALL)) return 0;
+
+                    // Re-grab until the specimen is held
+                    do if (!waitSeconds(servo(Deposit.TIME_SPEC_GRAB))) return 0;
+                    while (!chance(PROBABILITY_SPEC_GRAB));
+
+                    if (!waitSeconds(Deposit.HEIGHT_OFFSET_SPECIMEN_INTAKED / SPEED_LIFT)) return 0;
+
+                    double x = chamber.x + chamberOffsets[i] * Auto.DISTANCE_BETWEEN_SPECIMENS;
+                    if (!scoreSpecimen(drive(from, new EditablePose(x, chamber.y, chamber.heading)), Arm.TIME_INTAKING_TO_SPEC)) return 0;
+                }
+            }
+
+            return finish(waitSeconds(drive(chamber, wall)));
+        }
+
+        /**
+         * @return The intaking pose, facing the sample like {@link Auto#basketSide} sets it up
+         */
+        private static EditablePose intakingPose(EditablePose intaking, EditablePose sample) {
+            return new EditablePose(intaking.x, intaking.y, atan2(sample.y - intaking.y, sample.x - intaking.x));
+        }
+    }
+
+    private static double profileTime(double distance, double maxVel, double accel, double decel) {
+        if (distance <= 0) return 0;
+        double distanceRamping = 0.5 * maxVel * maxVel * (1 / accel + 1 / decel);
+        if (distance >= distanceRamping) return maxVel / accel + maxVel / decel + (distance - distanceRamping) / maxVel;
+        double peak = sqrt(2 * distance * accel * decel / (accel + decel));
+        return peak / accel + peak / decel;
+    }
+
+    public static void main(String[] args) {
+
+        long start = System.nanoTime();
+        System.out.println("Sample preload:\n" + basketSide(false, 0) + "\n");
+        System.out.println("Specimen preload:\n" + basketSide(true, 0) + "\n");
+        for (int cycles = 0; cycles <= 4; cycles++)
+            System.out.println("Specimen side, " + cycles + " cycles:\n" + specimenSide(0, cycles) + "\n");
+        System.out.println(RUNS * 7 + " runs on " + ForkJoinPool.getCommonPoolParallelism() + " threads in " + (System.nanoTime() - start) * 1e-6 + " ms");
+    }
+}
@@ -0,0 +1,137 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.Vector2d;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+import org.firstinspires.ftc.teamcode.control.gainmatrix.HSV;
+import org.firstinspires.ftc.teamcode.opmode.Auto;
+import org.firstinspires.ftc.teamcode.subsystem.Deposit;
+import org.firstinspires.ftc.teamcode.subsystem.Intake;
+import org.firstinspires.ftc.teamcode.subsystem.Robot;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Where the samples are, when the intake picks one up, and what the deposit does with it <p>
+ * Spike mark samples are picked up once the bucket has been down over them with the roller running for
+ * {@link #TIME_SPIKE_INTAKE}; the submersible gives up a sample every {@link #TIME_SUB_INTAKE} of the same
+ */
+final class SampleModel {
+
+    public static double
+            CAPTURE_RADIUS = 3,
+            TIME_SPIKE_INTAKE = 0.2,
+            TIME_SUB_INTAKE = 1.5,
+            SUB_HALF_WIDTH = 13.75,
+            SUB_HALF_LENGTH = 22.25,
+            MM_PER_INCH = 25.4;
+
+    private final ArrayList<Vector2d> spikeMarks;
+    private final SimulatedDevices.Color colorSensor;
+    private final SimulatedDevices.CRServo roller;
+
+    private final float[] yellow;
+
+    private boolean inBucket, depositHadSample, depositWasBasketReady;
+    private double timeIntaking;
+
+    int samplesScored, specimensScored;
+
+    SampleModel(SimulatedDevices devices, Vector2d... spikeMarks) {
+        this.spikeMarks = new ArrayList<>(Arrays.asList(spikeMarks));
+        colorSensor = devices.colorSensor("bucket color");
+        roller = devices.crServo("intake");
+
+        HSV min = Intake.minYellow, max = Intake.maxYellow;
+        yellow = toRGB(
+                0.5 * (min.hue + max.hue),
+                0.5 * (min.saturation + max.saturation),
+                0.5 * (min.value + max.value)
+        );
+    }
+
+    /**
+     * @param liftHeight        Inches, from {@link LiftModel}
+     * @param extendoLength     Millimeters, from {@link ExtendoModel}
+     * @param bucketAngle       Degrees, from the bucket's {@link ServoModel}
+     */
+    void update(double dt, Robot robot, Pose2d pose, double liftHeight, double extendoLength, double bucketAngle) {
+
+        boolean depositHasSample = robot.deposit.hasSample();
+
+        // Intake handed its sample to the deposit
+        if (inBucket && depositHasSample && !depositHadSample) inBucket = false;
+
+        // Deposit let go of a sample or specimen
+        if (depositHadSample && !depositHasSample) {
+            if (depositWasBasketReady) {
+                if (liftHeight >= Deposit.HEIGHT_BASKET_HIGH - 1) samplesScored++;
+            } else if (liftHeight >= Deposit.HEIGHT_CHAMBER_HIGH) specimensScored++;
+        }
+
+        depositHadSample = depositHasSample;
+        depositWasBasketReady = robot.deposit.basketReady();
+
+        boolean intaking = !inBucket && roller.power > 0 && bucketAngle >= Intake.ANGLE_BUCKET_OVER_BARRIER;
+
+        double reach = 0.5 * Auto.LENGTH_ROBOT + extendoLength / MM_PER_INCH;
+        double heading = pose.heading.toDouble();
+        Vector2d bucket = new Vector2d(
+                pose.position.x + reach * cos(heading),
+                pose.position.y + reach * sin(heading)
+        );
+
+        Vector2d spikeMark = null;
+        for (Vector2d mark : spikeMarks) if (mark.minus(bucket).norm() <= CAPTURE_RADIUS) spikeMark = mark;
+
+        boolean inSub = abs(bucket.x) <= SUB_HALF_WIDTH && abs(bucket.y) <= SUB_HALF_LENGTH;
+
+        if (intaking && spikeMark != null) {
+            timeIntaking += dt;
+            if (timeIntaking >= TIME_SPIKE_INTAKE) {
+                spikeMarks.remove(spikeMark);
+                inBucket = true;
+            }
+        } else if (intaking && inSub) {
+            timeIntaking += dt;
+            if (timeIntaking >= TIME_SUB_INTAKE) inBucket = true;
+        } else if (!intaking) timeIntaking = 0;
+
+        if (inBucket) timeIntaking = 0;
+
+        NormalizedRGBA rgba = colorSensor.rgba;
+        rgba.red = inBucket ? yellow[0] : 0;
+        rgba.green = inBucket ? yellow[1] : 0;
+        rgba.blue = inBucket ? yellow[2] : 0;
+    }
+
+    /**
+     * @param hue           Hue in [0, 360]
+     * @param saturation    Saturation in [0, 1]
+     * @param value         Value in [0, 1]
+     * @return Red, green and blue in [0, 1], as a {@link NormalizedRGBA} reports them
+     */
+    private static float[] toRGB(double hue, double saturation, double value) {
+        double chroma = value * saturation;
+        double x = chroma * (1 - abs((hue / 60) % 2 - 1));
+        double m = value - chroma;
+
+        double r, g, b;
+        switch ((int) (hue / 60) % 6) {
+            case 0:     r = chroma; g = x;      b = 0;      break;
+            case 1:     r = x;      g = chroma; b = 0;      break;
+            case 2:     r = 0;      g = chroma; b = x;      break;
+            case 3:     r = 0;      g = x;      b = chroma; break;
+            case 4:     r = x;      g = 0;      b = chroma; break;
+            default:    r = chroma; g = 0;      b = x;      break;
+        }
+        return new float[]{(float) (r + m), (float) (g + m), (float) (b + m)};
+    }
+}
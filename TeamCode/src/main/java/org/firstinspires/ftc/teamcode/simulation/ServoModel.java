@@ -0,0 +1,42 @@
+package org.firstinspires.ftc.teamcode.simulation;
+
+import static com.qualcomm.robotcore.util.Range.clip;
+
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.SimulatedDevices;
+
+/**
+ * Position servo that slews to its commanded angle at a fixed rate
+ */
+final class ServoModel {
+
+    private final SimulatedDevices.Servo servo;
+    private final double range, degreesPerSecond;
+    private final boolean reversed;
+
+    private double angle;
+
+    /**
+     * @param range     Degrees of travel, as given to {@link org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo}
+     * @param reversed  Whether the {@link org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo} is reversed
+     */
+    ServoModel(SimulatedDevices.Servo servo, double range, boolean reversed, double degreesPerSecond, double startAngle) {
+        this.servo = servo;
+        this.range = range;
+        this.reversed = reversed;
+        this.degreesPerSecond = degreesPerSecond;
+        this.angle = startAngle;
+    }
+
+    void update(double dt) {
+        if (Double.isNaN(servo.position)) return;
+
+        double target = (reversed ? 1 - servo.position : servo.position) * range;
+        double maxStep = degreesPerSecond * dt;
+
+        angle += clip(target - angle, -maxStep, maxStep);
+    }
+
+    double getAngle() {
+        return angle;
+    }
+}
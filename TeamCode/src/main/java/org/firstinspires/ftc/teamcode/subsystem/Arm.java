@@ -8,9 +8,12 @@ import androidx.annotation.NonNull;
 
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
 
 @Config
 public final class Arm {
@@ -32,7 +35,7 @@ public final class Arm {
             SAMPLE =    new Arm.Position(355, 355, "SAMPLE"),
             PRELOADED = new Arm.Position(140, 320, "PRELOADED");
 
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
     private boolean movingToTarget = false;
     private double getTimeTraveled() {
         return movingToTarget ? timer.seconds() : 0;
@@ -42,8 +45,17 @@ public final class Arm {
     private final CachedSimpleServo rServo, lServo;
 
     public Arm(HardwareMap hardwareMap) {
-        rServo = getAxon(hardwareMap, "arm right");
-        lServo = getAxon(hardwareMap, "arm left").reversed();
+        this(new HardwareMapDevices(hardwareMap));
+    }
+
+    public Arm(DeviceMap devices) {
+        this(devices, devices.clock());
+    }
+
+    public Arm(DeviceMap devices, LoopClock clock) {
+        rServo = getAxon(devices, "arm right");
+        lServo = getAxon(devices, "arm left").reversed();
+        timer = new LoopTimer(clock);
     }
 
     private double timeToReachTarget() {
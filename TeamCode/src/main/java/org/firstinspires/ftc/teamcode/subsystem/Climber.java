@@ -3,9 +3,9 @@ package org.firstinspires.ftc.teamcode.subsystem;
 import static org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo.getGBServo;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.teamcode.subsystem.utility.SimpleServoPivot;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
 
 @Config
 public final class Climber {
@@ -25,15 +25,15 @@ public final class Climber {
 
     private final Lift lift;
 
-    Climber(HardwareMap hardwareMap, Lift lift) {
+    Climber(DeviceMap devices, Lift lift) {
 
         this.lift = lift;
 
         activeHooks = new SimpleServoPivot(
                 ANGLE_HOOKS_ACTIVE_RETRACTED,
                 ANGLE_HOOKS_ACTIVE_EXTENDED,
-                getGBServo(hardwareMap, "right active hook").reversed(),
-                getGBServo(hardwareMap, "left active hook")
+                getGBServo(devices, "right active hook").reversed(),
+                getGBServo(devices, "left active hook")
         );
     }
 
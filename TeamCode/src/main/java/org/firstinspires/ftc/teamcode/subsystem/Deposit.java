@@ -21,11 +21,12 @@ import static org.firstinspires.ftc.teamcode.control.vision.pipeline.Sample.RED;
 import static org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo.getGBServo;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
 import org.firstinspires.ftc.teamcode.control.vision.pipeline.Sample;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedSimpleServo;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
 
 @Config
 public final class Deposit {
@@ -79,7 +80,7 @@ public final class Deposit {
     public final Arm arm;
     private final CachedSimpleServo claw;
 
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
 
     private Sample sample, specimenColor = NEUTRAL;
 
@@ -93,10 +94,11 @@ public final class Deposit {
 
     public static boolean level1Ascent = false;
 
-    Deposit(HardwareMap hardwareMap) {
-        lift = new Lift(hardwareMap);
-        arm = new Arm(hardwareMap);
-        claw = getGBServo(hardwareMap, "claw").reversed();
+    Deposit(DeviceMap devices, LoopClock clock) {
+        lift = new Lift(devices, clock);
+        arm = new Arm(devices, clock);
+        claw = getGBServo(devices, "claw").reversed();
+        timer = new LoopTimer(clock);
     }
 
     void run(Intake intake, boolean climbing) {
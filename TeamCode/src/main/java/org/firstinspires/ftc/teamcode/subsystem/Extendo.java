@@ -5,7 +5,8 @@ import static com.arcrobotics.ftclib.hardware.motors.Motor.GoBILDA.RPM_117;
 import static com.arcrobotics.ftclib.hardware.motors.Motor.GoBILDA.RPM_312;
 import static com.qualcomm.robotcore.util.Range.clip;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
-import static java.lang.Double.max;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.PI;
 import static java.lang.Math.abs;
 import static java.lang.Math.asin;
@@ -16,12 +17,14 @@ import static java.lang.Math.sqrt;
 
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.TouchSensor;
 
 import org.firstinspires.ftc.teamcode.control.controller.PIDController;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
-import org.firstinspires.ftc.teamcode.control.motion.State;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedMotorEx;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.TouchDevice;
 
 @Config
 public final class Extendo {
@@ -36,25 +39,40 @@ public final class Extendo {
             LENGTH_EXTENDED = Math.MM_EXTENSION,
             kS = 0;
 
+    /**
+     * Whether {@link Math} reads its conversions from lookup tables instead of the closed-form trig
+     */
+    public static boolean LOOKUP_TABLES = true;
+
     public static PIDGains pidGains = new PIDGains(0.015, 0.01);
 
     private final CachedMotorEx motor;
-    private final PIDController controller = new PIDController();
-    private final TouchSensor extendoSensor;
+    private final PIDController controller;
+    private final TouchDevice extendoSensor;
 
     private double position, target, manualPower;
 
     public Extendo(HardwareMap hardwareMap) {
+        this(new HardwareMapDevices(hardwareMap));
+    }
+
+    public Extendo(DeviceMap devices) {
+        this(devices, devices.clock());
+    }
+
+    public Extendo(DeviceMap devices, LoopClock clock) {
 
-        motor = new CachedMotorEx(hardwareMap, "extendo", RPM_117);
+        motor = new CachedMotorEx(devices, "extendo", RPM_117);
         motor.setInverted(true);
 
-        motor.encoder = new CachedMotorEx(hardwareMap, "right front", RPM_312).encoder;
+        motor.encoder = new CachedMotorEx(devices, "right front", RPM_312).encoder;
         motor.encoder.setDirection(REVERSE);
         motor.encoder.setDistancePerPulse(2 * PI / motor.getCPR());
         motor.encoder.reset();
 
-        extendoSensor = hardwareMap.get(TouchSensor.class, "extendo sensor");
+        extendoSensor = devices.touchSensor("extendo sensor");
+
+        controller = new PIDController(clock);
     }
 
     public void runManual(double power) {
@@ -87,9 +105,9 @@ public final class Extendo {
         }
 
         controller.setGains(pidGains);
-        controller.setTarget(new State(setpoint));
+        controller.setTarget(setpoint);
 
-        motor.set(controller.calculate(new State(getPosition())));
+        motor.set(controller.calculate(getPosition()));
     }
 
     public void printTelemetry() {
@@ -138,7 +156,7 @@ public final class Extendo {
     }
 
     /// <a href="https://www.desmos.com/calculator/guflnpad5a">Desmos diagrams + graphs</a>
-    private static final class Math {
+    public static final class Math {
 
         private static final double
                 A = 240,        A_2 = A*A,
@@ -149,24 +167,69 @@ public final class Extendo {
                 b = 0.5 / A,                b_2 = b*b,
                 a = b * (B_2 - A_2 - H_2),  a_2 = a*a,
                 bh2a = 2 * b * H_2 + a,
-                ab2 = a * b * 2,
+                ab2 = a * b * 2;
+
+        public static final double
                 MM_RETRACTED = 144.39994388,
                 MM_EXTENSION = 410,
                 MM_EXTENDED = MM_RETRACTED + MM_EXTENSION,
-                RAD_RETRACTED = radians(MM_RETRACTED),
-                NORM_FACTOR = 1 / radiansPerMillimeter(MM_RETRACTED);
+                RAD_RETRACTED = exactRadians(MM_RETRACTED),
+                RAD_EXTENDED = exactRadians(MM_EXTENDED),
+                NORM_FACTOR = 1 / exactRadiansPerMillimeter(MM_RETRACTED);
+
+        public static final int TABLE_SIZE = 1024;
+
+        /**
+         * Largest interpolation error allowed before {@link Table#isAccurate()} fails and the closed form is used
+         */
+        public static final double
+                MAX_ERROR_MM = 1e-3,
+                MAX_ERROR_RAD = 1e-5,
+                MAX_ERROR_RAD_PER_MM = 1e-6;
+
+        private static Table table = new Table(TABLE_SIZE);
+
+        /**
+         * Rebuild the lookup tables with a different number of points across the extendo's travel
+         */
+        public static void buildTable(int size) {
+            table = new Table(size);
+        }
 
-        private static double millimeters(double radians) {
+        public static Table getTable() {
+            return table;
+        }
+
+        public static double millimeters(double radians) {
+            Table table = Math.table;
+            return useTable(table) && table.inRadians(radians) ? table.millimeters(radians) : exactMillimeters(radians);
+        }
+
+        public static double radians(double millimeters) {
+            Table table = Math.table;
+            return useTable(table) && table.inMillimeters(millimeters) ? table.radians(millimeters) : exactRadians(millimeters);
+        }
+
+        public static double radiansPerMillimeter(double millimeters) {
+            Table table = Math.table;
+            return useTable(table) && table.inMillimeters(millimeters) ? table.radiansPerMillimeter(millimeters) : exactRadiansPerMillimeter(millimeters);
+        }
+
+        private static boolean useTable(Table table) {
+            return LOOKUP_TABLES && table.isAccurate();
+        }
+
+        public static double exactMillimeters(double radians) {
             double sin = sin(radians);
             return sqrt(B2_H2 - AH2 * sin - A_2 * sin * sin) - A * cos(radians);
         }
 
-        private static double radians(double millimeters) {
+        public static double exactRadians(double millimeters) {
             double x_2 = millimeters*millimeters;
             return PI - asin(  (a - b*x_2) / sqrt(H_2 + x_2)  ) - atan(millimeters / H);
         }
 
-        private static double radiansPerMillimeter(double millimeters) {
+        public static double exactRadiansPerMillimeter(double millimeters) {
             double x_2 = millimeters*millimeters;
             double x2h2 = x_2 + H_2;
             double num = millimeters * (b*x_2 + bh2a);
@@ -174,10 +237,101 @@ public final class Extendo {
             return num / denom - H / x2h2;
         }
 
-        private static double scaledPower(double power, double millimeters) {
+        public static double scaledPower(double power, double millimeters) {
             return power * NORM_FACTOR * radiansPerMillimeter(millimeters) + (power <= 0 ? 0 : (millimeters - MM_RETRACTED) * kS);
         }
 
+        /**
+         * The linkage's conversions sampled evenly from fully retracted to fully extended <p>
+         * Position lookups use cubic Hermite interpolation, with the exact derivative at each point as tangent.
+         * The derivative lookup is linear. Every table checks itself against the closed form on construction
+         */
+        public static final class Table {
+
+            private final double radStep, mmStep;
+            private final double[] mmAtRad, mmPerRadAtRad, radAtMm, radPerMmAtMm;
+
+            public final double maxErrorMillimeters, maxErrorRadians, maxErrorRadiansPerMillimeter;
+
+            public Table(int size) {
+
+                size = max(size, 2);
+
+                radStep = (RAD_EXTENDED - RAD_RETRACTED) / (size - 1);
+                mmStep = (MM_EXTENDED - MM_RETRACTED) / (size - 1);
+
+                mmAtRad = new double[size];
+                mmPerRadAtRad = new double[size];
+                radAtMm = new double[size];
+                radPerMmAtMm = new double[size];
+
+                for (int i = 0; i < size; i++) {
+                    double radians = RAD_RETRACTED + i * radStep;
+                    mmAtRad[i] = exactMillimeters(radians);
+                    mmPerRadAtRad[i] = 1 / exactRadiansPerMillimeter(mmAtRad[i]);
+
+                    double millimeters = MM_RETRACTED + i * mmStep;
+                    radAtMm[i] = exactRadians(millimeters);
+                    radPerMmAtMm[i] = exactRadiansPerMillimeter(millimeters);
+                }
+
+                // Self-check between every pair of points
+                double errorMm = 0, errorRad = 0, errorRadPerMm = 0;
+                int checks = 10 * (size - 1);
+                for (int i = 0; i <= checks; i++) {
+                    double radians = RAD_RETRACTED + i * (RAD_EXTENDED - RAD_RETRACTED) / checks;
+                    double millimeters = MM_RETRACTED + i * (MM_EXTENDED - MM_RETRACTED) / checks;
+                    errorMm = max(errorMm, abs(millimeters(radians) - exactMillimeters(radians)));
+                    errorRad = max(errorRad, abs(radians(millimeters) - exactRadians(millimeters)));
+                    errorRadPerMm = max(errorRadPerMm, abs(radiansPerMillimeter(millimeters) - exactRadiansPerMillimeter(millimeters)));
+                }
+                maxErrorMillimeters = errorMm;
+                maxErrorRadians = errorRad;
+                maxErrorRadiansPerMillimeter = errorRadPerMm;
+            }
+
+            public boolean isAccurate() {
+                return maxErrorMillimeters <= MAX_ERROR_MM &&
+                        maxErrorRadians <= MAX_ERROR_RAD &&
+                        maxErrorRadiansPerMillimeter <= MAX_ERROR_RAD_PER_MM;
+            }
+
+            boolean inRadians(double radians) {
+                return radians >= RAD_RETRACTED && radians <= RAD_EXTENDED;
+            }
+
+            boolean inMillimeters(double millimeters) {
+                return millimeters >= MM_RETRACTED && millimeters <= MM_EXTENDED;
+            }
+
+            double millimeters(double radians) {
+                return hermite(mmAtRad, mmPerRadAtRad, radStep, (radians - RAD_RETRACTED) / radStep);
+            }
+
+            double radians(double millimeters) {
+                return hermite(radAtMm, radPerMmAtMm, mmStep, (millimeters - MM_RETRACTED) / mmStep);
+            }
+
+            double radiansPerMillimeter(double millimeters) {
+                double x = (millimeters - MM_RETRACTED) / mmStep;
+                int i = min((int) x, radPerMmAtMm.length - 2);
+                double t = x - i;
+                return radPerMmAtMm[i] + t * (radPerMmAtMm[i + 1] - radPerMmAtMm[i]);
+            }
+
+            /**
+             * @param x Index into the table, fractional between points
+             */
+            private static double hermite(double[] values, double[] slopes, double step, double x) {
+                int i = min((int) x, values.length - 2);
+                double t = x - i, t2 = t * t, t3 = t2 * t;
+                return (2*t3 - 3*t2 + 1) * values[i] +
+                        (t3 - 2*t2 + t) * step * slopes[i] +
+                        (-2*t3 + 3*t2) * values[i + 1] +
+                        (t3 - t2) * step * slopes[i + 1];
+            }
+        }
+
         public static void main(String[] args) {
 
             System.out.println(millimeters(RAD_RETRACTED) - 144.39994388);
@@ -187,6 +341,15 @@ public final class Extendo {
             System.out.println(scaledPower(1, MM_EXTENDED) - 0.445959977881);
             System.out.println(scaledPower(1, MM_RETRACTED) - 1);
 
+            for (int size : new int[]{64, 256, TABLE_SIZE, 4096}) {
+                Table table = new Table(size);
+                System.out.println(size + " points: " +
+                        table.maxErrorMillimeters + " mm, " +
+                        table.maxErrorRadians + " rad, " +
+                        table.maxErrorRadiansPerMillimeter + " rad/mm" +
+                        (table.isAccurate() ? "" : " (too coarse, closed form used)"));
+            }
+
         }
 
     }
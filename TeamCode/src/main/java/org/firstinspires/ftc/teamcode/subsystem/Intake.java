@@ -17,14 +17,15 @@ import static org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.Ca
 import static java.lang.Math.abs;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.qualcomm.robotcore.hardware.CRServo;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.TouchSensor;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
 import org.firstinspires.ftc.teamcode.control.gainmatrix.HSV;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
 import org.firstinspires.ftc.teamcode.control.vision.pipeline.Sample;
 import org.firstinspires.ftc.teamcode.subsystem.utility.SimpleServoPivot;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.CRServoDevice;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.TouchDevice;
 import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.ColorSensor;
 
 @Config
@@ -51,6 +52,11 @@ public final class Intake {
             SPEED_RETRACTED = -0.05,
             COLOR_SENSOR_GAIN = 1;
 
+    /**
+     * Read the color sensor on its own thread instead of blocking the loop on I2C
+     */
+    public static boolean ASYNC_COLOR_SENSOR = true;
+
     /**
      * HSV value bound for intake bucket sample detection
      */
@@ -97,7 +103,7 @@ public final class Intake {
                 null;
     }
 
-    private final CRServo roller;
+    private final CRServoDevice roller;
     private double rollerSpeed;
 
     private final ColorSensor colorSensor;
@@ -105,13 +111,13 @@ public final class Intake {
     private Sample sample, badSample;
 
     private final SimpleServoPivot bucket;
-    private final TouchSensor bucketSensor;
+    private final TouchDevice bucketSensor;
 
     public final Extendo extendo;
 
     private Intake.State state = RETRACTED;
 
-    private final ElapsedTime timer = new ElapsedTime();
+    private final LoopTimer timer;
 
     enum State {
         EJECTING_SAMPLE,
@@ -128,22 +134,25 @@ public final class Intake {
         badSample = redAlliance ? BLUE : RED;
     }
 
-    Intake(HardwareMap hardwareMap) {
+    Intake(DeviceMap devices, LoopClock clock) {
 
-        extendo = new Extendo(hardwareMap);
+        extendo = new Extendo(devices, clock);
 
         bucket = new SimpleServoPivot(
                 ANGLE_BUCKET_RETRACTED,
                 ANGLE_BUCKET_PRE_TRANSFER,
-                getAxon(hardwareMap, "bucket right").reversed(),
-                getAxon(hardwareMap, "bucket left")
+                getAxon(devices, "bucket right").reversed(),
+                getAxon(devices, "bucket left")
         );
 
-        roller = hardwareMap.get(CRServo.class, "intake");
+        roller = devices.crServo("intake");
+
+        colorSensor = new ColorSensor(devices, "bucket color", (float) COLOR_SENSOR_GAIN);
+        colorSensor.setAsync(ASYNC_COLOR_SENSOR);
 
-        colorSensor = new ColorSensor(hardwareMap, "bucket color", (float) COLOR_SENSOR_GAIN);
+        bucketSensor = devices.touchSensor("bucket pivot sensor");
 
-        bucketSensor = hardwareMap.get(TouchSensor.class, "bucket pivot sensor");
+        timer = new LoopTimer(clock);
     }
 
     void run(Deposit deposit, boolean stopRoller) {
@@ -263,7 +272,8 @@ public final class Intake {
 
     private boolean sampleLost(State returnTo) {
         colorSensor.update();
-        sample = hsvToSample(hsv = colorSensor.getHSV());
+        // without a fresh reading, keep what the last one said
+        if (colorSensor.hasReading()) sample = hsvToSample(hsv = colorSensor.getHSV());
 
         if (hasSample()) return false;
 
@@ -295,6 +305,13 @@ public final class Intake {
         return extendo.getPosition() >= Extendo.LENGTH_DEPOSIT_CLEAR;
     }
 
+    /**
+     * @param seconds Shortest time between color sensor reads
+     */
+    void setColorSensorPeriod(double seconds) {
+        colorSensor.setMinPeriod(seconds);
+    }
+
     public void runRoller(double power) {
         if (power != 0) setExtended(true);
         if (state == INTAKING) rollerSpeed = power;
@@ -7,13 +7,13 @@ import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
 import static java.lang.Math.abs;
 
 import com.acmerobotics.dashboard.config.Config;
-import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 
 import org.firstinspires.ftc.teamcode.control.controller.PIDController;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
-import org.firstinspires.ftc.teamcode.control.motion.State;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedMotorEx;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
 
 @Config
 public final class Lift {
@@ -26,28 +26,28 @@ public final class Lift {
     public static double
             kG = 0.125,
             INCHES_PER_TICK = 0.0088581424,
-            POSITION_TOLERANCE = 0.25,
-            MAX_VOLTAGE = 13;
+            POSITION_TOLERANCE = 0.25;
 
     // Motors and variables to manage their readings:
     private final CachedMotorEx[] motors;
-    private final PIDController controller = new PIDController();
-    private final VoltageSensor batteryVoltageSensor;
+    private final PIDController controller;
+    private final BatteryVoltage batteryVoltage;
 
     private double position, target, manualPower;
 
-    Lift(HardwareMap hardwareMap) {
-        this.batteryVoltageSensor = hardwareMap.voltageSensor.iterator().next();
+    Lift(DeviceMap devices, LoopClock clock) {
+        this.batteryVoltage = devices.batteryVoltage();
+        this.controller = new PIDController(clock);
         this.motors = new CachedMotorEx[]{
-                new CachedMotorEx(hardwareMap, "lift right", RPM_312),
-                new CachedMotorEx(hardwareMap, "lift left", RPM_312),
-                new CachedMotorEx(hardwareMap, "lift 3", RPM_312)
+                new CachedMotorEx(devices, "lift right", RPM_312),
+                new CachedMotorEx(devices, "lift left", RPM_312),
+                new CachedMotorEx(devices, "lift 3", RPM_312)
         };
         motors[1].setInverted(true);
 
-        motors[0].encoder = new CachedMotorEx(hardwareMap, "right back", RPM_312).encoder;
-        motors[1].encoder = new CachedMotorEx(hardwareMap, "left back", RPM_312).encoder;
-//        motors[2].encoder = new CachedMotorEx(hardwareMap, "left front", RPM_312).encoder;
+        motors[0].encoder = new CachedMotorEx(devices, "right back", RPM_312).encoder;
+        motors[1].encoder = new CachedMotorEx(devices, "left back", RPM_312).encoder;
+//        motors[2].encoder = new CachedMotorEx(devices, "left front", RPM_312).encoder;
 
 //        motors[1].encoder.setDirection(REVERSE);
 
@@ -77,7 +77,7 @@ public final class Lift {
 
         position = 0.5 * (motors[0].encoder.getDistance() + motors[1].encoder.getDistance());
 
-        double kG = !isExtended() || climbing ? 0 : Lift.kG * MAX_VOLTAGE / batteryVoltageSensor.getVoltage();
+        double kG = !isExtended() || climbing ? 0 : Lift.kG * batteryVoltage.getScalar();
         double output;
 
         if (manualPower != 0) {
@@ -88,8 +88,8 @@ public final class Lift {
         } else {
 
             controller.setGains(pidGains);
-            controller.setTarget(new State(canMove ? getTarget() : getPosition()));
-            output = controller.calculate(new State(getPosition()));
+            controller.setTarget(canMove ? getTarget() : getPosition());
+            output = controller.calculate(getPosition());
 
         }
 
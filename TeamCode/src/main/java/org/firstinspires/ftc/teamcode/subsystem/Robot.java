@@ -2,37 +2,120 @@ package org.firstinspires.ftc.teamcode.subsystem;
 
 import static org.firstinspires.ftc.teamcode.opmode.Auto.divider;
 import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.BULK_READ;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.CLIMBER;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.DEPOSIT;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler.Section.INTAKE;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level.NO_FLIGHT_RECORDER;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level.NO_POSE_HISTORY;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog.Level.SLOW_COLOR_SENSOR;
 
+import com.acmerobotics.dashboard.config.Config;
 import com.acmerobotics.roadrunner.Pose2d;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.teamcode.control.motion.SampledClock;
 import org.firstinspires.ftc.teamcode.control.vision.pipeline.Sample;
 import org.firstinspires.ftc.teamcode.roadrunner.PinpointDrive;
 import org.firstinspires.ftc.teamcode.subsystem.utility.BulkReader;
+import org.firstinspires.ftc.teamcode.subsystem.utility.FlightLog;
+import org.firstinspires.ftc.teamcode.subsystem.utility.LoopProfiler;
+import org.firstinspires.ftc.teamcode.subsystem.utility.LoopWatchdog;
+import org.firstinspires.ftc.teamcode.subsystem.utility.Scheduler;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
 
+import java.util.function.Function;
+
+@Config
 public final class Robot {
 
+    public static double MECHANISM_PERIOD = 0.01;
+
     public final PinpointDrive drivetrain;
     public final Intake intake;
     public final Deposit deposit;
     public final Climber climber;
     public final BulkReader bulkReader;
-
-    private final ElapsedTime loopTimer = new ElapsedTime();
+    public final SampledClock clock;
+    public final BatteryVoltage batteryVoltage;
+    public final IOCounter ioCounter;
+    public final LoopProfiler profiler;
+    public final Scheduler scheduler;
+    public final LoopWatchdog watchdog;
 
     public Robot(HardwareMap hardwareMap, Pose2d startPose) {
-        drivetrain = new PinpointDrive(hardwareMap, startPose);
-        bulkReader = new BulkReader(hardwareMap);
-        intake = new Intake(hardwareMap);
-        deposit = new Deposit(hardwareMap);
-        climber = new Climber(hardwareMap, deposit.lift);
+        this(new HardwareMapDevices(hardwareMap), profiler -> new PinpointDrive(hardwareMap, startPose, profiler), new BulkReader(hardwareMap));
+    }
+
+    /**
+     * Builds the robot on any {@link DeviceMap}, e.g. simulated devices with no Control Hub attached
+     */
+    public Robot(DeviceMap devices, Pose2d startPose) {
+        this(devices, profiler -> new PinpointDrive(devices, startPose, profiler), new BulkReader());
+    }
+
+    /**
+     * @param drivetrain Builds the drivetrain around this robot's profiler
+     */
+    private Robot(DeviceMap devices, Function<LoopProfiler, PinpointDrive> drivetrain, BulkReader bulkReader) {
+        // on the device clock, so simulated robots profile simulated time
+        profiler = new LoopProfiler(devices.clock());
+        this.drivetrain = drivetrain.apply(profiler);
+        this.bulkReader = bulkReader;
+        clock = new SampledClock(devices.clock());
+        // shared with earlier OpModes on the same hardware map
+        batteryVoltage = devices.batteryVoltage();
+        batteryVoltage.reset();
+        ioCounter = devices.ioCounter();
+        ioCounter.reset();
+        intake = new Intake(devices, clock);
+        deposit = new Deposit(devices, clock);
+        climber = new Climber(devices, deposit.lift);
+
+        scheduler = new Scheduler(devices.clock());
+        // mechanism control is never deferred, so a slow loop can't leave motors at their last power
+        scheduler.add("Mechanisms", MECHANISM_PERIOD, 0, this::runMechanisms);
+
+        watchdog = new LoopWatchdog(devices.clock());
+        watchdog.addListener((from, to) -> {
+            intake.setColorSensorPeriod(to.atLeast(SLOW_COLOR_SENSOR) ? LoopWatchdog.SLOW_COLOR_SENSOR_PERIOD : 0);
+            this.drivetrain.drawingPoseHistory = !to.atLeast(NO_POSE_HISTORY);
+            this.drivetrain.recording = !to.atLeast(NO_FLIGHT_RECORDER);
+        });
     }
 
     public void run() {
+        clock.sample();
+        profiler.lap();
+        watchdog.update();
+        batteryVoltage.update();
+        ioCounter.endLoop();
+        // one budget for both, so the scheduler never defers work in loops the watchdog counts as on time
+        scheduler.setLoopBudget(LoopWatchdog.LOOP_BUDGET);
+        scheduler.run();
+    }
+
+    private void runMechanisms() {
+        long start = profiler.start();
         intake.run(deposit, climber.isActive() || Deposit.level1Ascent);
+        start = profiler.stop(INTAKE, start);
         deposit.run(intake, climber.isActive());
+        start = profiler.stop(DEPOSIT, start);
         climber.run();
+        profiler.stop(CLIMBER, start);
+    }
+
+    /**
+     * Call first thing every loop
+     */
+    public void bulkRead() {
+        scheduler.startLoop();
+        long start = profiler.start();
+        bulkReader.bulkRead();
+        profiler.stop(BULK_READ, start);
     }
 
     public Sample getSample() {
@@ -43,8 +126,14 @@ public final class Robot {
     }
 
     public void printTelemetry() {
-        mTelemetry.addData("LOOP TIME", loopTimer.seconds());
-        loopTimer.reset();
+        profiler.printTelemetry();
+        watchdog.printTelemetry();
+        divider();
+        batteryVoltage.printTelemetry();
+        ioCounter.printTelemetry();
+        FlightLog.printTelemetry();
+        divider();
+        scheduler.printTelemetry();
         divider();
         drivetrain.printTelemetry();
         divider();
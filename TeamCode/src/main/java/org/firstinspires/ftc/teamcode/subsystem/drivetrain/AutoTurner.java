@@ -6,14 +6,14 @@ import static java.lang.Math.toDegrees;
 
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 import com.qualcomm.robotcore.util.ElapsedTime;
 
 import org.firstinspires.ftc.teamcode.control.controller.PIDController;
 import org.firstinspires.ftc.teamcode.control.filter.FIRLowPassFilter;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.LowPassGains;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
-import org.firstinspires.ftc.teamcode.control.motion.State;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
 
 @Config
 public class AutoTurner {
@@ -21,8 +21,7 @@ public class AutoTurner {
     public static double
             kStatic = 0.0,
             TURN_SETTLING_TIME = 0.0,
-            TRANSLATION_SETTLING_TIME = 0.0,
-            MAX_VOLTAGE = 13;
+            TRANSLATION_SETTLING_TIME = 0.0;
 
     public static LowPassGains derivFilterGains = new LowPassGains(
             0.5,
@@ -46,17 +45,17 @@ public class AutoTurner {
     private final FIRLowPassFilter kDFilter = new FIRLowPassFilter(derivFilterGains);
     private final PIDController headingController = new PIDController(kDFilter);
 
-    private final VoltageSensor batteryVoltageSensor;
+    private final BatteryVoltage batteryVoltage;
 
     public AutoTurner(HardwareMap hardwareMap) {
-        batteryVoltageSensor = hardwareMap.voltageSensor.iterator().next();
+        batteryVoltage = new HardwareMapDevices(hardwareMap).batteryVoltage();
     }
 
     public double calculate(double xCommand, double yCommand, double turnCommand, double heading) {
         headingController.setGains(pidGains);
         kDFilter.setGains(derivFilterGains);
 
-        double voltageScalar = MAX_VOLTAGE / batteryVoltageSensor.getVoltage();
+        double voltageScalar = batteryVoltage.getScalar();
         boolean useManualInput = turnCommand != 0.0;
 
         if (useManualInput || !useAutoTurn) turnSettlingTimer.reset();
@@ -69,8 +68,8 @@ public class AutoTurner {
             if (useManualInput || turnSettlingTimer.seconds() <= TURN_SETTLING_TIME) {
                 setTargetHeading(heading);
             } else if (translationSettlingTimer.seconds() > TRANSLATION_SETTLING_TIME) {
-                headingController.setTarget(new State(normalizeRadians(targetHeading - heading) + heading));
-                double pidOutput = -headingController.calculate(new State(heading));
+                headingController.setTarget(normalizeRadians(targetHeading - heading) + heading);
+                double pidOutput = -headingController.calculate(heading);
                 turnCommand = pidOutput + (Math.signum(pidOutput) * kStatic * voltageScalar);
             }
         }
@@ -16,20 +16,19 @@ import static java.lang.Math.toDegrees;
 
 import com.acmerobotics.dashboard.config.Config;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 
 import org.firstinspires.ftc.teamcode.control.filter.SlewRateLimiter;
 import org.firstinspires.ftc.teamcode.control.motion.EditablePose;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
 import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.HeadingIMU;
 
 @Config
 public final class SwerveDrivetrain {
 
-    public static double MAX_VOLTAGE = 13;
-
     private final SwerveModule[] modules;
 
-    private final VoltageSensor batteryVoltageSensor;
+    private final BatteryVoltage batteryVoltage;
 
     public SwerveDrivetrain(HardwareMap hardwareMap) {
 
@@ -40,7 +39,7 @@ public final class SwerveDrivetrain {
                 new SwerveModule(hardwareMap, FL),
         };
 
-        batteryVoltageSensor = hardwareMap.voltageSensor.iterator().next();
+        batteryVoltage = new HardwareMapDevices(hardwareMap).batteryVoltage();
 
         // TODO: adjust the names of the following hardware devices to match your configuration
 
@@ -163,7 +162,7 @@ public final class SwerveDrivetrain {
             turnCommand *= SLOW_FACTOR;
         }
 
-        double voltageScalar = MAX_VOLTAGE / batteryVoltageSensor.getVoltage();
+        double voltageScalar = batteryVoltage.getScalar();
 
         yCommand *= voltageScalar;
         xCommand *= voltageScalar;
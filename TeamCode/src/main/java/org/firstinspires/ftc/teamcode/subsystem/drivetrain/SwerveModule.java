@@ -3,7 +3,6 @@ package org.firstinspires.ftc.teamcode.subsystem.drivetrain;
 import static com.arcrobotics.ftclib.hardware.motors.Motor.GoBILDA.BARE;
 import static com.arcrobotics.ftclib.hardware.motors.Motor.ZeroPowerBehavior.BRAKE;
 import static org.firstinspires.ftc.robotcore.external.navigation.AngleUnit.normalizeRadians;
-import static org.firstinspires.ftc.teamcode.subsystem.drivetrain.SwerveDrivetrain.MAX_VOLTAGE;
 import static java.lang.Math.PI;
 import static java.lang.Math.abs;
 import static java.lang.Math.signum;
@@ -12,12 +11,13 @@ import com.acmerobotics.dashboard.config.Config;
 import com.arcrobotics.ftclib.hardware.motors.CRServo;
 import com.arcrobotics.ftclib.hardware.motors.Motor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.VoltageSensor;
 
 import org.firstinspires.ftc.teamcode.control.controller.PIDController;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.PIDGains;
 import org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware.CachedMotorEx;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
 import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.AnalogEncoder;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
 
 @Config
 public final class SwerveModule {
@@ -79,7 +79,7 @@ public final class SwerveModule {
 
     private final CachedMotorEx motor;
     private final CRServo servo;
-    private final VoltageSensor batteryVoltageSensor;
+    private final BatteryVoltage batteryVoltage;
 
     private final PIDController thetaController = new PIDController();
 
@@ -95,7 +95,7 @@ public final class SwerveModule {
         this.servo = new CRServo(hardwareMap, id.servoName);
         this.thetaEncoder = new AnalogEncoder(hardwareMap, id.encoderName, 2 * PI);
 
-        this.batteryVoltageSensor = hardwareMap.voltageSensor.iterator().next();
+        this.batteryVoltage = new HardwareMapDevices(hardwareMap).batteryVoltage();
 
         this.target = this.current = new SwerveModule.State(0, 0);
     }
@@ -119,16 +119,16 @@ public final class SwerveModule {
 
     public void run() {
 
-        double scalar = MAX_VOLTAGE / batteryVoltageSensor.getVoltage();
+        double scalar = batteryVoltage.getScalar();
 
         target.optimize(current);
 
         double thetaError = normalizeRadians(target.theta - current.theta);
         double thetaTarget = thetaError + current.theta;
 
-        thetaController.setTarget(new org.firstinspires.ftc.teamcode.control.motion.State(thetaTarget));
+        thetaController.setTarget(thetaTarget);
 
-        double pidOutput = thetaController.calculate(new org.firstinspires.ftc.teamcode.control.motion.State(current.theta));
+        double pidOutput = thetaController.calculate(current.theta);
         
         double staticFF = kS_SERVO * signum(pidOutput) * scalar;
 
@@ -3,12 +3,20 @@ package org.firstinspires.ftc.teamcode.subsystem.utility;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import java.util.Collections;
 import java.util.List;
 
 public final class BulkReader {
 
     private final List<LynxModule> revHubs;
 
+    /**
+     * No hubs to read from--for running without a Control Hub
+     */
+    public BulkReader() {
+        revHubs = Collections.emptyList();
+    }
+
     public BulkReader(HardwareMap hardwareMap) {
         revHubs = hardwareMap.getAll(LynxModule.class);
         for (LynxModule hub : revHubs) hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
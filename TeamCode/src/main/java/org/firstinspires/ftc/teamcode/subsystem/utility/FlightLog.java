@@ -0,0 +1,308 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Binary log of fixed-size numeric records, written to storage on a background thread <p>
+ * {@link Channel#begin()} claims a slot in a preallocated ring buffer, {@link Channel#put} fills it and
+ * {@link Channel#commit()} publishes it, so logging from the control loop never allocates or blocks on storage.
+ * When the ring is full, records are dropped and counted instead. Records must come from one thread, the OpMode's. <p>
+ * The writer thread starts with the first record and stops {@link #IDLE_TIMEOUT} seconds after the last one,
+ * so each OpMode gets its own file in {@link #DIRECTORY}. If a file can't be written, logging pauses and tries a
+ * new one after {@link #RETRY_PERIOD} seconds. Files are little-endian:
+ * <pre>
+ * header     "FLIGHTLG" (8 bytes), int version
+ * definition byte 0, short channel, short field count, string name, string field name (x field count)
+ * data       byte 1, short channel, long nanoTime, double value (x field count)
+ * dropped    byte 2, long records dropped since the file was opened
+ * </pre>
+ * where a string is a short byte length followed by UTF-8 bytes. A channel's definition always comes before its data
+ */
+@Config
+public final class FlightLog {
+
+    public static boolean ENABLED = true;
+
+    public static double
+            FLUSH_PERIOD = 0.02,
+            IDLE_TIMEOUT = 1,
+            RETRY_PERIOD = 5;
+
+    public static final String DIRECTORY = "/sdcard/FIRST/FlightLog";
+
+    public static final byte[] MAGIC = "FLIGHTLG".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+
+    public static final byte
+            DEFINITION = 0,
+            DATA = 1,
+            DROPPED = 2;
+
+    public static final int MAX_FIELDS = 16;
+
+    private static final String TAG = "FlightLog";
+
+    private static final int CAPACITY = 4096;
+    private static final int MAX_RECORD_BYTES = 1 + 2 + 8 + 8 * MAX_FIELDS;
+
+    // ring buffer, one slot per record:
+    private static final short[] slotChannels = new short[CAPACITY];
+    private static final long[] slotTimes = new long[CAPACITY];
+    private static final double[] slotValues = new double[CAPACITY * MAX_FIELDS];
+
+    /**
+     * Records published by the OpMode thread, and records consumed by the writer thread
+     */
+    private static volatile long tail, head;
+    private static volatile long dropped;
+
+    private static final CopyOnWriteArrayList<Channel> channels = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean running;
+
+    /**
+     * Why the last log file couldn't be written, or null
+     */
+    private static volatile String failure;
+    private static volatile long retryTime;
+    private static Thread writer;
+
+    private FlightLog() {}
+
+    /**
+     * @param name   Unique name of the record type
+     * @param fields Names of the values in each record, at most {@link #MAX_FIELDS}
+     */
+    public static synchronized Channel channel(String name, String... fields) {
+        for (Channel channel : channels) if (channel.name.equals(name)) return channel;
+        if (fields.length > MAX_FIELDS) throw new IllegalArgumentException(name + " has more than " + MAX_FIELDS + " fields");
+        Channel channel = new Channel((short) channels.size(), name, fields.clone());
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * @return Records dropped because the ring buffer was full
+     */
+    public static long getDropped() {
+        return dropped;
+    }
+
+    public static void printTelemetry() {
+        String failure = FlightLog.failure;
+        if (failure != null) mTelemetry.addData("FLIGHT LOG FAILED", failure);
+    }
+
+    public static final class Channel {
+
+        public final String name;
+        private final String[] fields;
+        private final short id;
+
+        private long slot = -1;
+        private int index;
+
+        private Channel(short id, String name, String[] fields) {
+            this.id = id;
+            this.name = name;
+            this.fields = fields;
+        }
+
+        /**
+         * Starts a record timestamped now
+         *
+         * @return False if logging is off, waiting to retry after a storage error or the ring buffer is full,
+         *         in which case don't {@link #put} or {@link #commit}
+         */
+        public boolean begin() {
+            if (!ENABLED) return false;
+            long now = System.nanoTime();
+            if (!running) {
+                if (failure != null && now - retryTime < 0) return false;
+                startWriter();
+            }
+
+            long next = tail;
+            if (next - head >= CAPACITY) {
+                dropped++;
+                return false;
+            }
+
+            slot = next;
+            index = 0;
+            int i = (int) (next % CAPACITY);
+            slotChannels[i] = id;
+            slotTimes[i] = now;
+            return true;
+        }
+
+        /**
+         * Sets the next field of the current record
+         */
+        public Channel put(double value) {
+            if (index < fields.length) slotValues[(int) (slot % CAPACITY) * MAX_FIELDS + index++] = value;
+            return this;
+        }
+
+        /**
+         * Hands the current record to the writer thread; unset fields are written as NaN
+         */
+        public void commit() {
+            while (index < fields.length) put(Double.NaN);
+            tail = slot + 1;
+        }
+
+        public void write(double a) {
+            if (begin()) put(a).commit();
+        }
+
+        public void write(double a, double b, double c) {
+            if (begin()) put(a).put(b).put(c).commit();
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (running) return;
+        running = true;
+
+        Thread previous = writer;
+        writer = new Thread(() -> run(previous), "Flight log writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    private static void run(Thread previous) {
+        try {
+            // the last writer may still be finishing its file
+            if (previous != null) previous.join();
+
+            File directory = new File(DIRECTORY);
+            //noinspection ResultOfMethodCallIgnored
+            directory.mkdirs();
+            String name = new SimpleDateFormat("yyyy_MM_dd__HH_mm_ss_SSS", Locale.US).format(new Date());
+
+            try (FileChannel file = new FileOutputStream(new File(directory, name + ".flog")).getChannel()) {
+                failure = null;
+                new Writer(file).run();
+            }
+        } catch (IOException e) {
+            // storage full or unmounted; drop what's queued and try a new file later
+            failure = e.toString();
+            RobotLog.ww(TAG, "Couldn't write flight log, retrying in %.0f s: %s", RETRY_PERIOD, failure);
+            retryTime = System.nanoTime() + (long) (RETRY_PERIOD * 1e9);
+            head = tail;
+        } catch (InterruptedException ignored) {
+            head = tail;
+        } finally {
+            synchronized (FlightLog.class) {
+                // a new writer may already have taken over
+                if (writer == Thread.currentThread()) running = false;
+            }
+        }
+    }
+
+    private static final class Writer {
+
+        private final FileChannel file;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        private final long droppedAtStart = dropped;
+        private long droppedWritten = 0;
+        private int channelsDefined = 0;
+
+        Writer(FileChannel file) {
+            this.file = file;
+        }
+
+        void run() throws IOException, InterruptedException {
+            buffer.put(MAGIC).putInt(VERSION);
+
+            long lastRecord = System.nanoTime();
+
+            while (true) {
+                long end = tail;
+
+                if (end == head) {
+                    if ((System.nanoTime() - lastRecord) * 1e-9 >= IDLE_TIMEOUT) {
+                        running = false;
+                        // a record may have been claimed just before running went false
+                        drain(tail);
+                        flush();
+                        return;
+                    }
+                    flush();
+                    Thread.sleep((long) (FLUSH_PERIOD * 1000));
+                    continue;
+                }
+
+                drain(end);
+                lastRecord = System.nanoTime();
+            }
+        }
+
+        /**
+         * Serializes every record before {@code end}, after defining any new channels
+         */
+        private void drain(long end) throws IOException {
+            // channels are registered before their records are published, so reading the tail first
+            // guarantees every channel in those records is defined here
+            while (channelsDefined < channels.size()) define(channels.get(channelsDefined++));
+
+            for (long r = head; r < end; r++) {
+                int i = (int) (r % CAPACITY);
+                Channel channel = channels.get(slotChannels[i]);
+
+                ensureRemaining(MAX_RECORD_BYTES);
+                buffer.put(DATA).putShort(channel.id).putLong(slotTimes[i]);
+                for (int f = 0; f < channel.fields.length; f++) buffer.putDouble(slotValues[i * MAX_FIELDS + f]);
+
+                head = r + 1;
+            }
+
+            long droppedNow = dropped - droppedAtStart;
+            if (droppedNow != droppedWritten) {
+                ensureRemaining(9);
+                buffer.put(DROPPED).putLong(droppedWritten = droppedNow);
+            }
+        }
+
+        private void define(Channel channel) throws IOException {
+            ensureRemaining(5);
+            buffer.put(DEFINITION).putShort(channel.id).putShort((short) channel.fields.length);
+            putString(channel.name);
+            for (String field : channel.fields) putString(field);
+        }
+
+        private void putString(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(2 + bytes.length);
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) file.write(buffer);
+            buffer.clear();
+        }
+    }
+}
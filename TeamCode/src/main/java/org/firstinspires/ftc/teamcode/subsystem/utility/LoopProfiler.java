@@ -0,0 +1,178 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times each part of the control loop into fixed-bucket histograms <p>
+ * Time a section with {@link #start()} and {@link #stop(Section, long)}, and mark the end of every loop with {@link #lap()}.
+ * Recording is lock-free, so the histograms can be read from any thread while the loop runs
+ */
+public final class LoopProfiler {
+
+    public enum Section {
+        LOOP,
+        BULK_READ,
+        POSE_ESTIMATE,
+        INTAKE,
+        DEPOSIT,
+        CLIMBER,
+        TELEMETRY,
+    }
+
+    private static final String TAG = "LoopProfiler";
+
+    private static final Section[] sections = Section.values();
+
+    private final LoopClock clock;
+    private final Histogram[] histograms = new Histogram[sections.length];
+
+    private long lastLap = -1;
+
+    public LoopProfiler() {
+        this(LoopClock.SYSTEM);
+    }
+
+    public LoopProfiler(LoopClock clock) {
+        this.clock = clock;
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new Histogram();
+    }
+
+    /**
+     * @return Start time to pass to {@link #stop(Section, long)}
+     */
+    public long start() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Records the time since {@code start} under {@code section}
+     *
+     * @return The current time, to start timing the next section
+     */
+    public long stop(Section section, long start) {
+        long now = clock.nanoTime();
+        histograms[section.ordinal()].record(now - start);
+        return now;
+    }
+
+    /**
+     * Records the time since the last call under {@link Section#LOOP}
+     */
+    public void lap() {
+        long now = clock.nanoTime();
+        if (lastLap >= 0) histograms[Section.LOOP.ordinal()].record(now - lastLap);
+        lastLap = now;
+    }
+
+    public Histogram get(Section section) {
+        return histograms[section.ordinal()];
+    }
+
+    public void reset() {
+        for (Histogram histogram : histograms) histogram.reset();
+        lastLap = -1;
+    }
+
+    public void printTelemetry() {
+        mTelemetry.addLine("LOOP TIME (ms): p50 / p95 / p99 / max");
+        for (Section section : sections) {
+            Histogram h = get(section);
+            if (h.getCount() == 0) continue;
+            mTelemetry.addData(section.name(), "%.1f / %.1f / %.1f / %.1f",
+                    h.percentile(0.5), h.percentile(0.95), h.percentile(0.99), h.getMax());
+        }
+    }
+
+    /**
+     * Adds every section's percentiles to a dashboard packet, as numbers so they can be graphed
+     */
+    public void addTo(TelemetryPacket p) {
+        for (Section section : sections) {
+            Histogram h = get(section);
+            if (h.getCount() == 0) continue;
+            p.put(section.name() + " p50 (ms)", h.percentile(0.5));
+            p.put(section.name() + " p95 (ms)", h.percentile(0.95));
+            p.put(section.name() + " p99 (ms)", h.percentile(0.99));
+            p.put(section.name() + " max (ms)", h.getMax());
+        }
+    }
+
+    /**
+     * Writes a summary of every section to the robot controller log, for after a match
+     */
+    public void dump() {
+        for (Section section : sections) {
+            Histogram h = get(section);
+            RobotLog.ii(TAG, "%s: n=%d mean=%.2f p50=%.2f p95=%.2f p99=%.2f max=%.2f (ms)",
+                    section.name(), h.getCount(), h.getMean(),
+                    h.percentile(0.5), h.percentile(0.95), h.percentile(0.99), h.getMax());
+        }
+    }
+
+    /**
+     * Fixed-width buckets from 0 to {@link #RANGE_MS}, with everything longer counted in the last bucket
+     */
+    public static final class Histogram {
+
+        public static final double
+                BUCKET_WIDTH_MS = 0.1,
+                RANGE_MS = 100;
+
+        private static final long BUCKET_WIDTH_NS = (long) (BUCKET_WIDTH_MS * 1e6);
+        private static final int BUCKETS = (int) (RANGE_MS / BUCKET_WIDTH_MS) + 1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong(), sum = new AtomicLong(), max = new AtomicLong();
+
+        void record(long nanos) {
+            counts.incrementAndGet((int) Math.min(nanos / BUCKET_WIDTH_NS, BUCKETS - 1));
+            count.incrementAndGet();
+            sum.addAndGet(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public double getMean() {
+            long n = count.get();
+            return n == 0 ? 0 : sum.get() * 1e-6 / n;
+        }
+
+        public double getMax() {
+            return max.get() * 1e-6;
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return Upper edge of the bucket the quantile falls in (ms), or {@link #getMax()} if that's lower
+         */
+        public double percentile(double quantile) {
+            long n = count.get();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(quantile * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return Math.min((i + 1) * BUCKET_WIDTH_MS, getMax());
+            }
+            return getMax();
+        }
+    }
+}
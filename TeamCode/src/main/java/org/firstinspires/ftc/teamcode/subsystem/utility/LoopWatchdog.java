@@ -0,0 +1,115 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+
+import java.util.ArrayList;
+
+/**
+ * Watches the loop period and sheds optional work when loops overrun <p>
+ * {@link #OVERRUNS_TO_DEGRADE} loops in a row longer than {@link #LOOP_BUDGET} step up one {@link Level},
+ * {@link #LOOPS_TO_RECOVER} loops in a row under {@link #HEADROOM} of the budget step back down.
+ * Each level also sheds everything the levels below it shed. {@link #LOOP_BUDGET} is also the time into a loop after
+ * which {@link Scheduler} defers optional tasks
+ */
+@Config
+public final class LoopWatchdog {
+
+    public static double
+            LOOP_BUDGET = 0.05,
+            HEADROOM = 0.6,
+            SLOW_COLOR_SENSOR_PERIOD = 0.05;
+
+    public static int
+            OVERRUNS_TO_DEGRADE = 3,
+            LOOPS_TO_RECOVER = 50;
+
+    public enum Level {
+        NORMAL,
+        NO_DASHBOARD,
+        SLOW_COLOR_SENSOR,
+        NO_POSE_HISTORY,
+        NO_FLIGHT_RECORDER;
+
+        private static final Level[] levels = values();
+
+        public boolean atLeast(Level level) {
+            return ordinal() >= level.ordinal();
+        }
+    }
+
+    public interface Listener {
+        void onLevelChanged(Level from, Level to);
+    }
+
+    private static final String TAG = "LoopWatchdog";
+
+    private final LoopClock clock;
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+
+    private Level level = Level.NORMAL;
+    private long lastLoop = Long.MIN_VALUE, overruns;
+    private int overrunStreak, headroomStreak;
+
+    public LoopWatchdog(LoopClock clock) {
+        this.clock = clock;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Call once per loop
+     */
+    public void update() {
+        long now = clock.nanoTime();
+        if (lastLoop == Long.MIN_VALUE) {
+            lastLoop = now;
+            return;
+        }
+        double seconds = (now - lastLoop) * 1e-9;
+        lastLoop = now;
+
+        if (seconds > LOOP_BUDGET) {
+            overruns++;
+            overrunStreak++;
+            headroomStreak = 0;
+        } else {
+            overrunStreak = 0;
+            if (seconds < HEADROOM * LOOP_BUDGET) headroomStreak++;
+            else headroomStreak = 0;
+        }
+
+        if (overrunStreak >= OVERRUNS_TO_DEGRADE && level.ordinal() < Level.levels.length - 1) {
+            overrunStreak = 0;
+            setLevel(Level.levels[level.ordinal() + 1], seconds);
+        } else if (headroomStreak >= LOOPS_TO_RECOVER && level != Level.NORMAL) {
+            headroomStreak = 0;
+            setLevel(Level.levels[level.ordinal() - 1], seconds);
+        }
+    }
+
+    private void setLevel(Level newLevel, double loopSeconds) {
+        Level oldLevel = level;
+        level = newLevel;
+        RobotLog.ww(TAG, "%s -> %s (last loop %.1f ms, budget %.1f ms)", oldLevel, newLevel, loopSeconds * 1e3, LOOP_BUDGET * 1e3);
+        for (Listener listener : listeners) listener.onLevelChanged(oldLevel, newLevel);
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public void printTelemetry() {
+        mTelemetry.addData("WATCHDOG", "%s, %d overruns", level, overruns);
+    }
+}
@@ -0,0 +1,137 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+
+import java.util.ArrayList;
+
+/**
+ * Cooperative multi-rate scheduler, run once per loop <p>
+ * Each task runs only when its period has elapsed, most important first. Once the loop (timed from
+ * {@link #startLoop()}, or from {@link #run()} if it wasn't called) has taken longer than
+ * {@link #setLoopBudget the loop budget}, the rest of the due tasks wait for the next loop, except
+ * priority 0 tasks, which always run. A task misses its deadline when it's run more than a period late,
+ * or, for tasks with no period, when it's pushed to the next loop
+ */
+public final class Scheduler {
+
+    public static final class Task {
+
+        public final String name;
+        public final int priority;
+
+        private final Runnable action;
+        private double period;
+
+        private long nextRelease = Long.MIN_VALUE, runs, misses, deferrals;
+
+        private Task(String name, double period, int priority, Runnable action) {
+            this.name = name;
+            this.period = period;
+            this.priority = priority;
+            this.action = action;
+        }
+
+        public void setPeriod(double seconds) {
+            period = seconds;
+        }
+
+        public double getPeriod() {
+            return period;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getDeferrals() {
+            return deferrals;
+        }
+
+        private boolean isDue(long now) {
+            return now >= nextRelease;
+        }
+
+        private void run(long now) {
+            long periodNanos = (long) (period * 1e9);
+
+            if (periodNanos > 0 && nextRelease != Long.MIN_VALUE && now - nextRelease > periodNanos) misses++;
+
+            action.run();
+            runs++;
+
+            // keep the phase unless we've fallen a whole period behind
+            nextRelease = nextRelease != Long.MIN_VALUE && nextRelease + periodNanos > now ?
+                    nextRelease + periodNanos :
+                    now + periodNanos;
+        }
+
+        private void defer() {
+            deferrals++;
+            if (period <= 0) misses++;
+        }
+    }
+
+    private final LoopClock clock;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+
+    private double loopBudget = Double.POSITIVE_INFINITY;
+    private long loopStart = Long.MIN_VALUE;
+
+    public Scheduler(LoopClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param name     Shown in telemetry
+     * @param period   Seconds between runs, 0 to run every loop
+     * @param priority Lower runs first; 0 is never deferred
+     */
+    public Task add(String name, double period, int priority, Runnable action) {
+        Task task = new Task(name, period, priority, action);
+        int i = 0;
+        while (i < tasks.size() && tasks.get(i).priority <= priority) i++;
+        tasks.add(i, task);
+        return task;
+    }
+
+    /**
+     * @param seconds Time into a loop after which only priority 0 tasks still run
+     */
+    public void setLoopBudget(double seconds) {
+        loopBudget = seconds;
+    }
+
+    /**
+     * Marks the start of the loop, for the loop budget
+     */
+    public void startLoop() {
+        loopStart = clock.nanoTime();
+    }
+
+    public void run() {
+        long start = loopStart != Long.MIN_VALUE ? loopStart : clock.nanoTime();
+        loopStart = Long.MIN_VALUE;
+        long budget = (long) Math.min(loopBudget * 1e9, Long.MAX_VALUE);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            long now = clock.nanoTime();
+            if (!task.isDue(now)) continue;
+            if (task.priority > 0 && now - start > budget) task.defer();
+            else task.run(now);
+        }
+    }
+
+    public void printTelemetry() {
+        mTelemetry.addLine("TASKS: runs / missed / deferred");
+        for (Task task : tasks) {
+            mTelemetry.addData(task.name, "%d / %d / %d", task.runs, task.misses, task.deferrals);
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware;
 
-import com.qualcomm.robotcore.hardware.DcMotorEx;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.MOTOR_WRITE;
 
-public final class CachedDcMotorEx {
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.MotorDevice;
 
-    public final DcMotorEx motor;
+public final class CachedDcMotorEx {
 
-    private double lastPower = Double.NaN;
+    public final MotorDevice motor;
+    private final IOCounter ioCounter;
+    private final WriteCache cache;
 
-    public CachedDcMotorEx(DcMotorEx motor) {
-        this.motor = motor;
+    public CachedDcMotorEx(DeviceMap devices, String name) {
+        this.motor = devices.motor(name);
+        this.ioCounter = devices.ioCounter();
+        this.cache = new WriteCache(devices.clock(), true);
     }
 
     public void setPower(double power) {
-        if (power == lastPower) return;
+        if (!cache.shouldWrite(power)) {
+            ioCounter.skip(MOTOR_WRITE);
+            return;
+        }
+
+        motor.setPower(power);
+    }
 
-        motor.setPower(lastPower = power);
+    /**
+     * @param tolerance Smallest change in power worth a write, or NaN for {@link WriteCache#TOLERANCE_POWER}
+     */
+    public void setTolerance(double tolerance) {
+        cache.setTolerance(tolerance);
     }
 }
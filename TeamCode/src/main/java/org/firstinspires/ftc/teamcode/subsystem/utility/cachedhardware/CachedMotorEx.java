@@ -1,29 +1,110 @@
 package org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware;
 
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.MOTOR_WRITE;
+
 import androidx.annotation.NonNull;
 
-import com.arcrobotics.ftclib.hardware.motors.MotorEx;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
-public final class CachedMotorEx extends MotorEx {
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.EncoderDevice;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.MotorDevice;
 
-    public CachedMotorEx(@NonNull HardwareMap hMap, String id) {
-        super(hMap, id);
-    }
+public final class CachedMotorEx {
+
+    private final MotorDevice motor;
+    private final IOCounter ioCounter;
+    private final WriteCache cache;
+    private final double cpr;
+
+    public CachedMotorEx.Encoder encoder;
 
-    public CachedMotorEx(@NonNull HardwareMap hMap, String id, @NonNull GoBILDA gobildaType) {
-        super(hMap, id, gobildaType);
+    public CachedMotorEx(@NonNull HardwareMap hMap, String id, @NonNull Motor.GoBILDA gobildaType) {
+        this(new HardwareMapDevices(hMap), id, gobildaType);
     }
 
     public CachedMotorEx(@NonNull HardwareMap hMap, String id, double cpr, double rpm) {
-        super(hMap, id, cpr, rpm);
+        this(new HardwareMapDevices(hMap), id, cpr, rpm);
     }
 
-    private double lastPower = Double.NaN;
+    public CachedMotorEx(@NonNull DeviceMap devices, String id, @NonNull Motor.GoBILDA gobildaType) {
+        this(devices, id, gobildaType.getCPR(), gobildaType.getRPM());
+    }
+
+    public CachedMotorEx(@NonNull DeviceMap devices, String id, double cpr, double rpm) {
+        this.motor = devices.motor(id);
+        this.ioCounter = devices.ioCounter();
+        this.cache = new WriteCache(devices.clock(), true);
+        this.encoder = new CachedMotorEx.Encoder(devices.encoder(id));
+        this.cpr = cpr;
+    }
 
     public void set(double power) {
-        if (power == lastPower) return;
+        if (!cache.shouldWrite(power)) {
+            ioCounter.skip(MOTOR_WRITE);
+            return;
+        }
+
+        motor.setPower(power);
+    }
+
+    /**
+     * @param tolerance Smallest change in power worth a write, or NaN for {@link WriteCache#TOLERANCE_POWER}
+     */
+    public void setTolerance(double tolerance) {
+        cache.setTolerance(tolerance);
+    }
+
+    public void setInverted(boolean inverted) {
+        motor.setInverted(inverted);
+    }
+
+    public void setZeroPowerBehavior(Motor.ZeroPowerBehavior behavior) {
+        motor.setBraking(behavior == Motor.ZeroPowerBehavior.BRAKE);
+    }
+
+    public double getCPR() {
+        return cpr;
+    }
+
+    /**
+     * Relative encoder with a software zero, direction and distance per tick
+     */
+    public static final class Encoder {
+
+        private final EncoderDevice encoder;
+
+        private int resetVal, multiplier = 1;
+        private double distancePerPulse = 1;
+
+        public Encoder(EncoderDevice encoder) {
+            this.encoder = encoder;
+        }
+
+        /**
+         * @return Ticks since the last {@link #reset}
+         */
+        public int getPosition() {
+            return multiplier * encoder.getPosition() - resetVal;
+        }
+
+        public double getDistance() {
+            return distancePerPulse * getPosition();
+        }
+
+        public void setDistancePerPulse(double distancePerPulse) {
+            this.distancePerPulse = distancePerPulse;
+        }
+
+        public void setDirection(Motor.Direction direction) {
+            multiplier = direction.getMultiplier();
+        }
 
-        super.set(lastPower = power);
+        public void reset() {
+            resetVal += getPosition();
+        }
     }
 }
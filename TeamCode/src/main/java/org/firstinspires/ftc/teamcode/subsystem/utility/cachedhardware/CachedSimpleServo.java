@@ -1,38 +1,71 @@
 package org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware;
 
-import com.arcrobotics.ftclib.hardware.SimpleServo;
+import static com.qualcomm.robotcore.util.Range.clip;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.SERVO_WRITE;
+
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
-import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.ServoDevice;
 
-public final class CachedSimpleServo extends SimpleServo {
+public final class CachedSimpleServo {
 
-    public CachedSimpleServo(HardwareMap hw, String servoName, double minAngle, double maxAngle, AngleUnit angleUnit) {
-        super(hw, servoName, minAngle, maxAngle, angleUnit);
-    }
+    private final ServoDevice servo;
+    private final IOCounter ioCounter;
+    private final WriteCache cache;
+    private final double minDegree, maxDegree;
+    private boolean inverted = false;
 
     public CachedSimpleServo(HardwareMap hw, String servoName, double minDegree, double maxDegree) {
-        super(hw, servoName, minDegree, maxDegree);
+        this(new HardwareMapDevices(hw), servoName, minDegree, maxDegree);
+    }
+
+    public CachedSimpleServo(DeviceMap devices, String servoName, double minDegree, double maxDegree) {
+        this.servo = devices.servo(servoName);
+        this.ioCounter = devices.ioCounter();
+        this.cache = new WriteCache(devices.clock(), false);
+        this.minDegree = minDegree;
+        this.maxDegree = maxDegree;
     }
 
     public static CachedSimpleServo getAxon(HardwareMap hardwareMap, String name) {
-        return new CachedSimpleServo(hardwareMap, name, 0, 355);
+        return getAxon(new HardwareMapDevices(hardwareMap), name);
     }
 
     public static CachedSimpleServo getGBServo(HardwareMap hardwareMap, String name) {
-        return new CachedSimpleServo(hardwareMap, name, 0, 280);
+        return getGBServo(new HardwareMapDevices(hardwareMap), name);
+    }
+
+    public static CachedSimpleServo getAxon(DeviceMap devices, String name) {
+        return new CachedSimpleServo(devices, name, 0, 355);
+    }
+
+    public static CachedSimpleServo getGBServo(DeviceMap devices, String name) {
+        return new CachedSimpleServo(devices, name, 0, 280);
     }
 
     public CachedSimpleServo reversed() {
-        setInverted(true);
+        inverted = true;
         return this;
     }
 
-    private double lastDegrees = Double.NaN;
-
     public void turnToAngle(double degrees) {
-        if (degrees == lastDegrees) return;
+        if (!cache.shouldWrite(degrees)) {
+            ioCounter.skip(SERVO_WRITE);
+            return;
+        }
 
-        super.turnToAngle(lastDegrees = degrees);
+        double position = clip((degrees - minDegree) / (maxDegree - minDegree), 0, 1);
+        servo.setPosition(inverted ? 1 - position : position);
+    }
+
+    /**
+     * @param tolerance Smallest change in angle (degrees) worth a write, or NaN for {@link WriteCache#TOLERANCE_DEGREES}
+     */
+    public CachedSimpleServo setTolerance(double tolerance) {
+        cache.setTolerance(tolerance);
+        return this;
     }
 }
@@ -0,0 +1,65 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.cachedhardware;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.signum;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
+
+/**
+ * Decides whether a new command is worth a hardware write <p>
+ * Commands within tolerance of the last written one are dropped, unless the last write is older than
+ * {@link #REFRESH_PERIOD}. A signed cache always writes zero and sign changes, so a motor never keeps pushing
+ * the wrong way or fails to stop. Motor powers default to {@link #TOLERANCE_POWER}, servo angles to {@link #TOLERANCE_DEGREES}
+ */
+@Config
+public final class WriteCache {
+
+    public static double
+            TOLERANCE_POWER = 0.005,
+            TOLERANCE_DEGREES = 0.25,
+            REFRESH_PERIOD = 0.25;
+
+    private final boolean signed;
+    private final LoopTimer timer;
+
+    private double tolerance = Double.NaN, last = Double.NaN;
+
+    /**
+     * @param signed Motor power rather than servo angle
+     */
+    WriteCache(LoopClock clock, boolean signed) {
+        this.timer = new LoopTimer(clock);
+        this.signed = signed;
+    }
+
+    /**
+     * @param tolerance Replaces the default tolerance for this device, or NaN to go back to the default
+     */
+    void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return Whether to write {@code value}, in which case it becomes the new last written value
+     */
+    boolean shouldWrite(double value) {
+        if (value == last) return false;
+
+        double tolerance = !Double.isNaN(this.tolerance) ? this.tolerance : signed ? TOLERANCE_POWER : TOLERANCE_DEGREES;
+
+        boolean mustWrite =
+                Double.isNaN(last) ||
+                signed && (value == 0 || signum(value) != signum(last)) ||
+                abs(value - last) >= tolerance ||
+                timer.seconds() >= REFRESH_PERIOD;
+
+        if (!mustWrite) return false;
+
+        last = value;
+        timer.reset();
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+public interface AnalogDevice {
+
+    double getVoltage();
+
+    double getMaxVoltage();
+}
@@ -0,0 +1,6 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+public interface CRServoDevice {
+
+    void setPower(double power);
+}
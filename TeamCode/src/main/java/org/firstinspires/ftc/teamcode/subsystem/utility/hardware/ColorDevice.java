@@ -0,0 +1,12 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+public interface ColorDevice {
+
+    NormalizedRGBA getNormalizedColors();
+
+    void setGain(float gain);
+
+    void enableLight(boolean lightOn);
+}
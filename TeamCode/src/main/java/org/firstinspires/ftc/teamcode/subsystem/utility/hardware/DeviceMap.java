@@ -0,0 +1,48 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
+
+/**
+ * Source of every device the {@link org.firstinspires.ftc.teamcode.subsystem.Robot} talks to <p>
+ * {@link HardwareMapDevices} returns the real devices from the {@link com.qualcomm.robotcore.hardware.HardwareMap},
+ * {@link SimulatedDevices} returns in-memory devices so the control loop can run off the robot
+ */
+public interface DeviceMap {
+
+    MotorDevice motor(String name);
+
+    /**
+     * @param name Name of the motor port the encoder is plugged into
+     */
+    EncoderDevice encoder(String name);
+
+    ServoDevice servo(String name);
+
+    CRServoDevice crServo(String name);
+
+    TouchDevice touchSensor(String name);
+
+    AnalogDevice analogInput(String name);
+
+    ColorDevice colorSensor(String name);
+
+    VoltageDevice voltageSensor();
+
+    /**
+     * @return The filtered {@link #voltageSensor()} every subsystem on these devices shares
+     */
+    BatteryVoltage batteryVoltage();
+
+    /**
+     * @return Counter for the hardware transactions these devices make
+     */
+    IOCounter ioCounter();
+
+    PinpointDevice pinpoint(String name);
+
+    /**
+     * @return The clock every timer on these devices' robot should read
+     */
+    LoopClock clock();
+}
@@ -0,0 +1,14 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+public interface EncoderDevice {
+
+    /**
+     * @return Raw encoder position in ticks
+     */
+    int getPosition();
+
+    /**
+     * @return Raw encoder velocity in ticks per second
+     */
+    double getVelocity();
+}
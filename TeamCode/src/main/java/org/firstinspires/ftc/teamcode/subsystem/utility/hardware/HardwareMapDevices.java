@@ -0,0 +1,263 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import static com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver.readData.ONLY_UPDATE_HEADING;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.ANALOG_READ;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.ENCODER_READ;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.I2C_READ;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.MOTOR_WRITE;
+import static org.firstinspires.ftc.teamcode.subsystem.utility.hardware.IOCounter.Transaction.SERVO_WRITE;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver;
+import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriverRR;
+import com.qualcomm.robotcore.hardware.AnalogInput;
+import com.qualcomm.robotcore.hardware.CRServo;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.SwitchableLight;
+import com.qualcomm.robotcore.hardware.TouchSensor;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DeviceMap} backed by the real devices in a {@link HardwareMap}
+ */
+public final class HardwareMapDevices implements DeviceMap {
+
+    /**
+     * One {@link BatteryVoltage} and {@link IOCounter} per {@link HardwareMap}, since every subsystem wraps the hardware
+     * map in its own instance. The SDK hands every OpMode the same hardware map, so these outlive an OpMode;
+     * {@link org.firstinspires.ftc.teamcode.subsystem.Robot} resets them when it's built
+     */
+    private static final Map<HardwareMap, BatteryVoltage> batteryVoltages = new WeakHashMap<>();
+    private static final Map<HardwareMap, IOCounter> ioCounters = new WeakHashMap<>();
+
+    /**
+     * Picks the hub out of a device's connection info, e.g. "module 2" out of "USB DQ1234; module 2; port 0"
+     */
+    private static final Pattern HUB = Pattern.compile("module \\d+");
+
+    public final HardwareMap hardwareMap;
+
+    public HardwareMapDevices(HardwareMap hardwareMap) {
+        this.hardwareMap = hardwareMap;
+    }
+
+    private IOCounter.Hub hub(HardwareDevice device) {
+        String connectionInfo = device.getConnectionInfo();
+        Matcher matcher = HUB.matcher(connectionInfo);
+        return ioCounter().hub(matcher.find() ? matcher.group() : connectionInfo);
+    }
+
+    @Override
+    public MotorDevice motor(String name) {
+        DcMotorEx motor = hardwareMap.get(DcMotorEx.class, name);
+        return new Port(motor, hub(motor));
+    }
+
+    @Override
+    public EncoderDevice encoder(String name) {
+        DcMotorEx motor = hardwareMap.get(DcMotorEx.class, name);
+        return new Port(motor, hub(motor));
+    }
+
+    @Override
+    public ServoDevice servo(String name) {
+        Servo servo = hardwareMap.get(Servo.class, name);
+        IOCounter.Hub hub = hub(servo);
+        return position -> {
+            hub.count(SERVO_WRITE);
+            servo.setPosition(position);
+        };
+    }
+
+    @Override
+    public CRServoDevice crServo(String name) {
+        CRServo servo = hardwareMap.get(CRServo.class, name);
+        IOCounter.Hub hub = hub(servo);
+        return power -> {
+            hub.count(SERVO_WRITE);
+            servo.setPower(power);
+        };
+    }
+
+    @Override
+    public TouchDevice touchSensor(String name) {
+        return hardwareMap.get(TouchSensor.class, name)::isPressed;
+    }
+
+    @Override
+    public AnalogDevice analogInput(String name) {
+        AnalogInput input = hardwareMap.get(AnalogInput.class, name);
+        IOCounter.Hub hub = hub(input);
+        return new AnalogDevice() {
+            public double getVoltage() {
+                hub.count(ANALOG_READ);
+                return input.getVoltage();
+            }
+            public double getMaxVoltage() {
+                return input.getMaxVoltage();
+            }
+        };
+    }
+
+    @Override
+    public ColorDevice colorSensor(String name) {
+        NormalizedColorSensor sensor = hardwareMap.get(NormalizedColorSensor.class, name);
+        IOCounter.Hub hub = hub(sensor);
+        return new ColorDevice() {
+            public NormalizedRGBA getNormalizedColors() {
+                hub.count(I2C_READ);
+                return sensor.getNormalizedColors();
+            }
+            public void setGain(float gain) {
+                sensor.setGain(gain);
+            }
+            public void enableLight(boolean lightOn) {
+                if (sensor instanceof SwitchableLight) ((SwitchableLight) sensor).enableLight(lightOn);
+            }
+        };
+    }
+
+    @Override
+    public VoltageDevice voltageSensor() {
+        return hardwareMap.voltageSensor.iterator().next()::getVoltage;
+    }
+
+    @Override
+    public BatteryVoltage batteryVoltage() {
+        synchronized (batteryVoltages) {
+            return batteryVoltages.computeIfAbsent(hardwareMap, h -> new BatteryVoltage(voltageSensor(), clock()));
+        }
+    }
+
+    @Override
+    public IOCounter ioCounter() {
+        synchronized (ioCounters) {
+            return ioCounters.computeIfAbsent(hardwareMap, h -> new IOCounter(clock()));
+        }
+    }
+
+    @Override
+    public PinpointDevice pinpoint(String name) {
+        GoBildaPinpointDriverRR pinpoint = hardwareMap.get(GoBildaPinpointDriverRR.class, name);
+        return new Pinpoint(pinpoint, hub(pinpoint));
+    }
+
+    @Override
+    public LoopClock clock() {
+        return LoopClock.SYSTEM;
+    }
+
+    /**
+     * A motor port--the motor and the encoder plugged in next to it share a {@link DcMotorEx}
+     */
+    private static final class Port implements MotorDevice, EncoderDevice {
+
+        private final DcMotorEx motor;
+        private final IOCounter.Hub hub;
+
+        private Port(DcMotorEx motor, IOCounter.Hub hub) {
+            this.motor = motor;
+            this.hub = hub;
+        }
+
+        public void setPower(double power) {
+            hub.count(MOTOR_WRITE);
+            motor.setPower(power);
+        }
+
+        public void setInverted(boolean inverted) {
+            motor.setDirection(inverted ? DcMotorSimple.Direction.REVERSE : DcMotorSimple.Direction.FORWARD);
+        }
+
+        public void setBraking(boolean braking) {
+            motor.setZeroPowerBehavior(braking ? DcMotor.ZeroPowerBehavior.BRAKE : DcMotor.ZeroPowerBehavior.FLOAT);
+        }
+
+        public int getPosition() {
+            hub.count(ENCODER_READ);
+            return motor.getCurrentPosition();
+        }
+
+        public double getVelocity() {
+            hub.count(ENCODER_READ);
+            return motor.getVelocity();
+        }
+    }
+
+    private static final class Pinpoint implements PinpointDevice {
+
+        private final GoBildaPinpointDriverRR pinpoint;
+        private final IOCounter.Hub hub;
+
+        private Pinpoint(GoBildaPinpointDriverRR pinpoint, IOCounter.Hub hub) {
+            this.pinpoint = pinpoint;
+            this.hub = hub;
+        }
+
+        public void setOffsets(double xOffset, double yOffset) {
+            pinpoint.setOffsets(xOffset, yOffset);
+        }
+
+        public void setEncoderResolution(double ticksPerMillimeter) {
+            pinpoint.setEncoderResolution(ticksPerMillimeter);
+        }
+
+        public void setEncoderDirections(GoBildaPinpointDriver.EncoderDirection xDirection, GoBildaPinpointDriver.EncoderDirection yDirection) {
+            pinpoint.setEncoderDirections(xDirection, yDirection);
+        }
+
+        public void resetPosAndIMU() {
+            pinpoint.resetPosAndIMU();
+            // wait for pinpoint to finish calibrating
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        public void update(boolean headingOnly) {
+            hub.count(I2C_READ);
+            if (headingOnly)
+                pinpoint.update(ONLY_UPDATE_HEADING);
+            else
+                pinpoint.update();
+        }
+
+        public Pose2d getPositionRR() {
+            return pinpoint.getPositionRR();
+        }
+
+        public void setPositionRR(Pose2d pose) {
+            pinpoint.setPositionRR(pose);
+        }
+
+        public PoseVelocity2d getVelocityRR() {
+            return pinpoint.getVelocityRR();
+        }
+
+        public Pose2D getPosition() {
+            return pinpoint.getPosition();
+        }
+
+        public GoBildaPinpointDriver.DeviceStatus getDeviceStatus() {
+            return pinpoint.getDeviceStatus();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import com.acmerobotics.dashboard.config.Config;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the hardware transactions a {@link DeviceMap}'s devices make, per hub <p>
+ * Writes and I2C reads are one Lynx command each. Encoder and analog reads come out of the hub's bulk cache,
+ * so a hub they're read from costs one bulk read per loop no matter how many there are. {@link #endLoop()}
+ * turns the counts since the last loop into per-loop numbers and rates, and flags loops over {@link #BUDGET_PER_LOOP}
+ */
+@Config
+public final class IOCounter {
+
+    public static int BUDGET_PER_LOOP = 25;
+
+    public enum Transaction {
+        MOTOR_WRITE,
+        SERVO_WRITE,
+        ENCODER_READ,
+        ANALOG_READ,
+        I2C_READ,
+    }
+
+    private static final String TAG = "IOCounter";
+
+    private static final Transaction[] transactions = Transaction.values();
+
+    private final LoopClock clock;
+    private final ArrayList<Hub> hubs = new ArrayList<>();
+
+    /**
+     * Writes the caches in front of the devices skipped because the value didn't change
+     */
+    private final AtomicLongArray skipped = new AtomicLongArray(transactions.length);
+    private final long[] skippedAtLastLoop = new long[transactions.length], skippedLastLoop = new long[transactions.length];
+
+    private long lastLoop = -1, loops, overBudgetLoops;
+    private int commandsLastLoop;
+    private double loopSeconds;
+
+    public IOCounter(LoopClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param name Anything that identifies the hub, e.g. its module address
+     * @return The counters for that hub, shared by every device on it
+     */
+    public synchronized Hub hub(String name) {
+        for (Hub hub : hubs) if (hub.name.equals(name)) return hub;
+        Hub hub = new Hub(name);
+        hubs.add(hub);
+        return hub;
+    }
+
+    /**
+     * Zeroes every count, rate and over-budget tally, as if no device had been used yet. Hubs and the devices
+     * counting on them are kept
+     */
+    public synchronized void reset() {
+        for (Hub hub : hubs) hub.reset();
+        for (int i = 0; i < transactions.length; i++) {
+            skipped.set(i, 0);
+            skippedAtLastLoop[i] = 0;
+            skippedLastLoop[i] = 0;
+        }
+        lastLoop = -1;
+        loops = 0;
+        overBudgetLoops = 0;
+        commandsLastLoop = 0;
+        loopSeconds = 0;
+    }
+
+    /**
+     * Counts a write a cache didn't pass on to the device
+     */
+    public void skip(Transaction transaction) {
+        skipped.incrementAndGet(transaction.ordinal());
+    }
+
+    /**
+     * Closes out the current loop--call once per loop
+     */
+    public synchronized void endLoop() {
+        long now = clock.nanoTime();
+        if (lastLoop >= 0) loopSeconds = (now - lastLoop) * 1e-9;
+        lastLoop = now;
+
+        commandsLastLoop = 0;
+        for (Hub hub : hubs) commandsLastLoop += hub.endLoop();
+
+        for (int i = 0; i < transactions.length; i++) {
+            long total = skipped.get(i);
+            skippedLastLoop[i] = total - skippedAtLastLoop[i];
+            skippedAtLastLoop[i] = total;
+        }
+
+        loops++;
+        if (commandsLastLoop > BUDGET_PER_LOOP && overBudgetLoops++ == 0) {
+            RobotLog.ww(TAG, "%d hub commands in one loop, budget is %d", commandsLastLoop, BUDGET_PER_LOOP);
+        }
+    }
+
+    /**
+     * @return Estimated Lynx commands sent last loop, across all hubs
+     */
+    public int getCommandsLastLoop() {
+        return commandsLastLoop;
+    }
+
+    public long getOverBudgetLoops() {
+        return overBudgetLoops;
+    }
+
+    /**
+     * @return Writes skipped by the caches last loop
+     */
+    public long getSkippedLastLoop(Transaction transaction) {
+        return skippedLastLoop[transaction.ordinal()];
+    }
+
+    /**
+     * @return Fraction of all writes so far that a cache skipped
+     */
+    public synchronized double getSuppressionRate(Transaction transaction) {
+        long skipped = this.skipped.get(transaction.ordinal()), written = 0;
+        for (Hub hub : hubs) written += hub.getTotal(transaction);
+        return skipped + written == 0 ? 0 : (double) skipped / (skipped + written);
+    }
+
+    public synchronized void printTelemetry() {
+        mTelemetry.addData("HUB COMMANDS", "%d per loop (budget %d), %.0f /s",
+                commandsLastLoop, BUDGET_PER_LOOP, loopSeconds > 0 ? commandsLastLoop / loopSeconds : 0);
+        if (overBudgetLoops > 0) mTelemetry.addData("Loops over budget", "%d of %d", overBudgetLoops, loops);
+        for (Hub hub : hubs) {
+            mTelemetry.addData(hub.name, "%d motor, %d servo, %d encoder, %d analog, %d I2C",
+                    hub.lastLoop[Transaction.MOTOR_WRITE.ordinal()],
+                    hub.lastLoop[Transaction.SERVO_WRITE.ordinal()],
+                    hub.lastLoop[Transaction.ENCODER_READ.ordinal()],
+                    hub.lastLoop[Transaction.ANALOG_READ.ordinal()],
+                    hub.lastLoop[Transaction.I2C_READ.ordinal()]
+            );
+        }
+        mTelemetry.addData("Skipped by cache", "%d motor (%.0f%%), %d servo (%.0f%%)",
+                getSkippedLastLoop(Transaction.MOTOR_WRITE),
+                100 * getSuppressionRate(Transaction.MOTOR_WRITE),
+                getSkippedLastLoop(Transaction.SERVO_WRITE),
+                100 * getSuppressionRate(Transaction.SERVO_WRITE)
+        );
+    }
+
+    /**
+     * Transaction counts for the devices on one hub
+     */
+    public static final class Hub {
+
+        public final String name;
+
+        private final AtomicLongArray counts = new AtomicLongArray(transactions.length);
+        private final long[] atLastLoop = new long[transactions.length], lastLoop = new long[transactions.length];
+
+        private Hub(String name) {
+            this.name = name;
+        }
+
+        public void count(Transaction transaction) {
+            counts.incrementAndGet(transaction.ordinal());
+        }
+
+        public long getTotal(Transaction transaction) {
+            return counts.get(transaction.ordinal());
+        }
+
+        public long getLastLoop(Transaction transaction) {
+            return lastLoop[transaction.ordinal()];
+        }
+
+        private void reset() {
+            for (int i = 0; i < transactions.length; i++) {
+                counts.set(i, 0);
+                atLastLoop[i] = 0;
+                lastLoop[i] = 0;
+            }
+        }
+
+        /**
+         * @return Lynx commands this hub was sent since the last loop
+         */
+        private int endLoop() {
+            for (int i = 0; i < transactions.length; i++) {
+                long total = counts.get(i);
+                lastLoop[i] = total - atLastLoop[i];
+                atLastLoop[i] = total;
+            }
+            boolean bulkRead = lastLoop[Transaction.ENCODER_READ.ordinal()] + lastLoop[Transaction.ANALOG_READ.ordinal()] > 0;
+            return (int) (
+                    lastLoop[Transaction.MOTOR_WRITE.ordinal()] +
+                    lastLoop[Transaction.SERVO_WRITE.ordinal()] +
+                    lastLoop[Transaction.I2C_READ.ordinal()]
+            ) + (bulkRead ? 1 : 0);
+        }
+    }
+}
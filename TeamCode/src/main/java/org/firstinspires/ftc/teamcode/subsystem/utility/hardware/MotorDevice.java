@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+public interface MotorDevice {
+
+    void setPower(double power);
+
+    void setInverted(boolean inverted);
+
+    void setBraking(boolean braking);
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+
+public interface PinpointDevice {
+
+    void setOffsets(double xOffset, double yOffset);
+
+    void setEncoderResolution(double ticksPerMillimeter);
+
+    void setEncoderDirections(GoBildaPinpointDriver.EncoderDirection xDirection, GoBildaPinpointDriver.EncoderDirection yDirection);
+
+    /**
+     * Reset position to (0, 0, 0) and recalibrate the IMU, blocking until calibration finishes
+     */
+    void resetPosAndIMU();
+
+    /**
+     * @param headingOnly Only read heading from the device, skipping the encoders
+     */
+    void update(boolean headingOnly);
+
+    Pose2d getPositionRR();
+
+    void setPositionRR(Pose2d pose);
+
+    /**
+     * @return Velocity in the robot frame
+     */
+    PoseVelocity2d getVelocityRR();
+
+    Pose2D getPosition();
+
+    GoBildaPinpointDriver.DeviceStatus getDeviceStatus();
+}
@@ -0,0 +1,9 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+public interface ServoDevice {
+
+    /**
+     * @param position Servo position in [0, 1]
+     */
+    void setPosition(double position);
+}
@@ -0,0 +1,250 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.hardware;
+
+import com.acmerobotics.roadrunner.Pose2d;
+import com.acmerobotics.roadrunner.PoseVelocity2d;
+import com.acmerobotics.roadrunner.Vector2d;
+import com.acmerobotics.roadrunner.ftc.GoBildaPinpointDriver;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.teamcode.control.motion.SimulatedClock;
+import org.firstinspires.ftc.teamcode.subsystem.utility.sensor.BatteryVoltage;
+
+import java.util.HashMap;
+
+/**
+ * In-memory {@link DeviceMap} for running the control loop without a Control Hub <p>
+ * Every device is created the first time it's requested and kept by name, so whatever drives
+ * the simulation can read actuator commands and write sensor readings through the same objects
+ * the subsystems hold
+ */
+public final class SimulatedDevices implements DeviceMap {
+
+    private final HashMap<String, Port> ports = new HashMap<>();
+    private final HashMap<String, Servo> servos = new HashMap<>();
+    private final HashMap<String, CRServo> crServos = new HashMap<>();
+    private final HashMap<String, Touch> touchSensors = new HashMap<>();
+    private final HashMap<String, Analog> analogInputs = new HashMap<>();
+    private final HashMap<String, Color> colorSensors = new HashMap<>();
+    private final HashMap<String, Pinpoint> pinpoints = new HashMap<>();
+
+    public final Voltage voltage = new Voltage();
+    public final SimulatedClock clock = new SimulatedClock();
+    private final BatteryVoltage batteryVoltage = new BatteryVoltage(voltage, clock);
+    private final IOCounter ioCounter = new IOCounter(clock);
+
+    public Port port(String name) {
+        return ports.computeIfAbsent(name, n -> new Port());
+    }
+
+    @Override
+    public MotorDevice motor(String name) {
+        return port(name);
+    }
+
+    @Override
+    public EncoderDevice encoder(String name) {
+        return port(name);
+    }
+
+    @Override
+    public Servo servo(String name) {
+        return servos.computeIfAbsent(name, n -> new Servo());
+    }
+
+    @Override
+    public CRServo crServo(String name) {
+        return crServos.computeIfAbsent(name, n -> new CRServo());
+    }
+
+    @Override
+    public Touch touchSensor(String name) {
+        return touchSensors.computeIfAbsent(name, n -> new Touch());
+    }
+
+    @Override
+    public Analog analogInput(String name) {
+        return analogInputs.computeIfAbsent(name, n -> new Analog());
+    }
+
+    @Override
+    public Color colorSensor(String name) {
+        return colorSensors.computeIfAbsent(name, n -> new Color());
+    }
+
+    @Override
+    public Voltage voltageSensor() {
+        return voltage;
+    }
+
+    @Override
+    public BatteryVoltage batteryVoltage() {
+        return batteryVoltage;
+    }
+
+    /**
+     * Simulated devices don't count their own transactions, so this only sees what the caches skip
+     */
+    @Override
+    public IOCounter ioCounter() {
+        return ioCounter;
+    }
+
+    @Override
+    public Pinpoint pinpoint(String name) {
+        return pinpoints.computeIfAbsent(name, n -> new Pinpoint());
+    }
+
+    @Override
+    public SimulatedClock clock() {
+        return clock;
+    }
+
+    /**
+     * A motor port--the motor and the encoder plugged in next to it <p>
+     * {@link #power} is the commanded power, before {@link #inverted} is applied
+     */
+    public static final class Port implements MotorDevice, EncoderDevice {
+
+        public double power, velocity;
+        public int position;
+        public boolean inverted, braking;
+
+        public void setPower(double power) {
+            this.power = power;
+        }
+
+        public void setInverted(boolean inverted) {
+            this.inverted = inverted;
+        }
+
+        public void setBraking(boolean braking) {
+            this.braking = braking;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public double getVelocity() {
+            return velocity;
+        }
+    }
+
+    public static final class Servo implements ServoDevice {
+
+        public double position = Double.NaN;
+
+        public void setPosition(double position) {
+            this.position = position;
+        }
+    }
+
+    public static final class CRServo implements CRServoDevice {
+
+        public double power;
+
+        public void setPower(double power) {
+            this.power = power;
+        }
+    }
+
+    public static final class Touch implements TouchDevice {
+
+        public boolean pressed;
+
+        public boolean isPressed() {
+            return pressed;
+        }
+    }
+
+    public static final class Analog implements AnalogDevice {
+
+        public double voltage, maxVoltage = 3.3;
+
+        public double getVoltage() {
+            return voltage;
+        }
+
+        public double getMaxVoltage() {
+            return maxVoltage;
+        }
+    }
+
+    public static final class Color implements ColorDevice {
+
+        public final NormalizedRGBA rgba = new NormalizedRGBA();
+        public float gain = 1;
+        public boolean lightOn;
+
+        public NormalizedRGBA getNormalizedColors() {
+            return rgba;
+        }
+
+        public void setGain(float gain) {
+            this.gain = gain;
+        }
+
+        public void enableLight(boolean lightOn) {
+            this.lightOn = lightOn;
+        }
+    }
+
+    public static final class Voltage implements VoltageDevice {
+
+        public double voltage = 13;
+
+        public double getVoltage() {
+            return voltage;
+        }
+    }
+
+    /**
+     * Reports whatever {@link #pose} and {@link #velocity} are set to;
+     * {@link #setPositionRR} relocalizes like the real device
+     */
+    public static final class Pinpoint implements PinpointDevice {
+
+        public Pose2d pose = new Pose2d(0, 0, 0);
+        public PoseVelocity2d velocity = new PoseVelocity2d(new Vector2d(0, 0), 0);
+        public GoBildaPinpointDriver.DeviceStatus status = GoBildaPinpointDriver.DeviceStatus.READY;
+
+        public void setOffsets(double xOffset, double yOffset) {
+        }
+
+        public void setEncoderResolution(double ticksPerMillimeter) {
+        }
+
+        public void setEncoderDirections(GoBildaPinpointDriver.EncoderDirection xDirection, GoBildaPinpointDriver.EncoderDirection yDirection) {
+        }
+
+        public void resetPosAndIMU() {
+            pose = new Pose2d(0, 0, 0);
+        }
+
+        public void update(boolean headingOnly) {
+        }
+
+        public Pose2d getPositionRR() {
+            return pose;
+        }
+
+        public void setPositionRR(Pose2d pose) {
+            this.pose = pose;
+        }
+
+        public PoseVelocity2d getVelocityRR() {
+            return velocity;
+        }
+
+        public Pose2D getPosition() {
+            return new Pose2D(DistanceUnit.INCH, pose.position.x, pose.position.y, AngleUnit.RADIANS, pose.heading.toDouble());
+        }
+
+        public GoBildaPinpointDriver.DeviceStatus getDeviceStatus() {
+            return status;
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package org.firstinspires.ftc.teamcode.subsystem.utility.sensor;
 
-import com.qualcomm.robotcore.hardware.AnalogInput;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.AnalogDevice;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
+
 public class AnalogEncoder {
 
-    private final AnalogInput encoder;
+    private final AnalogDevice encoder;
 
     private final double maxAngle;
 
     public AnalogEncoder(HardwareMap hardwareMap, String encoderName, double maxAngle) {
+        this(new HardwareMapDevices(hardwareMap), encoderName, maxAngle);
+    }
+
+    public AnalogEncoder(DeviceMap devices, String encoderName, double maxAngle) {
 
-        encoder = hardwareMap.get(AnalogInput.class, encoderName);
+        encoder = devices.analogInput(encoderName);
 
         this.maxAngle = maxAngle;
     }
@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode.subsystem.utility.sensor;
+
+import static org.firstinspires.ftc.teamcode.opmode.Auto.mTelemetry;
+
+import com.acmerobotics.dashboard.config.Config;
+
+import org.firstinspires.ftc.teamcode.control.filter.IIRLowPassFilter;
+import org.firstinspires.ftc.teamcode.control.gainmatrix.LowPassGains;
+import org.firstinspires.ftc.teamcode.control.motion.LoopClock;
+import org.firstinspires.ftc.teamcode.control.motion.LoopTimer;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.VoltageDevice;
+
+/**
+ * Battery voltage shared by every subsystem on a robot <p>
+ * Reads the hub at most once every {@link #SAMPLE_PERIOD} seconds and low-pass filters the readings,
+ * so every consumer between two reads sees the same voltage and the same {@link #getScalar()}
+ */
+@Config
+public final class BatteryVoltage implements VoltageDevice {
+
+    public static double
+            SAMPLE_PERIOD = 0.1,
+            NOMINAL_VOLTAGE = 13;
+
+    public static LowPassGains filterGains = new LowPassGains(0.8);
+
+    private final VoltageDevice sensor;
+    private final LoopTimer timer;
+    private final IIRLowPassFilter filter = new IIRLowPassFilter(filterGains);
+
+    private double voltage = Double.NaN;
+    private long readCount = 0;
+
+    public BatteryVoltage(VoltageDevice sensor, LoopClock clock) {
+        this.sensor = sensor;
+        this.timer = new LoopTimer(clock);
+    }
+
+    /**
+     * Forgets every reading, so the next {@link #update()} reads the hub and starts the filter over
+     */
+    public void reset() {
+        filter.reset();
+        voltage = Double.NaN;
+        readCount = 0;
+        timer.reset();
+    }
+
+    /**
+     * Reads the hub if the last reading is older than {@link #SAMPLE_PERIOD} <p>
+     * Called at the start of every loop so a new reading never lands halfway through one
+     */
+    public void update() {
+        if (readCount > 0 && timer.seconds() < SAMPLE_PERIOD) return;
+
+        timer.reset();
+        readCount++;
+        filter.setGains(filterGains);
+        voltage = filter.calculate(sensor.getVoltage());
+    }
+
+    /**
+     * @return Filtered battery voltage
+     */
+    public double getVoltage() {
+        update();
+        return voltage;
+    }
+
+    /**
+     * @return Power multiplier that makes a command tuned at {@link #NOMINAL_VOLTAGE} behave the same at the current voltage
+     */
+    public double getScalar() {
+        return NOMINAL_VOLTAGE / getVoltage();
+    }
+
+    /**
+     * @return Number of times the hub has been read
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * @return Seconds since the hub was last read
+     */
+    public double getStaleness() {
+        return timer.seconds();
+    }
+
+    public void printTelemetry() {
+        mTelemetry.addData("Battery voltage (V)", voltage);
+        mTelemetry.addData("Battery reads", readCount);
+        mTelemetry.addData("Battery reading age (s)", getStaleness());
+    }
+}
@@ -1,31 +1,92 @@
 package org.firstinspires.ftc.teamcode.subsystem.utility.sensor;
 
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
 import com.qualcomm.robotcore.hardware.NormalizedRGBA;
-import com.qualcomm.robotcore.hardware.SwitchableLight;
 
 import org.firstinspires.ftc.teamcode.control.gainmatrix.HSV;
 import org.firstinspires.ftc.teamcode.control.gainmatrix.RGB;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.ColorDevice;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.DeviceMap;
+import org.firstinspires.ftc.teamcode.subsystem.utility.hardware.HardwareMapDevices;
 
 public final class ColorSensor {
 
-    private final NormalizedColorSensor sensor;
+    public static double
+            ASYNC_MIN_PERIOD = 0.005,
+            ASYNC_IDLE_TIMEOUT = 0.5;
+
+    private final ColorDevice sensor;
 
     private HSV hsv = new HSV();
     private final RGB rgb = new RGB();
+    private long timestamp;
+
+    private boolean async = false;
+    private volatile double minPeriod = 0;
+    private Thread sampler;
+
+    /**
+     * Latest reading from the sampler thread, which is its only writer besides {@link #startSampler()} clearing it
+     */
+    private volatile Reading latest;
+    private volatile long lastRequest;
 
     public ColorSensor(HardwareMap hardwareMap, String name, float gain) {
-        sensor = hardwareMap.get(NormalizedColorSensor.class, name);
+        this(new HardwareMapDevices(hardwareMap), name, gain);
+    }
+
+    public ColorSensor(DeviceMap devices, String name, float gain) {
+        sensor = devices.colorSensor(name);
         sensor.setGain(gain);
         enableLight(true);
     }
 
     public void enableLight(boolean lightOn) {
-        if (sensor instanceof SwitchableLight) ((SwitchableLight) sensor).enableLight(lightOn);
+        sensor.enableLight(lightOn);
+    }
+
+    /**
+     * @param async Read the sensor on a background thread, so {@link #update()} returns the latest
+     *              reading instead of blocking the loop on an I2C transaction. The thread stops on its own
+     *              {@link #ASYNC_IDLE_TIMEOUT} seconds after the last {@link #update()}
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    /**
+     * @param seconds Shortest time between reads, on top of {@link #ASYNC_MIN_PERIOD} in async mode.
+     *                In sync mode, {@link #update()} keeps the last reading until it's this old
+     */
+    public void setMinPeriod(double seconds) {
+        minPeriod = seconds;
     }
 
     public void update() {
+
+        if (async) {
+
+            lastRequest = System.nanoTime();
+            if (sampler == null || !sampler.isAlive()) startSampler();
+
+            Reading reading = latest;
+            if (reading == null) {
+                // the last sampler's reading could be from long ago
+                clearReading();
+                return;
+            }
+
+            rgb.red = reading.red;
+            rgb.green = reading.green;
+            rgb.blue = reading.blue;
+            hsv = reading.hsv;
+            timestamp = reading.nanoTime;
+
+            return;
+        }
+
+        if (minPeriod > 0 && (System.nanoTime() - timestamp) * 1e-9 < minPeriod) return;
+
         NormalizedRGBA rgba = sensor.getNormalizedColors();
 
         rgb.red = (double) rgba.red * 255;
@@ -33,6 +94,47 @@ public final class ColorSensor {
         rgb.blue = (double) rgba.blue * 255;
 
         hsv = rgb.toHSV();
+        timestamp = System.nanoTime();
+    }
+
+    private void clearReading() {
+        rgb.red = rgb.green = rgb.blue = 0;
+        if (timestamp != 0) hsv = new HSV();
+        timestamp = 0;
+    }
+
+    private void startSampler() {
+        latest = null;
+        sampler = new Thread(this::sample, "Color sensor sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    private void sample() {
+        try {
+            while (!Thread.currentThread().isInterrupted() && (System.nanoTime() - lastRequest) * 1e-9 < ASYNC_IDLE_TIMEOUT) {
+
+                long start = System.nanoTime();
+
+                NormalizedRGBA rgba = sensor.getNormalizedColors();
+                RGB rgb = new RGB((double) rgba.red * 255, (double) rgba.green * 255, (double) rgba.blue * 255);
+                latest = new Reading(System.nanoTime(), rgb.red, rgb.green, rgb.blue, rgb.toHSV());
+
+                long remaining = (long) (Math.max(ASYNC_MIN_PERIOD, minPeriod) * 1e9) - (System.nanoTime() - start);
+                if (remaining > 0) Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            }
+        } catch (InterruptedException ignored) {
+        } catch (RuntimeException e) {
+            // hardware gone, e.g. the OpMode stopped mid-read
+        }
+    }
+
+    /**
+     * @return Whether there are values to read, which there aren't in async mode until the sampler thread has read
+     *         the sensor since it last (re)started. Until then, values are 0
+     */
+    public boolean hasReading() {
+        return timestamp != 0;
     }
 
     public HSV getHSV() {
@@ -42,4 +144,26 @@ public final class ColorSensor {
     public RGB getRGB() {
         return rgb;
     }
+
+    /**
+     * @return {@link System#nanoTime()} when the current values were read off the sensor
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    private static final class Reading {
+
+        final long nanoTime;
+        final double red, green, blue;
+        final HSV hsv;
+
+        Reading(long nanoTime, double red, double green, double blue, HSV hsv) {
+            this.nanoTime = nanoTime;
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.hsv = hsv;
+        }
+    }
 }